@@ -0,0 +1,86 @@
+package bench;
+
+import models.Contact;
+import service.ContactService;
+import utils.DBConnection;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Base des benchmarks : par défaut une base H2 en mémoire, en mode MySQL, créée et remplie
+ * au démarrage. -Ddb.url=... (et db.user, db.password) vise une autre base, déjà créée ;
+ * elle est alors utilisée telle quelle, sans schéma ni données ajoutés.
+ */
+final class BenchmarkDatabase {
+    static final String H2_URL = "jdbc:h2:mem:bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static final String CREATE_CONTACTS_SQL = "CREATE TABLE IF NOT EXISTS contacts (" +
+            "id INT AUTO_INCREMENT PRIMARY KEY, " +
+            "nom VARCHAR(100) NOT NULL, postnom VARCHAR(100) NOT NULL, email VARCHAR(150) NOT NULL, " +
+            "numero_telephone VARCHAR(20) NOT NULL, genre VARCHAR(10) NOT NULL, adresse VARCHAR(255), " +
+            "photo_contact INT DEFAULT 0, compte_id INT DEFAULT 0)";
+    private static final int SEED_BATCH_SIZE = 1000;
+
+    private BenchmarkDatabase() {}
+
+    /**
+     * Configure la connexion (avant le premier accès à DBConnection) et prépare les données.
+     * @param datasetSize nombre de contacts voulus (base embarquée uniquement)
+     */
+    static void setUp(int datasetSize) throws SQLException {
+        if (System.getProperty("db.url") != null) {
+            return; // base fournie : utilisée telle quelle
+        }
+        System.setProperty("db.url", H2_URL);
+        System.setProperty("db.user", "sa");
+        // Pas d'index FULLTEXT en H2 : la recherche passe par le LIKE
+        System.setProperty("db.search.fulltext", "false");
+        seed(datasetSize);
+    }
+
+    static void tearDown() throws SQLException {
+        if (H2_URL.equals(System.getProperty("db.url"))) {
+            try (Connection conn = DBConnection.getConnection();
+                 Statement stmt = conn.createStatement()) {
+                stmt.execute("DROP TABLE IF EXISTS contacts");
+            }
+        }
+        DBConnection.closeConnection();
+    }
+
+    /**
+     * Contact valide et reconnaissable : nom "Nom{n}", téléphone "+24381{n sur 7 chiffres}"
+     */
+    static Contact contact(int n) {
+        Contact contact = new Contact();
+        contact.setNom("Nom" + n);
+        contact.setPostnom("Postnom" + n);
+        contact.setEmail("contact" + n + "@exemple.cd");
+        contact.setNumeroTelephone("+24381" + String.format("%07d", n));
+        contact.setGenre(n % 2 == 0 ? "F" : "M");
+        contact.setAdresse(n + " avenue de la Paix, Kinshasa");
+        contact.setPhotoContact(0);
+        return contact;
+    }
+
+    private static void seed(int datasetSize) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS contacts");
+            stmt.execute(CREATE_CONTACTS_SQL);
+        }
+        ContactService service = new ContactService();
+        List<Contact> batch = new ArrayList<>(SEED_BATCH_SIZE);
+        for (int n = 1; n <= datasetSize; n++) {
+            batch.add(contact(n));
+            if (batch.size() == SEED_BATCH_SIZE || n == datasetSize) {
+                service.addContacts(batch, SEED_BATCH_SIZE);
+                batch = new ArrayList<>(SEED_BATCH_SIZE);
+            }
+        }
+    }
+}
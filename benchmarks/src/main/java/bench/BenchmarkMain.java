@@ -0,0 +1,38 @@
+package bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Point d'entrée de benchmarks.jar : mêmes options que org.openjdk.jmh.Main, mais les
+ * résultats sont écrits par défaut en JSON (jmh-result.json) pour être comparés d'un build
+ * à l'autre. -rf / -rff restent prioritaires.
+ */
+public final class BenchmarkMain {
+    private static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    private BenchmarkMain() {}
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        if (cmd.shouldHelp()) {
+            cmd.showHelp();
+            return;
+        }
+        if (cmd.shouldList()) {
+            new Runner(cmd).list();
+            return;
+        }
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cmd);
+        if (!cmd.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cmd.getResult().hasValue()) {
+            options.result(DEFAULT_RESULT_FILE);
+        }
+        new Runner(options.build()).run();
+    }
+}
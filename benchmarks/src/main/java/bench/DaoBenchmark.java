@@ -0,0 +1,92 @@
+package bench;
+
+import dao.ContactDAO;
+import models.Contact;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import service.ContactService;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Chemins critiques de l'accès aux contacts, de bout en bout (pool, requête, mapping),
+ * sur une base embarquée remplie de datasetSize contacts (voir BenchmarkDatabase).
+ * <p>
+ * findById passe directement par le DAO ; serviceFindById par le cache de ContactService.
+ * addContact insère réellement : la table grossit pendant la mesure.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DaoBenchmark {
+
+    @Param({"1000", "100000"})
+    public int datasetSize;
+
+    private ContactDAO contactDAO;
+    private ContactService contactService;
+    private final AtomicInteger nextContact = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.setUp(datasetSize);
+        contactDAO = new ContactDAO();
+        contactService = new ContactService();
+        nextContact.set(datasetSize + 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        BenchmarkDatabase.tearDown();
+    }
+
+    @Benchmark
+    public List<Contact> getAllContacts() {
+        return contactDAO.getAllContacts();
+    }
+
+    /**
+     * Terme sélectif ("Postnom{id}") : coût du parcours, peu de lignes rendues
+     */
+    @Benchmark
+    public List<Contact> searchContacts() {
+        return contactDAO.searchContacts("Postnom" + randomId());
+    }
+
+    @Benchmark
+    public Contact findById() {
+        return contactDAO.findById(randomId()).orElse(null);
+    }
+
+    @Benchmark
+    public Contact serviceFindById() throws SQLException {
+        return contactService.findById(randomId());
+    }
+
+    @Benchmark
+    public boolean addContact() {
+        return contactDAO.addContact(BenchmarkDatabase.contact(nextContact.getAndIncrement()));
+    }
+
+    private int randomId() {
+        return ThreadLocalRandom.current().nextInt(1, datasetSize + 1);
+    }
+}
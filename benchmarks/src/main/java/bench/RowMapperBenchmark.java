@@ -0,0 +1,181 @@
+package bench;
+
+import dao.ContactRowMapper;
+import models.Contact;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import service.User;
+import service.UserRowMapper;
+
+import javax.sql.RowSetMetaData;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût par ligne du mapping ResultSet → objet : recherche des colonnes par nom et setters
+ * validants (avant) contre index résolus une fois et construction sans revalidation (après).
+ * <p>
+ * Le résultat est un CachedRowSet en mémoire : seule la part « mapping » est mesurée,
+ * sans réseau ni driver. Le score est exprimé en nanosecondes par ligne.
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar RowMapperBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowMapperBenchmark {
+    private static final int ROWS = 10_000;
+
+    private CachedRowSet contacts;
+    private CachedRowSet users;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        contacts = createContacts(ROWS);
+        users = createUsers(ROWS);
+    }
+
+    // ===== CONTACT =====
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void contactByName(Blackhole bh) throws SQLException {
+        contacts.beforeFirst();
+        while (contacts.next()) {
+            bh.consume(legacyContact(contacts));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void contactRowMapper(Blackhole bh) throws SQLException {
+        contacts.beforeFirst();
+        ContactRowMapper mapper = ContactRowMapper.of(contacts);
+        while (contacts.next()) {
+            bh.consume(mapper.map(contacts));
+        }
+    }
+
+    // ===== USER =====
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void userByName(Blackhole bh) throws SQLException {
+        users.beforeFirst();
+        while (users.next()) {
+            bh.consume(legacyUser(users));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void userRowMapper(Blackhole bh) throws SQLException {
+        users.beforeFirst();
+        UserRowMapper mapper = UserRowMapper.of(users);
+        while (users.next()) {
+            bh.consume(mapper.map(users));
+        }
+    }
+
+    // ===== MAPPINGS D'ORIGINE (référence « avant ») =====
+
+    static Contact legacyContact(ResultSet rs) throws SQLException {
+        Contact contact = new Contact();
+        contact.setId(rs.getInt("id"));
+        contact.setNom(rs.getString("nom"));
+        contact.setPostnom(rs.getString("postnom"));
+        contact.setEmail(rs.getString("email"));
+        contact.setNumeroTelephone(rs.getString("numero_telephone"));
+        contact.setGenre(rs.getString("genre"));
+        contact.setAdresse(rs.getString("adresse"));
+        contact.setPhotoContact(rs.getInt("photo_contact"));
+        return contact;
+    }
+
+    static User legacyUser(ResultSet rs) throws SQLException {
+        return new User.Builder(rs.getInt("id"), rs.getString("numero_telephone"), rs.getString("role"))
+                .lastName(rs.getString("nom"))
+                .firstName(rs.getString("prenom"))
+                .email(rs.getString("email"))
+                .gender(rs.getString("genre"))
+                .address(rs.getString("adresse"))
+                .build();
+    }
+
+    // ===== DONNÉES =====
+
+    static CachedRowSet createContacts(int count) throws SQLException {
+        CachedRowSet rs = create(new String[]{"id", "nom", "postnom", "email", "numero_telephone",
+                        "genre", "adresse", "photo_contact"},
+                new int[]{Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+                        Types.VARCHAR, Types.VARCHAR, Types.INTEGER});
+        for (int i = 1; i <= count; i++) {
+            rs.moveToInsertRow();
+            rs.updateInt(1, i);
+            rs.updateString(2, "Nom" + i);
+            rs.updateString(3, "Postnom" + i);
+            rs.updateString(4, "contact" + i + "@exemple.cd");
+            rs.updateString(5, "+24381" + String.format("%07d", i));
+            rs.updateString(6, i % 2 == 0 ? "F" : "M");
+            rs.updateString(7, i + " avenue de la Paix, Kinshasa");
+            rs.updateInt(8, 0);
+            rs.insertRow();
+        }
+        rs.moveToCurrentRow();
+        return rs;
+    }
+
+    static CachedRowSet createUsers(int count) throws SQLException {
+        CachedRowSet rs = create(new String[]{"id", "numero_telephone", "role", "nom", "prenom",
+                        "email", "genre", "adresse"},
+                new int[]{Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+                        Types.VARCHAR, Types.VARCHAR, Types.VARCHAR});
+        for (int i = 1; i <= count; i++) {
+            rs.moveToInsertRow();
+            rs.updateInt(1, i);
+            rs.updateString(2, "+24381" + String.format("%07d", i));
+            rs.updateString(3, i % 10 == 0 ? "admin" : "user");
+            rs.updateString(4, "Nom" + i);
+            rs.updateString(5, "Prenom" + i);
+            rs.updateString(6, "user" + i + "@exemple.cd");
+            rs.updateString(7, i % 2 == 0 ? "F" : "M");
+            rs.updateString(8, i + " boulevard du 30 juin, Kinshasa");
+            rs.insertRow();
+        }
+        rs.moveToCurrentRow();
+        return rs;
+    }
+
+    private static CachedRowSet create(String[] names, int[] types) throws SQLException {
+        RowSetMetaData metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(names.length);
+        for (int i = 0; i < names.length; i++) {
+            metaData.setColumnName(i + 1, names[i]);
+            metaData.setColumnLabel(i + 1, names[i]);
+            metaData.setColumnType(i + 1, types[i]);
+        }
+        CachedRowSet rs = RowSetProvider.newFactory().createCachedRowSet();
+        rs.setMetaData(metaData);
+        return rs;
+    }
+}
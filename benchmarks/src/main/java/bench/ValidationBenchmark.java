@@ -0,0 +1,63 @@
+package bench;
+
+import models.Contact;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.User;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût de la validation des modèles : User.Builder.build() (expressions régulières du
+ * téléphone et de l'email) et setters validants de Contact.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+    // Champs non finaux : empêchent le JIT de traiter les entrées comme des constantes
+    private int id = 42;
+    private String phoneNumber = "+243810000042";
+    private String role = "User";
+    private String email = "Utilisateur.42@Exemple.cd";
+    private String name = "  Kabila  ";
+
+    @Benchmark
+    public User userBuild() {
+        return new User.Builder(id, phoneNumber, role)
+                .lastName(name)
+                .firstName(name)
+                .email(email)
+                .gender("m")
+                .address("12 avenue de la Paix")
+                .build();
+    }
+
+    @Benchmark
+    public User userBuildRequiredOnly() {
+        return new User.Builder(id, phoneNumber, role).build();
+    }
+
+    @Benchmark
+    public Contact contactSetters() {
+        Contact contact = new Contact();
+        contact.setId(id);
+        contact.setNom(name);
+        contact.setPostnom(name);
+        contact.setEmail(email);
+        contact.setNumeroTelephone(phoneNumber);
+        contact.setGenre("M");
+        contact.setAdresse("12 avenue de la Paix");
+        return contact;
+    }
+}
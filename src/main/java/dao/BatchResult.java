@@ -0,0 +1,88 @@
+package dao;
+
+import java.util.Arrays;
+
+/**
+ * Résultat ligne par ligne d'une écriture en lot (ContactDAO.addContacts, updateContacts, deleteContacts).
+ * Les indices correspondent à l'ordre des éléments fournis en entrée.
+ */
+public final class BatchResult {
+
+    /**
+     * Issue d'une ligne du lot.
+     */
+    public enum RowOutcome {
+        SUCCESS,
+        NOT_FOUND,
+        FAILED
+    }
+
+    private final RowOutcome[] outcomes;
+    private final String[] errors;
+
+    BatchResult(int size) {
+        this.outcomes = new RowOutcome[size];
+        this.errors = new String[size];
+    }
+
+    void succeed(int index) {
+        outcomes[index] = RowOutcome.SUCCESS;
+    }
+
+    void notFound(int index) {
+        outcomes[index] = RowOutcome.NOT_FOUND;
+    }
+
+    void fail(int index, String error) {
+        outcomes[index] = RowOutcome.FAILED;
+        errors[index] = error;
+    }
+
+    /**
+     * Marque en échec toutes les lignes qui n'ont pas encore été traitées.
+     */
+    void failRemaining(String error) {
+        for (int i = 0; i < outcomes.length; i++) {
+            if (outcomes[i] == null) {
+                fail(i, error);
+            }
+        }
+    }
+
+    public int size() {
+        return outcomes.length;
+    }
+
+    public RowOutcome getOutcome(int index) {
+        return outcomes[index];
+    }
+
+    /**
+     * @return la raison de l'échec de la ligne, ou null si elle n'a pas échoué
+     */
+    public String getError(int index) {
+        return errors[index];
+    }
+
+    public int getSuccessCount() {
+        return count(RowOutcome.SUCCESS);
+    }
+
+    public int getFailureCount() {
+        return count(RowOutcome.FAILED);
+    }
+
+    public boolean isAllSuccessful() {
+        return getSuccessCount() == outcomes.length;
+    }
+
+    private int count(RowOutcome outcome) {
+        return (int) Arrays.stream(outcomes).filter(o -> o == outcome).count();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BatchResult{total=%d, succès=%d, échecs=%d}",
+                outcomes.length, getSuccessCount(), getFailureCount());
+    }
+}
@@ -0,0 +1,41 @@
+package dao;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Index des colonnes d'un résultat, résolus une seule fois depuis ResultSetMetaData
+ * (au lieu d'une recherche par nom à chaque rs.getXxx("colonne") de chaque ligne).
+ */
+public final class ColumnIndexes {
+    private final Map<String, Integer> indexes = new HashMap<>();
+
+    public ColumnIndexes(ResultSetMetaData metaData) throws SQLException {
+        for (int i = metaData.getColumnCount(); i >= 1; i--) {
+            // En cas de doublon (jointure), la première colonne l'emporte, comme findColumn
+            indexes.put(metaData.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+        }
+    }
+
+    /**
+     * @return l'index (à partir de 1) de la colonne
+     * @throws SQLException si la colonne est absente du résultat
+     */
+    public int required(String label) throws SQLException {
+        Integer index = indexes.get(label.toLowerCase(Locale.ROOT));
+        if (index == null) {
+            throw new SQLException("Colonne absente du résultat: " + label);
+        }
+        return index;
+    }
+
+    /**
+     * @return l'index (à partir de 1) de la colonne, ou 0 si elle est absente
+     */
+    public int optional(String label) {
+        return indexes.getOrDefault(label.toLowerCase(Locale.ROOT), 0);
+    }
+}
@@ -0,0 +1,73 @@
+package dao;
+
+import models.Contact;
+import java.util.List;
+
+/**
+ * Modifications de la table contacts depuis une version donnée (synchronisation incrémentale).
+ * Un client garde une copie locale et sa version ; il applique les contacts modifiés et les
+ * suppressions, puis redemande les changements depuis {@link #getVersion()}.
+ * <pre>
+ * ContactChanges changes = dao.changesSince(version);
+ * if (changes.isFullResyncRequired()) { ... recharger tout ... }
+ * ... appliquer getChanged() et getDeletedIds() ...
+ * version = changes.getVersion();
+ * </pre>
+ */
+public final class ContactChanges {
+    private final List<Contact> changed;
+    private final int[] deletedIds;
+    private final long version;
+    private final boolean hasMore;
+    private final boolean fullResyncRequired;
+
+    ContactChanges(List<Contact> changed, int[] deletedIds, long version, boolean hasMore) {
+        this(changed, deletedIds, version, hasMore, false);
+    }
+
+    private ContactChanges(List<Contact> changed, int[] deletedIds, long version,
+                           boolean hasMore, boolean fullResyncRequired) {
+        this.changed = List.copyOf(changed);
+        this.deletedIds = deletedIds;
+        this.version = version;
+        this.hasMore = hasMore;
+        this.fullResyncRequired = fullResyncRequired;
+    }
+
+    /**
+     * La version demandée n'est plus couverte (suppressions purgées) ou les changements
+     * n'ont pas pu être lus : le client doit tout recharger.
+     * @param version version courante de la base, ou -1 si inconnue
+     */
+    static ContactChanges fullResync(long version) {
+        return new ContactChanges(List.of(), new int[0], version, false, true);
+    }
+
+    /**
+     * @return contacts ajoutés ou modifiés, par version croissante
+     */
+    public List<Contact> getChanged() { return changed; }
+
+    /**
+     * @return ids des contacts supprimés (un id peut aussi figurer dans getChanged()
+     *         s'il a été supprimé puis recréé : appliquer les suppressions d'abord)
+     */
+    public int[] getDeletedIds() { return deletedIds.clone(); }
+
+    /**
+     * @return version à transmettre au prochain appel de changesSince
+     */
+    public long getVersion() { return version; }
+
+    /**
+     * @return true si le nombre de changements dépassait la limite : rappeler changesSince
+     *         avec {@link #getVersion()} pour la suite
+     */
+    public boolean hasMore() { return hasMore; }
+
+    public boolean isFullResyncRequired() { return fullResyncRequired; }
+
+    public boolean isEmpty() {
+        return changed.isEmpty() && deletedIds.length == 0;
+    }
+}
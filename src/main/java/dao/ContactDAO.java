@@ -2,10 +2,23 @@ package dao;
 
 import models.Contact;
 import utils.DBConnection;
+import utils.metrics.Counter;
+import utils.metrics.Histogram;
+import utils.metrics.Metrics;
 import java.sql.*;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class ContactDAO {
     // Requêtes SQL préparées
@@ -13,40 +26,146 @@ public class ContactDAO {
             "email, numero_telephone, genre, adresse, photo_contact) VALUES (?, ?, ?, ?, ?, ?, ?)";
     private static final String SELECT_ALL_SQL = "SELECT * FROM contacts";
     private static final String SELECT_BY_ID_SQL = "SELECT * FROM contacts WHERE id = ?";
+    private static final String SELECT_IDS_SQL = "SELECT id FROM contacts ORDER BY id";
+    private static final String SELECT_BY_ID_RANGE_SQL = "SELECT * FROM contacts " +
+            "WHERE id BETWEEN ? AND ? ORDER BY id";
     private static final String DELETE_SQL = "DELETE FROM contacts WHERE id = ?";
     private static final String SEARCH_SQL = "SELECT * FROM contacts WHERE nom LIKE ? " +
             "OR postnom LIKE ? OR numero_telephone LIKE ?";
+    // Recherche indexée (FULLTEXT ngram) ; le LIKE final garantit la sémantique de sous-chaîne
+    private static final String FULLTEXT_SEARCH_SQL = "SELECT * FROM contacts " +
+            "WHERE MATCH(nom, postnom, numero_telephone) AGAINST (? IN BOOLEAN MODE) " +
+            "AND (nom LIKE ? OR postnom LIKE ? OR numero_telephone LIKE ?)";
+    // Ajouté aux recherches limitées aux premiers résultats
+    private static final String LIMIT_CLAUSE = " LIMIT ?";
     private static final String UPDATE_SQL = "UPDATE contacts SET nom = ?, " +
             "postnom = ?, email = ?, numero_telephone = ?, genre = ?, adresse = ?, " +
             "photo_contact = ? WHERE id = ?";
+    // Synchronisation incrémentale (voir db/003_contacts_change_version.sql)
+    private static final String SELECT_VERSION_SQL = "SELECT current_version, tombstone_floor " +
+            "FROM contacts_version WHERE id = 1";
+    private static final String SELECT_CHANGED_SQL = "SELECT * FROM contacts " +
+            "WHERE version > ? ORDER BY version LIMIT ?";
+    private static final String SELECT_TOMBSTONES_SQL = "SELECT contact_id FROM contacts_tombstones " +
+            "WHERE version > ? AND version <= ? ORDER BY version";
+    private static final String RAISE_TOMBSTONE_FLOOR_SQL = "UPDATE contacts_version SET tombstone_floor = " +
+            "GREATEST(tombstone_floor, (SELECT COALESCE(MAX(version), 0) FROM contacts_tombstones " +
+            "WHERE deleted_at < ?)) WHERE id = 1";
+    private static final String PURGE_TOMBSTONES_SQL = "DELETE FROM contacts_tombstones WHERE deleted_at < ?";
+
+    // Un terme plus court qu'un n-gramme (ngram_token_size) ne peut pas utiliser l'index
+    private static final int MIN_FULLTEXT_TERM_LENGTH = 2;
+    // MySQL ER_FT_MATCHING_KEY_NOT_FOUND : index FULLTEXT absent
+    private static final int ERROR_FULLTEXT_INDEX_MISSING = 1191;
+
+    // Désactivé par -Ddb.search.fulltext=false, ou automatiquement si l'index n'existe pas
+    private static final AtomicBoolean fullTextEnabled =
+            new AtomicBoolean(Boolean.parseBoolean(System.getProperty("db.search.fulltext", "true")));
+
+    // Taille maximale d'une page (pagination keyset)
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    // Lecture en continu (MySQL : ligne par ligne, le résultat n'est pas bufferisé)
+    private static final int STREAM_FETCH_SIZE = DBConnection.getStreamingFetchSize();
+
+    // Nombre de lignes envoyées et validées par transaction lors des écritures en lot
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    // Nombre maximal de contacts modifiés renvoyés par appel à changesSince
+    public static final int DEFAULT_CHANGES_LIMIT = MAX_PAGE_SIZE;
+
+    // Métriques (JMX) : durée de chaque opération et nombre de lignes lues par requête
+    private static final Histogram SEARCH_TIMER = Metrics.timer("dao.contacts.search");
+    private static final Histogram SEARCH_ROWS = Metrics.histogram("dao.contacts.search.rows");
+    private static final Histogram ADD_TIMER = Metrics.timer("dao.contacts.add");
+    private static final Histogram UPDATE_TIMER = Metrics.timer("dao.contacts.update");
+    private static final Histogram DELETE_TIMER = Metrics.timer("dao.contacts.delete");
+    private static final Histogram FIND_BY_ID_TIMER = Metrics.timer("dao.contacts.findById");
+    private static final Histogram GET_ALL_TIMER = Metrics.timer("dao.contacts.getAll");
+    private static final Histogram GET_ALL_ROWS = Metrics.histogram("dao.contacts.getAll.rows");
+    private static final Histogram GET_IDS_TIMER = Metrics.timer("dao.contacts.getIds");
+    private static final Histogram GET_IDS_ROWS = Metrics.histogram("dao.contacts.getIds.rows");
+    private static final Histogram ID_RANGE_TIMER = Metrics.timer("dao.contacts.findByIdRange");
+    private static final Histogram ID_RANGE_ROWS = Metrics.histogram("dao.contacts.findByIdRange.rows");
+    private static final Histogram PAGE_TIMER = Metrics.timer("dao.contacts.page");
+    private static final Histogram PAGE_ROWS = Metrics.histogram("dao.contacts.page.rows");
+    private static final Histogram ADD_BATCH_TIMER = Metrics.timer("dao.contacts.addBatch");
+    private static final Histogram UPDATE_BATCH_TIMER = Metrics.timer("dao.contacts.updateBatch");
+    private static final Histogram DELETE_BATCH_TIMER = Metrics.timer("dao.contacts.deleteBatch");
+    // Flux : durée d'ouverture (jusqu'à la première ligne disponible), lignes lues à la fermeture
+    private static final Histogram STREAM_OPEN_TIMER = Metrics.timer("dao.contacts.streamOpen");
+    private static final Histogram STREAM_ROWS = Metrics.histogram("dao.contacts.stream.rows");
+    private static final Histogram CHANGES_TIMER = Metrics.timer("dao.contacts.changesSince");
+    private static final Histogram CHANGES_ROWS = Metrics.histogram("dao.contacts.changesSince.rows");
+    private static final Counter SQL_ERRORS = Metrics.counter("dao.contacts.errors");
+    private static final Counter SEARCHES_CANCELLED = Metrics.counter("dao.contacts.search.cancelled");
 
     /**
-     * Méthode de recherche unifiée optimisée
+     * Méthode de recherche unifiée optimisée.
+     * Utilise l'index FULLTEXT ngram quand il est disponible, sinon le balayage LIKE.
      */
     public List<Contact> searchContacts(String searchTerm) {
-        List<Contact> contacts = new ArrayList<>();
+        return searchContacts(searchTerm, null);
+    }
 
+    /**
+     * Recherche annulable : cancellation.cancel() interrompt la requête en cours (Statement.cancel).
+     * @param cancellation jeton d'annulation, ou null
+     * @return les contacts trouvés ; liste vide si la recherche a été annulée
+     */
+    public List<Contact> searchContacts(String searchTerm, QueryCancellation cancellation) {
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
             return getAllContacts();
         }
+        return searchContacts(searchTerm, cancellation, 0);
+    }
 
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(SEARCH_SQL)) {
-
-            String pattern = "%" + searchTerm + "%";
-            stmt.setString(1, pattern);
-            stmt.setString(2, pattern);
-            stmt.setString(3, pattern);
+    /**
+     * Recherche limitée aux premiers résultats (la limite est appliquée par le serveur SQL)
+     * @param searchTerm terme recherché, non vide
+     * @param limit nombre maximal de contacts (1 à {@link #MAX_PAGE_SIZE})
+     */
+    public List<Contact> searchContacts(String searchTerm, int limit) {
+        if (searchTerm == null || searchTerm.trim().isEmpty()) {
+            throw new IllegalArgumentException("Le terme de recherche est obligatoire");
+        }
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("La limite doit être comprise entre 1 et " + MAX_PAGE_SIZE);
+        }
+        return searchContacts(searchTerm, null, limit);
+    }
 
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    contacts.add(mapResultSetToContact(rs));
+    /**
+     * Recherche par l'index FULLTEXT s'il est disponible, sinon par LIKE
+     * @param limit nombre maximal de contacts, 0 pour aucune limite
+     */
+    private List<Contact> searchContacts(String searchTerm, QueryCancellation cancellation, int limit) {
+        String term = searchTerm.trim();
+        long start = System.nanoTime();
+        try {
+            if (fullTextEnabled.get() && term.length() >= MIN_FULLTEXT_TERM_LENGTH) {
+                try {
+                    return searchContactsFullText(term, cancellation, limit);
+                } catch (SQLException e) {
+                    if (e.getErrorCode() != ERROR_FULLTEXT_INDEX_MISSING) {
+                        handleSearchException(e, cancellation);
+                        return new ArrayList<>();
+                    }
+                    fullTextEnabled.set(false);
+                    System.err.println("Index FULLTEXT absent : recherche par LIKE (voir db/002_contacts_fulltext_ngram.sql)");
                 }
             }
-        } catch (SQLException e) {
-            handleSQLException("Erreur lors de la recherche", e);
+            return searchContactsLike(searchTerm, cancellation, limit);
+        } finally {
+            SEARCH_TIMER.recordSince(start);
         }
-        return contacts;
+    }
+
+    /**
+     * Recherche par balayage LIKE '%terme%' (repli lorsque l'index FULLTEXT est indisponible)
+     */
+    public List<Contact> searchContactsLike(String searchTerm) {
+        return SEARCH_TIMER.time(() -> searchContactsLike(searchTerm, null, 0));
     }
 
     /**
@@ -57,6 +176,7 @@ public class ContactDAO {
             throw new IllegalArgumentException("Contact ne peut pas être null");
         }
 
+        long start = System.nanoTime();
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(INSERT_SQL,
                      Statement.RETURN_GENERATED_KEYS)) {
@@ -74,6 +194,8 @@ public class ContactDAO {
             }
         } catch (SQLException e) {
             handleSQLException("Erreur lors de l'ajout", e);
+        } finally {
+            ADD_TIMER.recordSince(start);
         }
         return false;
     }
@@ -86,6 +208,7 @@ public class ContactDAO {
             throw new IllegalArgumentException("Contact invalide");
         }
 
+        long start = System.nanoTime();
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(UPDATE_SQL)) {
 
@@ -96,6 +219,8 @@ public class ContactDAO {
         } catch (SQLException e) {
             handleSQLException("Erreur lors de la mise à jour", e);
             return false;
+        } finally {
+            UPDATE_TIMER.recordSince(start);
         }
     }
 
@@ -107,16 +232,19 @@ public class ContactDAO {
             return Optional.empty();
         }
 
+        long start = System.nanoTime();
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(SELECT_BY_ID_SQL)) {
             stmt.setInt(1, id);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return Optional.of(mapResultSetToContact(rs));
+                    return Optional.of(ContactRowMapper.of(rs).map(rs));
                 }
             }
         } catch (SQLException e) {
             handleSQLException("Erreur lors de la recherche par ID", e);
+        } finally {
+            FIND_BY_ID_TIMER.recordSince(start);
         }
         return Optional.empty();
     }
@@ -126,18 +254,233 @@ public class ContactDAO {
      */
     public List<Contact> getAllContacts() {
         List<Contact> contacts = new ArrayList<>();
+        long start = System.nanoTime();
         try (Connection conn = DBConnection.getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(SELECT_ALL_SQL)) {
+            ContactRowMapper mapper = ContactRowMapper.of(rs);
             while (rs.next()) {
-                contacts.add(mapResultSetToContact(rs));
+                contacts.add(mapper.map(rs));
             }
         } catch (SQLException e) {
             handleSQLException("Erreur lors de la récupération", e);
+        } finally {
+            GET_ALL_TIMER.recordSince(start);
         }
+        GET_ALL_ROWS.record(contacts.size());
         return contacts;
     }
 
+    /**
+     * Ids de tous les contacts, triés, lus en continu dans un tableau primitif
+     * (4 octets par contact, contre un objet Contact complet)
+     */
+    public int[] getContactIds() {
+        int[] ids = new int[1024];
+        int count = 0;
+        long start = System.nanoTime();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_IDS_SQL)) {
+            stmt.setFetchSize(STREAM_FETCH_SIZE);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if (count == ids.length) {
+                        ids = Arrays.copyOf(ids, count + (count >> 1));
+                    }
+                    ids[count++] = rs.getInt(1);
+                }
+            }
+        } catch (SQLException e) {
+            handleSQLException("Erreur lors de la lecture des ids", e);
+            return new int[0];
+        } finally {
+            GET_IDS_TIMER.recordSince(start);
+        }
+        GET_IDS_ROWS.record(count);
+        return Arrays.copyOf(ids, count);
+    }
+
+    /**
+     * Contacts dont l'id est compris entre deux bornes incluses, triés par id (parcours de la clé primaire)
+     */
+    public List<Contact> findByIdRange(int fromId, int toId) {
+        List<Contact> contacts = new ArrayList<>();
+        long start = System.nanoTime();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_BY_ID_RANGE_SQL)) {
+            stmt.setInt(1, fromId);
+            stmt.setInt(2, toId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                ContactRowMapper mapper = ContactRowMapper.of(rs);
+                while (rs.next()) {
+                    contacts.add(mapper.map(rs));
+                }
+            }
+        } catch (SQLException e) {
+            handleSQLException("Erreur lors de la lecture par plage d'ids", e);
+        } finally {
+            ID_RANGE_TIMER.recordSince(start);
+        }
+        ID_RANGE_ROWS.record(contacts.size());
+        return contacts;
+    }
+
+    /**
+     * Ajout en lot : une transaction par tranche de {@link #DEFAULT_BATCH_SIZE} contacts
+     */
+    public BatchResult addContacts(List<Contact> contacts) {
+        return addContacts(contacts, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Ajout en lot avec récupération des clés générées (setId sur chaque contact inséré)
+     * @param contacts contacts à insérer
+     * @param batchSize nombre de lignes par tranche (une transaction par tranche)
+     * @return l'issue de chaque ligne, dans l'ordre de la liste
+     */
+    public BatchResult addContacts(List<Contact> contacts, int batchSize) {
+        if (contacts == null) {
+            throw new IllegalArgumentException("La liste de contacts ne peut pas être null");
+        }
+        return executeBatch(contacts, batchSize, INSERT_SQL, true, ADD_BATCH_TIMER,
+                contact -> contact == null ? "Contact null" : null,
+                this::setContactParameters,
+                Contact::setId,
+                "Erreur lors de l'ajout en lot");
+    }
+
+    /**
+     * Mise à jour en lot : une transaction par tranche de {@link #DEFAULT_BATCH_SIZE} contacts
+     */
+    public BatchResult updateContacts(List<Contact> contacts) {
+        return updateContacts(contacts, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Mise à jour en lot
+     * @param contacts contacts modifiés (id obligatoire)
+     * @param batchSize nombre de lignes par tranche (une transaction par tranche)
+     * @return l'issue de chaque ligne ; NOT_FOUND si l'id n'existe pas
+     */
+    public BatchResult updateContacts(List<Contact> contacts, int batchSize) {
+        if (contacts == null) {
+            throw new IllegalArgumentException("La liste de contacts ne peut pas être null");
+        }
+        return executeBatch(contacts, batchSize, UPDATE_SQL, false, UPDATE_BATCH_TIMER,
+                contact -> contact == null || contact.getId() <= 0 ? "Contact invalide" : null,
+                (stmt, contact) -> {
+                    setContactParameters(stmt, contact);
+                    stmt.setInt(8, contact.getId());
+                },
+                null,
+                "Erreur lors de la mise à jour en lot");
+    }
+
+    /**
+     * Suppression en lot : une transaction par tranche de {@link #DEFAULT_BATCH_SIZE} ids
+     */
+    public BatchResult deleteContacts(Collection<Integer> ids) {
+        return deleteContacts(ids, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Suppression en lot
+     * @param ids identifiants à supprimer
+     * @param batchSize nombre de lignes par tranche (une transaction par tranche)
+     * @return l'issue de chaque id, dans l'ordre d'itération de la collection
+     */
+    public BatchResult deleteContacts(Collection<Integer> ids, int batchSize) {
+        if (ids == null) {
+            throw new IllegalArgumentException("La liste d'ids ne peut pas être null");
+        }
+        return executeBatch(new ArrayList<>(ids), batchSize, DELETE_SQL, false, DELETE_BATCH_TIMER,
+                id -> id == null || id <= 0 ? "Id invalide" : null,
+                (stmt, id) -> stmt.setInt(1, id),
+                null,
+                "Erreur lors de la suppression en lot");
+    }
+
+    /**
+     * Lecture en continu de tous les contacts, sans charger la table en mémoire.
+     * Le flux garde une connexion du pool : il doit être fermé (try-with-resources),
+     * y compris si l'appelant s'arrête avant la fin.
+     * @return flux paresseux de contacts
+     * @throws IllegalStateException si la requête ne peut pas être ouverte ou lue jusqu'au bout
+     */
+    public Stream<Contact> streamAllContacts() {
+        return streamQuery(SELECT_ALL_SQL, stmt -> { });
+    }
+
+    /**
+     * Lecture en continu des contacts correspondant aux critères de {@link #searchContacts}
+     * @param searchTerm terme recherché (nom, postnom ou numéro) ; vide = tous les contacts
+     * @return flux paresseux de contacts, à fermer après usage
+     * @throws IllegalStateException si la requête ne peut pas être ouverte ou lue jusqu'au bout
+     */
+    public Stream<Contact> streamContacts(String searchTerm) {
+        if (searchTerm == null || searchTerm.trim().isEmpty()) {
+            return streamAllContacts();
+        }
+        String pattern = "%" + searchTerm + "%";
+        return streamQuery(SEARCH_SQL, stmt -> {
+            stmt.setString(1, pattern);
+            stmt.setString(2, pattern);
+            stmt.setString(3, pattern);
+        });
+    }
+
+    /**
+     * Pagination keyset : lit la page qui suit le jeton donné, triée par (clé de tri, id).
+     * Le coût ne dépend que de la taille de la page, pas de sa position dans la table.
+     * @param sort ordre de tri
+     * @param pageToken jeton renvoyé par la page précédente, ou null pour la première page
+     * @param limit nombre de contacts par page (1 à {@link #MAX_PAGE_SIZE})
+     */
+    public ContactPage getContactsPage(ContactSort sort, String pageToken, int limit) {
+        if (sort == null) {
+            throw new IllegalArgumentException("Le tri ne peut pas être null");
+        }
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Taille de page invalide: " + limit);
+        }
+        ContactPage.Cursor cursor = pageToken == null ? null : ContactPage.decode(pageToken, sort);
+
+        List<Contact> contacts = new ArrayList<>(limit + 1);
+        String sql = cursor == null ? sort.getFirstPageSql() : sort.getNextPageSql();
+        long start = System.nanoTime();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int index = 1;
+            if (cursor != null) {
+                if (!sort.isById()) {
+                    stmt.setString(index++, cursor.lastValue());
+                }
+                stmt.setInt(index++, cursor.lastId());
+            }
+            // Une ligne de plus pour savoir s'il existe une page suivante
+            stmt.setInt(index, limit + 1);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                ContactRowMapper mapper = ContactRowMapper.of(rs);
+                while (rs.next()) {
+                    contacts.add(mapper.map(rs));
+                }
+            }
+        } catch (SQLException e) {
+            handleSQLException("Erreur lors de la lecture paginée", e);
+        } finally {
+            PAGE_TIMER.recordSince(start);
+        }
+        PAGE_ROWS.record(Math.min(contacts.size(), limit));
+
+        if (contacts.size() <= limit) {
+            return new ContactPage(contacts, null);
+        }
+        List<Contact> page = contacts.subList(0, limit);
+        return new ContactPage(page, ContactPage.encode(sort, page.get(limit - 1)));
+    }
+
     /**
      * Suppression d'un contact
      */
@@ -145,6 +488,7 @@ public class ContactDAO {
         if (id <= 0) {
             return false;
         }
+        long start = System.nanoTime();
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(DELETE_SQL)) {
             stmt.setInt(1, id);
@@ -152,27 +496,461 @@ public class ContactDAO {
         } catch (SQLException e) {
             handleSQLException("Erreur lors de la suppression", e);
             return false;
+        } finally {
+            DELETE_TIMER.recordSince(start);
+        }
+    }
+
+    /**
+     * Version courante de la table contacts (incrémentée à chaque écriture)
+     * @return la version, ou -1 si elle ne peut pas être lue (migration 003 non appliquée)
+     */
+    public long getChangeVersion() {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_VERSION_SQL);
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : -1;
+        } catch (SQLException e) {
+            handleSQLException("Erreur lors de la lecture de la version", e);
+            return -1;
+        }
+    }
+
+    /**
+     * Contacts ajoutés, modifiés ou supprimés depuis une version, au plus {@link #DEFAULT_CHANGES_LIMIT}
+     */
+    public ContactChanges changesSince(long version) {
+        return changesSince(version, DEFAULT_CHANGES_LIMIT);
+    }
+
+    /**
+     * Contacts ajoutés, modifiés ou supprimés depuis une version.
+     * Le coût dépend du nombre de changements (index sur contacts.version), pas de la taille de la table.
+     * Version, lignes et suppressions sont lues dans une même transaction, donc dans un même
+     * instantané (REPEATABLE READ, l'isolation par défaut de MySQL).
+     * @param version version obtenue lors de la synchronisation précédente (ou par getChangeVersion)
+     * @param limit nombre maximal de contacts modifiés (1 à {@link #MAX_PAGE_SIZE})
+     */
+    public ContactChanges changesSince(long version, int limit) {
+        if (version < 0) {
+            throw new IllegalArgumentException("Version invalide: " + version);
+        }
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limite invalide: " + limit);
+        }
+        List<Contact> changed = new ArrayList<>();
+        long start = System.nanoTime();
+        try (Connection conn = DBConnection.getConnection()) {
+            // L'autocommit est rétabli par le pool à la restitution de la connexion
+            conn.setAutoCommit(false);
+
+            long current;
+            long floor;
+            try (PreparedStatement stmt = conn.prepareStatement(SELECT_VERSION_SQL);
+                 ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("Compteur de version absent (contacts_version)");
+                }
+                current = rs.getLong(1);
+                floor = rs.getLong(2);
+            }
+            if (version < floor) {
+                // Des suppressions postérieures à cette version ont été purgées
+                conn.commit();
+                return ContactChanges.fullResync(current);
+            }
+
+            // Une ligne de plus pour savoir si la limite est atteinte
+            long upTo = current;
+            boolean hasMore = false;
+            try (PreparedStatement stmt = conn.prepareStatement(SELECT_CHANGED_SQL)) {
+                stmt.setLong(1, version);
+                stmt.setInt(2, limit + 1);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    ContactRowMapper mapper = ContactRowMapper.of(rs);
+                    int versionColumn = rs.findColumn("version");
+                    while (rs.next()) {
+                        if (changed.size() == limit) {
+                            hasMore = true;
+                            break;
+                        }
+                        changed.add(mapper.map(rs));
+                        upTo = rs.getLong(versionColumn);
+                    }
+                }
+            }
+            if (!hasMore) {
+                upTo = Math.max(upTo, current);
+            }
+
+            int[] deletedIds = new int[16];
+            int deletedCount = 0;
+            try (PreparedStatement stmt = conn.prepareStatement(SELECT_TOMBSTONES_SQL)) {
+                stmt.setLong(1, version);
+                stmt.setLong(2, upTo);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        if (deletedCount == deletedIds.length) {
+                            deletedIds = Arrays.copyOf(deletedIds, deletedCount * 2);
+                        }
+                        deletedIds[deletedCount++] = rs.getInt(1);
+                    }
+                }
+            }
+            conn.commit();
+            CHANGES_ROWS.record(changed.size() + deletedCount);
+            return new ContactChanges(changed, Arrays.copyOf(deletedIds, deletedCount), upTo, hasMore);
+        } catch (SQLException e) {
+            handleSQLException("Erreur lors de la lecture des changements", e);
+            return ContactChanges.fullResync(-1);
+        } finally {
+            CHANGES_TIMER.recordSince(start);
+        }
+    }
+
+    /**
+     * Supprime les pierres tombales plus anciennes qu'une durée de rétention.
+     * Un client dont la version est antérieure aux suppressions purgées devra tout recharger.
+     * @return le nombre de pierres tombales supprimées, ou -1 en cas d'erreur
+     */
+    public int purgeTombstones(Duration retention) {
+        if (retention == null || retention.isNegative()) {
+            throw new IllegalArgumentException("Durée de rétention invalide: " + retention);
+        }
+        Timestamp before = Timestamp.from(Instant.now().minus(retention));
+        try (Connection conn = DBConnection.getConnection()) {
+            // L'autocommit est rétabli par le pool à la restitution de la connexion
+            conn.setAutoCommit(false);
+            try (PreparedStatement raise = conn.prepareStatement(RAISE_TOMBSTONE_FLOOR_SQL);
+                 PreparedStatement purge = conn.prepareStatement(PURGE_TOMBSTONES_SQL)) {
+                raise.setTimestamp(1, before);
+                raise.executeUpdate();
+                purge.setTimestamp(1, before);
+                int purged = purge.executeUpdate();
+                conn.commit();
+                return purged;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            handleSQLException("Erreur lors de la purge des suppressions", e);
+            return -1;
         }
     }
 
 
     // ===== MÉTHODES UTILITAIRES PRIVÉES =====
+
+    /**
+     * Recherche par l'index FULLTEXT : l'index réduit les candidats, le LIKE les vérifie
+     */
+    private List<Contact> searchContactsFullText(String term, QueryCancellation cancellation, int limit)
+            throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(limit > 0 ? FULLTEXT_SEARCH_SQL + LIMIT_CLAUSE : FULLTEXT_SEARCH_SQL)) {
+
+            // Recherche de phrase : les n-grammes du terme doivent se suivre
+            stmt.setString(1, "\"" + term.replace("\"", " ") + "\"");
+            String pattern = "%" + term + "%";
+            stmt.setString(2, pattern);
+            stmt.setString(3, pattern);
+            stmt.setString(4, pattern);
+            if (limit > 0) {
+                stmt.setInt(5, limit);
+            }
+            return executeSearch(stmt, cancellation);
+        }
+    }
+
+    private List<Contact> searchContactsLike(String searchTerm, QueryCancellation cancellation, int limit) {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(limit > 0 ? SEARCH_SQL + LIMIT_CLAUSE : SEARCH_SQL)) {
+
+            String pattern = "%" + searchTerm + "%";
+            stmt.setString(1, pattern);
+            stmt.setString(2, pattern);
+            stmt.setString(3, pattern);
+            if (limit > 0) {
+                stmt.setInt(4, limit);
+            }
+            return executeSearch(stmt, cancellation);
+        } catch (SQLException e) {
+            handleSearchException(e, cancellation);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Exécute une recherche en exposant la requête au jeton d'annulation le temps de l'exécution
+     */
+    private List<Contact> executeSearch(PreparedStatement stmt, QueryCancellation cancellation) throws SQLException {
+        if (cancellation != null) {
+            cancellation.register(stmt);
+        }
+        try (ResultSet rs = stmt.executeQuery()) {
+            List<Contact> contacts = new ArrayList<>();
+            ContactRowMapper mapper = ContactRowMapper.of(rs);
+            while (rs.next()) {
+                contacts.add(mapper.map(rs));
+            }
+            if (cancellation != null) {
+                cancellation.throwIfCancelled(); // annulée juste avant l'exécution : résultat périmé
+            }
+            SEARCH_ROWS.record(contacts.size());
+            return contacts;
+        } finally {
+            if (cancellation != null) {
+                cancellation.unregister(stmt);
+            }
+        }
+    }
+
+    /**
+     * Une recherche annulée n'est pas une erreur : elle n'est pas journalisée
+     */
+    private void handleSearchException(SQLException e, QueryCancellation cancellation) {
+        if (cancellation == null || !cancellation.isCancelled()) {
+            handleSQLException("Erreur lors de la recherche", e);
+        } else {
+            SEARCHES_CANCELLED.increment();
+        }
+    }
+
+    /**
+     * Paramétrage d'une requête avant exécution
+     */
+    @FunctionalInterface
+    private interface StatementBinder {
+        void bind(PreparedStatement stmt) throws SQLException;
+    }
+
     /**
-     * Mapping ResultSet → Contact
+     * Paramétrage d'une ligne d'un lot
      */
-    private Contact mapResultSetToContact(ResultSet rs) throws SQLException {
-        Contact contact = new Contact();
-        contact.setId(rs.getInt("id"));
-        contact.setNom(rs.getString("nom"));
-        contact.setPostnom(rs.getString("postnom"));
-        contact.setEmail(rs.getString("email"));
-        contact.setNumeroTelephone(rs.getString("numero_telephone"));
-        contact.setGenre(rs.getString("genre"));
-        contact.setAdresse(rs.getString("adresse"));
-        contact.setPhotoContact(rs.getInt("photo_contact"));
-        return contact;
+    @FunctionalInterface
+    private interface RowBinder<T> {
+        void bind(PreparedStatement stmt, T row) throws SQLException;
+    }
+
+    /**
+     * Contrôle préalable d'une ligne : retourne la raison du rejet, ou null si elle est valide
+     */
+    @FunctionalInterface
+    private interface RowValidator<T> {
+        String validate(T row);
+    }
+
+    /**
+     * Affectation d'une clé générée à la ligne insérée
+     */
+    @FunctionalInterface
+    private interface KeyAssigner<T> {
+        void assign(T row, int key);
+    }
+
+    /**
+     * Exécution JDBC en lot, découpée en tranches validées chacune dans leur propre transaction.
+     * Avec rewriteBatchedStatements, le driver envoie chaque tranche en un seul aller-retour.
+     */
+    private <T> BatchResult executeBatch(List<T> rows, int batchSize, String sql, boolean returnKeys,
+                                         Histogram timer, RowValidator<T> validator, RowBinder<T> binder,
+                                         KeyAssigner<T> keyAssigner, String context) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Taille de lot invalide: " + batchSize);
+        }
+        BatchResult result = new BatchResult(rows.size());
+        if (rows.isEmpty()) {
+            return result;
+        }
+
+        long start = System.nanoTime();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = returnKeys
+                     ? conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                     : conn.prepareStatement(sql)) {
+            // L'autocommit est rétabli par le pool à la restitution de la connexion
+            conn.setAutoCommit(false);
+
+            List<Integer> chunk = new ArrayList<>(Math.min(batchSize, rows.size()));
+            for (int i = 0; i < rows.size(); i++) {
+                T row = rows.get(i);
+                String error = validator.validate(row);
+                if (error != null) {
+                    result.fail(i, error);
+                    continue;
+                }
+                binder.bind(stmt, row);
+                stmt.addBatch();
+                chunk.add(i);
+                if (chunk.size() == batchSize) {
+                    executeChunk(conn, stmt, rows, chunk, keyAssigner, result, context);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                executeChunk(conn, stmt, rows, chunk, keyAssigner, result, context);
+            }
+        } catch (SQLException e) {
+            handleSQLException(context, e);
+            result.failRemaining(e.getMessage());
+        } finally {
+            timer.recordSince(start);
+        }
+        return result;
     }
 
+    /**
+     * Envoie et valide une tranche ; en cas d'échec, la tranche entière est annulée.
+     */
+    private <T> void executeChunk(Connection conn, PreparedStatement stmt, List<T> rows, List<Integer> chunk,
+                                  KeyAssigner<T> keyAssigner, BatchResult result, String context) {
+        try {
+            int[] counts = stmt.executeBatch();
+            int[] keys = keyAssigner != null ? readGeneratedKeys(stmt, chunk.size()) : null;
+            conn.commit();
+
+            for (int j = 0; j < chunk.size(); j++) {
+                int index = chunk.get(j);
+                int count = j < counts.length ? counts[j] : Statement.SUCCESS_NO_INFO;
+                if (count == Statement.EXECUTE_FAILED) {
+                    result.fail(index, "Échec de l'exécution");
+                } else if (count == 0) {
+                    result.notFound(index);
+                } else {
+                    result.succeed(index);
+                    if (keys != null && j < keys.length) {
+                        keyAssigner.assign(rows.get(index), keys[j]);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            handleSQLException(context, e);
+            try {
+                conn.rollback();
+            } catch (SQLException rollbackError) {
+                handleSQLException("Erreur lors de l'annulation de la tranche", rollbackError);
+            }
+            for (int index : chunk) {
+                result.fail(index, e.getMessage());
+            }
+            try {
+                stmt.clearBatch();
+            } catch (SQLException ignored) {
+                // Le statement sera de toute façon fermé avec la connexion
+            }
+        }
+    }
+
+    private int[] readGeneratedKeys(PreparedStatement stmt, int expected) throws SQLException {
+        int[] keys = new int[expected];
+        int count = 0;
+        try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+            while (generatedKeys.next() && count < expected) {
+                keys[count++] = generatedKeys.getInt(1);
+            }
+        }
+        return count == expected ? keys : Arrays.copyOf(keys, count);
+    }
+
+    /**
+     * Ouvre un flux de contacts adossé à un ResultSet en lecture ligne par ligne
+     */
+    private Stream<Contact> streamQuery(String sql, StatementBinder binder) {
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        long start = System.nanoTime();
+        try {
+            conn = DBConnection.getConnection();
+            stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(STREAM_FETCH_SIZE);
+            binder.bind(stmt);
+            ResultSet rs = stmt.executeQuery();
+            ContactCursor cursor = new ContactCursor(conn, stmt, rs, ContactRowMapper.of(rs));
+            return StreamSupport.stream(cursor, false).onClose(cursor::close);
+        } catch (SQLException e) {
+            closeQuietly(stmt);
+            closeQuietly(conn);
+            SQL_ERRORS.increment();
+            // Comme en cours de lecture : un flux vide passerait pour une table vide
+            throw new IllegalStateException("Erreur lors de l'ouverture du flux", e);
+        } finally {
+            STREAM_OPEN_TIMER.recordSince(start);
+        }
+    }
+
+    /**
+     * Curseur paresseux sur un ResultSet : libère la connexion une fois épuisé ou fermé.
+     * En cas d'arrêt anticipé, la connexion est abandonnée (abort) plutôt que de
+     * laisser le driver lire toutes les lignes restantes pour la rendre au pool.
+     */
+    private final class ContactCursor extends Spliterators.AbstractSpliterator<Contact> {
+        private final Connection conn;
+        private final PreparedStatement stmt;
+        private final ResultSet rs;
+        private final ContactRowMapper mapper;
+        private long rows;
+        private boolean exhausted;
+        private boolean closed;
+
+        ContactCursor(Connection conn, PreparedStatement stmt, ResultSet rs, ContactRowMapper mapper) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.conn = conn;
+            this.stmt = stmt;
+            this.rs = rs;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Contact> action) {
+            if (closed) {
+                return false;
+            }
+            try {
+                if (!rs.next()) {
+                    exhausted = true;
+                    close();
+                    return false;
+                }
+                rows++;
+                action.accept(mapper.map(rs));
+                return true;
+            } catch (SQLException e) {
+                close();
+                throw new IllegalStateException("Erreur lors de la lecture en continu", e);
+            }
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            STREAM_ROWS.record(rows);
+            if (exhausted) {
+                closeQuietly(rs);
+                closeQuietly(stmt);
+                closeQuietly(conn);
+                return;
+            }
+            try {
+                conn.abort(Runnable::run);
+            } catch (SQLException e) {
+                closeQuietly(conn);
+            }
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable resource) {
+        if (resource == null) {
+            return;
+        }
+        try {
+            resource.close();
+        } catch (Exception e) {
+            System.err.println("Erreur lors de la fermeture d'une ressource: " + e.getMessage());
+        }
+    }
     /**
      * Paramétrage commun pour insert/update
      */
@@ -190,6 +968,7 @@ public class ContactDAO {
      * Gestion centralisée des erreurs SQL
      */
     private void handleSQLException(String context, SQLException e) {
+        SQL_ERRORS.increment();
         System.err.println(context + ": " + e.getMessage());
         e.printStackTrace();
         // Ici vous pourriez ajouter une journalisation plus sophistiquée
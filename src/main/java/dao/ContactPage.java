@@ -0,0 +1,72 @@
+package dao;
+
+import models.Contact;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Page de contacts obtenue par pagination keyset.
+ * Le jeton de continuation encode la dernière clé de tri lue : il suffit de le
+ * renvoyer à {@link ContactDAO#getContactsPage} pour obtenir la page suivante.
+ */
+public final class ContactPage {
+    private final List<Contact> contacts;
+    private final String nextPageToken;
+
+    ContactPage(List<Contact> contacts, String nextPageToken) {
+        this.contacts = List.copyOf(contacts);
+        this.nextPageToken = nextPageToken;
+    }
+
+    public List<Contact> getContacts() { return contacts; }
+
+    /**
+     * @return le jeton de la page suivante, ou null s'il s'agit de la dernière page
+     */
+    public String getNextPageToken() { return nextPageToken; }
+
+    public boolean hasNext() {
+        return nextPageToken != null;
+    }
+
+    // ===== JETON DE CONTINUATION =====
+
+    /**
+     * Position après laquelle reprendre la lecture.
+     */
+    record Cursor(ContactSort sort, int lastId, String lastValue) {
+    }
+
+    static String encode(ContactSort sort, Contact last) {
+        String value = sort.isById() ? "" : sortValue(sort, last);
+        String raw = sort.name() + ":" + last.getId() + ":" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Cursor decode(String token, ContactSort expectedSort) {
+        Cursor cursor;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 3);
+            cursor = new Cursor(ContactSort.valueOf(parts[0]), Integer.parseInt(parts[1]), parts[2]);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Jeton de page invalide", e);
+        }
+        if (cursor.sort() != expectedSort) {
+            throw new IllegalArgumentException("Jeton de page émis pour un autre tri (" + cursor.sort() + ")");
+        }
+        return cursor;
+    }
+
+    private static String sortValue(ContactSort sort, Contact contact) {
+        switch (sort) {
+            case NOM:
+                return contact.getNom();
+            case POSTNOM:
+                return contact.getPostnom();
+            default:
+                return String.valueOf(contact.getId());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package dao;
+
+import models.Contact;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Mapping ResultSet → Contact par index de colonne.
+ * Les données venant de la base ont été validées à l'écriture : le contact est construit
+ * par le constructeur complet, sans repasser par les contrôles et trim des setters.
+ */
+public final class ContactRowMapper implements RowMapper<Contact> {
+    private final int id;
+    private final int nom;
+    private final int postnom;
+    private final int email;
+    private final int numeroTelephone;
+    private final int genre;
+    private final int adresse;
+    private final int photoContact;
+    private final int compteId; // 0 si la requête ne sélectionne pas la colonne
+
+    private ContactRowMapper(ColumnIndexes columns) throws SQLException {
+        this.id = columns.required("id");
+        this.nom = columns.required("nom");
+        this.postnom = columns.required("postnom");
+        this.email = columns.required("email");
+        this.numeroTelephone = columns.required("numero_telephone");
+        this.genre = columns.required("genre");
+        this.adresse = columns.required("adresse");
+        this.photoContact = columns.required("photo_contact");
+        this.compteId = columns.optional("compte_id");
+    }
+
+    /**
+     * Prépare le mapping pour les colonnes de ce résultat.
+     */
+    public static ContactRowMapper of(ResultSet rs) throws SQLException {
+        return new ContactRowMapper(new ColumnIndexes(rs.getMetaData()));
+    }
+
+    @Override
+    public Contact map(ResultSet rs) throws SQLException {
+        return new Contact(
+                rs.getInt(id),
+                rs.getString(nom),
+                rs.getString(postnom),
+                rs.getString(email),
+                rs.getString(numeroTelephone),
+                rs.getString(genre),
+                rs.getString(adresse),
+                rs.getInt(photoContact),
+                compteId == 0 ? 0 : rs.getInt(compteId));
+    }
+}
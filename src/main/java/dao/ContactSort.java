@@ -0,0 +1,37 @@
+package dao;
+
+/**
+ * Ordres de tri disponibles pour la pagination par clé (keyset) des contacts.
+ * Chaque tri est complété par l'id pour garantir un ordre total et stable.
+ */
+public enum ContactSort {
+    ID("id"),
+    NOM("nom"),
+    POSTNOM("postnom");
+
+    private final String column;
+    private final String firstPageSql;
+    private final String nextPageSql;
+
+    ContactSort(String column) {
+        this.column = column;
+        if ("id".equals(column)) {
+            this.firstPageSql = "SELECT * FROM contacts ORDER BY id LIMIT ?";
+            this.nextPageSql = "SELECT * FROM contacts WHERE id > ? ORDER BY id LIMIT ?";
+        } else {
+            this.firstPageSql = "SELECT * FROM contacts ORDER BY " + column + ", id LIMIT ?";
+            this.nextPageSql = "SELECT * FROM contacts WHERE (" + column + ", id) > (?, ?) " +
+                    "ORDER BY " + column + ", id LIMIT ?";
+        }
+    }
+
+    public String getColumn() { return column; }
+
+    String getFirstPageSql() { return firstPageSql; }
+
+    String getNextPageSql() { return nextPageSql; }
+
+    boolean isById() {
+        return this == ID;
+    }
+}
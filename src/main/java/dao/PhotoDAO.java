@@ -0,0 +1,131 @@
+package dao;
+
+import utils.DBConnection;
+import utils.metrics.Counter;
+import utils.metrics.Histogram;
+import utils.metrics.Metrics;
+import java.sql.*;
+
+/**
+ * Stockage des photos de contacts et de leurs vignettes (voir db/004_contact_photos.sql).
+ * Une photo est référencée par son id dans contacts.photo_contact ; 0 signifie "pas de photo".
+ */
+public class PhotoDAO {
+    private static final String INSERT_SQL = "INSERT INTO contact_photos (mime_type, content, thumbnail) " +
+            "VALUES (?, ?, ?)";
+    private static final String SELECT_CONTENT_SQL = "SELECT content FROM contact_photos WHERE id = ?";
+    // Vignette si elle existe, sinon le contenu d'origine
+    private static final String SELECT_THUMBNAIL_SQL = "SELECT COALESCE(thumbnail, content) " +
+            "FROM contact_photos WHERE id = ?";
+    private static final String DELETE_SQL = "DELETE FROM contact_photos WHERE id = ?";
+
+    // Taille maximale d'une photo (surchargeable par -Dphoto.maxBytes=...), sous la limite d'un MEDIUMBLOB
+    public static final int MAX_PHOTO_BYTES = Integer.getInteger("photo.maxBytes", 5 * 1024 * 1024);
+
+    // Métriques (JMX) : durée des lectures et taille des photos lues
+    private static final Histogram READ_TIMER = Metrics.timer("dao.photos.read");
+    private static final Histogram READ_BYTES = Metrics.histogram("dao.photos.read.bytes");
+    private static final Histogram ADD_TIMER = Metrics.timer("dao.photos.add");
+    private static final Counter SQL_ERRORS = Metrics.counter("dao.photos.errors");
+
+    /**
+     * Enregistre une photo
+     * @param mimeType type de l'image (ex. image/jpeg)
+     * @param thumbnail vignette de la photo, ou null
+     * @return l'id de la photo, à placer dans photo_contact ; 0 en cas d'échec
+     */
+    public int addPhoto(byte[] content, String mimeType, byte[] thumbnail) {
+        if (content == null || content.length == 0) {
+            throw new IllegalArgumentException("Le contenu de la photo est obligatoire");
+        }
+        if (content.length > MAX_PHOTO_BYTES) {
+            throw new IllegalArgumentException("Photo trop volumineuse (" + content.length
+                    + " octets, maximum " + MAX_PHOTO_BYTES + ")");
+        }
+        if (mimeType == null || mimeType.isBlank()) {
+            throw new IllegalArgumentException("Le type de la photo est obligatoire");
+        }
+
+        long start = System.nanoTime();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setString(1, mimeType);
+            stmt.setBytes(2, content);
+            stmt.setBytes(3, thumbnail);
+            if (stmt.executeUpdate() > 0) {
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        return generatedKeys.getInt(1);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            handleSQLException("Erreur lors de l'enregistrement de la photo", e);
+        } finally {
+            ADD_TIMER.recordSince(start);
+        }
+        return 0;
+    }
+
+    /**
+     * Contenu d'une photo, tel qu'enregistré
+     * @return les octets de l'image, ou null si la photo n'existe pas ou n'a pas pu être lue
+     */
+    public byte[] findContent(int photoId) {
+        return readBytes(SELECT_CONTENT_SQL, photoId);
+    }
+
+    /**
+     * Vignette d'une photo (le contenu d'origine si la photo n'en a pas)
+     * @return les octets de l'image, ou null si la photo n'existe pas ou n'a pas pu être lue
+     */
+    public byte[] findThumbnail(int photoId) {
+        return readBytes(SELECT_THUMBNAIL_SQL, photoId);
+    }
+
+    public boolean deletePhoto(int photoId) {
+        if (photoId <= 0) {
+            return false;
+        }
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(DELETE_SQL)) {
+            stmt.setInt(1, photoId);
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            handleSQLException("Erreur lors de la suppression de la photo", e);
+            return false;
+        }
+    }
+
+    // ===== MÉTHODES UTILITAIRES PRIVÉES =====
+
+    private byte[] readBytes(String sql, int photoId) {
+        if (photoId <= 0) {
+            return null;
+        }
+
+        long start = System.nanoTime();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, photoId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    byte[] content = rs.getBytes(1);
+                    READ_BYTES.record(content == null ? 0 : content.length);
+                    return content;
+                }
+            }
+        } catch (SQLException e) {
+            handleSQLException("Erreur lors de la lecture de la photo", e);
+        } finally {
+            READ_TIMER.recordSince(start);
+        }
+        return null;
+    }
+
+    private void handleSQLException(String context, SQLException e) {
+        SQL_ERRORS.increment();
+        System.err.println(context + ": " + e.getMessage());
+        e.printStackTrace();
+    }
+}
@@ -0,0 +1,64 @@
+package dao;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Jeton d'annulation d'une requête : cancel() appelle Statement.cancel() sur la requête
+ * en cours (MySQL l'interrompt côté serveur par KILL QUERY, la connexion reste utilisable).
+ * Une requête démarrée après l'annulation n'est pas envoyée au serveur.
+ * Un jeton sert à une seule recherche ; en créer un nouveau pour la suivante.
+ */
+public final class QueryCancellation {
+    // MySQL ER_QUERY_INTERRUPTED : "Query execution was interrupted"
+    static final String SQLSTATE_CANCELLED = "70100";
+
+    private Statement statement;
+    private boolean cancelled;
+
+    /**
+     * Annule la requête en cours et toutes celles à venir avec ce jeton.
+     */
+    public void cancel() {
+        Statement current;
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            current = statement;
+        }
+        if (current != null) {
+            try {
+                current.cancel();
+            } catch (SQLException e) {
+                // La requête vient de se terminer ou la connexion est fermée : rien à annuler
+            }
+        }
+    }
+
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Associe la requête sur le point d'être exécutée.
+     * @throws SQLException si le jeton est déjà annulé
+     */
+    synchronized void register(Statement stmt) throws SQLException {
+        throwIfCancelled();
+        this.statement = stmt;
+    }
+
+    synchronized void unregister(Statement stmt) {
+        if (this.statement == stmt) {
+            this.statement = null;
+        }
+    }
+
+    void throwIfCancelled() throws SQLException {
+        if (isCancelled()) {
+            throw new SQLException("Requête annulée", SQLSTATE_CANCELLED);
+        }
+    }
+}
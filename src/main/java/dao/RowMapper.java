@@ -0,0 +1,14 @@
+package dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Transforme la ligne courante d'un ResultSet en objet.
+ * Une instance est préparée pour un ResultSet donné (index des colonnes déjà résolus)
+ * et réutilisée pour toutes ses lignes.
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+    T map(ResultSet rs) throws SQLException;
+}
@@ -0,0 +1,66 @@
+package mainApp;
+
+import server.ContactHttpServer;
+import service.ContactService;
+import utils.DBConnection;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.sql.SQLException;
+
+/**
+ * Lancement en mode serveur, sans interface graphique : API JSON sur HTTP (voir ContactHttpServer).
+ * <pre>
+ * java -cp ... mainApp.ServerMain [--port 8080] [--bind 127.0.0.1]
+ * </pre>
+ * Écoute par défaut sur la boucle locale uniquement ; --bind 0.0.0.0 pour toutes les interfaces.
+ */
+public class ServerMain {
+    public static void main(String[] args) throws IOException {
+        int port = Integer.getInteger("server.port", 8080);
+        InetAddress bindAddress = InetAddress.getLoopbackAddress();
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(requireValue(args[i], value));
+                case "--bind" -> bindAddress = InetAddress.getByName(requireValue(args[i], value));
+                default -> {
+                    System.err.println("Option inconnue: " + args[i]);
+                    System.err.println("Usage: ServerMain [--port 8080] [--bind 127.0.0.1]");
+                    System.exit(2);
+                }
+            }
+            i++;
+        }
+
+        ContactHttpServer server = new ContactHttpServer.Builder(ContactService.defaultService())
+                .bindAddress(bindAddress)
+                .port(port)
+                .build();
+        try {
+            DBConnection.warmUp();
+        } catch (SQLException e) {
+            System.err.println("Base de données injoignable au démarrage: " + e.getMessage());
+        }
+        server.start();
+        System.out.println("Serveur de contacts à l'écoute sur http://"
+                + server.getAddress().getHostString() + ":" + server.getPort() + "/api");
+
+        // Le thread d'écoute du serveur maintient la JVM en vie ; arrêt propre sur Ctrl+C / SIGTERM
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            try {
+                DBConnection.closeConnection();
+            } catch (SQLException e) {
+                System.err.println("Erreur lors de la fermeture du pool: " + e.getMessage());
+            }
+        }, "server-shutdown"));
+    }
+
+    private static String requireValue(String option, String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Valeur manquante pour " + option);
+        }
+        return value;
+    }
+}
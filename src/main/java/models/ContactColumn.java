@@ -0,0 +1,45 @@
+package models;
+
+import java.util.function.Function;
+
+/**
+ * Colonnes d'un contact, avec leur nom en base et leur libellé d'affichage.
+ * Partagé par l'export et les tableaux pour garder un seul ordre de référence.
+ */
+public enum ContactColumn {
+    ID("id", "ID", Contact::getId),
+    NOM("nom", "Nom", Contact::getNom),
+    POSTNOM("postnom", "Post-Nom", Contact::getPostnom),
+    EMAIL("email", "Email", Contact::getEmail),
+    NUMERO_TELEPHONE("numero_telephone", "Téléphone", Contact::getNumeroTelephone),
+    GENRE("genre", "Genre", Contact::getGenre),
+    ADRESSE("adresse", "Adresse", Contact::getAdresse),
+    PHOTO_CONTACT("photo_contact", "Photo", Contact::getPhotoContact);
+
+    private final String columnName;
+    private final String label;
+    private final Function<Contact, Object> accessor;
+
+    ContactColumn(String columnName, String label, Function<Contact, Object> accessor) {
+        this.columnName = columnName;
+        this.label = label;
+        this.accessor = accessor;
+    }
+
+    public String getColumnName() { return columnName; }
+    public String getLabel() { return label; }
+
+    /**
+     * @return la valeur de cette colonne pour le contact donné
+     */
+    public Object valueOf(Contact contact) {
+        return accessor.apply(contact);
+    }
+
+    /**
+     * @return true pour les colonnes numériques (non quotées en JSON)
+     */
+    public boolean isNumeric() {
+        return this == ID || this == PHOTO_CONTACT;
+    }
+}
@@ -1,15 +1,19 @@
 package panels;
 
-import dao.ContactDAO;
 import models.Contact;
+import service.AsyncContactService;
 import javax.swing.*;
 import java.awt.*;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * ContactManagerPanel
  * Composant réutilisable pour gérer : Ajouter / Modifier / Supprimer / Actualiser un contact.
- * Utilise les méthodes de ContactDAO et interagit avec ContactTablePanel.
+ * Passe par le service asynchrone du tableau (cache et index partagés, requêtes hors de l'EDT)
+ * et interagit avec ContactTablePanel.
  */
 public class ContactManagerPanel extends JPanel {
 
@@ -20,13 +24,18 @@ public class ContactManagerPanel extends JPanel {
     private final JTextField txtGenre = new JTextField();
     private final JTextField txtAdresse = new JTextField();
 
-    private final ContactDAO contactDAO = new ContactDAO();
+    private final AsyncContactService asyncContactService;
     private final ContactTablePanel tablePanel;
+    private final JButton btnAdd = new JButton("Ajouter");
+    private final JButton btnUpdate = new JButton("Modifier");
+    private final JButton btnDelete = new JButton("Supprimer");
 
     private Contact selectedContact = null; // 🧠 Contact en cours d'édition
+    private CompletableFuture<Contact> selectionLookup; // chargement du contact sélectionné
 
     public ContactManagerPanel(ContactTablePanel tablePanel) {
         this.tablePanel = tablePanel;
+        this.asyncContactService = tablePanel.getAsyncContactService();
 
         setLayout(new BorderLayout());
         setBackground(Color.WHITE);
@@ -52,9 +61,6 @@ public class ContactManagerPanel extends JPanel {
         add(formPanel, BorderLayout.CENTER);
 
         // 🔘 Boutons d'action
-        JButton btnAdd = new JButton("Ajouter");
-        JButton btnUpdate = new JButton("Modifier");
-        JButton btnDelete = new JButton("Supprimer");
         JButton btnRefresh = new JButton("Actualiser");
 
         btnAdd.addActionListener(e -> ajouterContact());
@@ -74,11 +80,8 @@ public class ContactManagerPanel extends JPanel {
         tablePanel.getContactTable().getSelectionModel().addListSelectionListener(e -> {
             int row = tablePanel.getContactTable().getSelectedRow();
             if (row >= 0) {
-                int id = (int) tablePanel.getTableModel().getValueAt(row, 0);
-                selectedContact = contactDAO.findById(id).orElse(null);
-                if (selectedContact != null) {
-                    remplirFormulaire(selectedContact);
-                }
+                int id = tablePanel.getTableModel().getIdAt(row);
+                chargerSelection(id);
             }
         });
     }
@@ -87,14 +90,11 @@ public class ContactManagerPanel extends JPanel {
         Contact contact = lireFormulaire();
         if (contact == null) return;
 
-        boolean success = contactDAO.addContact(contact);
-        if (success) {
+        executer(asyncContactService.addContact(contact), () -> {
             JOptionPane.showMessageDialog(this, "✅ Contact ajouté !");
-            actualiserTable();
+            tablePanel.getTableModel().contactSaved(contact);
             nettoyerFormulaire();
-        } else {
-            JOptionPane.showMessageDialog(this, "❌ Échec de l'ajout.");
-        }
+        }, "❌ Échec de l'ajout.");
     }
 
     private void modifierContact() {
@@ -106,16 +106,13 @@ public class ContactManagerPanel extends JPanel {
         Contact updated = lireFormulaire();
         if (updated == null) return;
         updated.setId(selectedContact.getId());
-        updated.setPhotoContact(0); // à ajuster si nécessaire
+        updated.setPhotoContact(selectedContact.getPhotoContact()); // la photo n'est pas éditée ici
 
-        boolean success = contactDAO.updateContact(updated);
-        if (success) {
+        executer(asyncContactService.updateContact(updated), () -> {
             JOptionPane.showMessageDialog(this, "✏️ Contact modifié !");
-            actualiserTable();
+            tablePanel.getTableModel().contactSaved(updated);
             nettoyerFormulaire();
-        } else {
-            JOptionPane.showMessageDialog(this, "❌ Échec de la modification.");
-        }
+        }, "❌ Échec de la modification.");
     }
 
     private void supprimerContact() {
@@ -129,15 +126,64 @@ public class ContactManagerPanel extends JPanel {
                 JOptionPane.YES_NO_OPTION);
 
         if (confirm == JOptionPane.YES_OPTION) {
-            boolean success = contactDAO.deleteContact(selectedContact.getId());
-            if (success) {
+            int id = selectedContact.getId();
+            executer(asyncContactService.deleteContact(id), () -> {
                 JOptionPane.showMessageDialog(this, "🗑️ Contact supprimé !");
-                actualiserTable();
+                tablePanel.getTableModel().contactDeleted(id);
                 nettoyerFormulaire();
+            }, "❌ Échec de la suppression.");
+        }
+    }
+
+    /**
+     * Attend l'écriture hors de l'EDT, puis applique son résultat à l'interface.
+     * Les boutons d'écriture restent désactivés jusque-là (pas de double envoi).
+     */
+    private void executer(CompletableFuture<Boolean> operation, Runnable onSuccess, String failureMessage) {
+        setOperationEnCours(true);
+        operation.whenCompleteAsync((success, error) -> {
+            setOperationEnCours(false);
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                JOptionPane.showMessageDialog(this, "Erreur base de données : " + cause.getMessage());
+            } else if (Boolean.TRUE.equals(success)) {
+                onSuccess.run();
             } else {
-                JOptionPane.showMessageDialog(this, "❌ Échec de la suppression.");
+                JOptionPane.showMessageDialog(this, failureMessage);
             }
+        }, AsyncContactService.edt());
+    }
+
+    private void setOperationEnCours(boolean enCours) {
+        btnAdd.setEnabled(!enCours);
+        btnUpdate.setEnabled(!enCours);
+        btnDelete.setEnabled(!enCours);
+    }
+
+    /**
+     * Charge le contact sélectionné hors de l'EDT ; une nouvelle sélection annule la précédente
+     * (sans interrompre une lecture déjà en cours, dont le résultat est simplement ignoré).
+     */
+    private void chargerSelection(int id) {
+        if (selectionLookup != null) {
+            selectionLookup.cancel(true);
         }
+        CompletableFuture<Contact> lookup = asyncContactService.findById(id);
+        selectionLookup = lookup;
+        lookup.whenCompleteAsync((contact, error) -> {
+            if (lookup != selectionLookup || error instanceof CancellationException) {
+                return; // sélection dépassée
+            }
+            if (error != null) {
+                JOptionPane.showMessageDialog(this, "Erreur base de données : " + error.getMessage());
+                return;
+            }
+            selectedContact = contact;
+            if (contact != null) {
+                remplirFormulaire(contact);
+            }
+        }, AsyncContactService.edt());
     }
 
     private void actualiserTable() {
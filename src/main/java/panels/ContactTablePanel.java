@@ -1,32 +1,34 @@
 package panels;
 
 import models.Contact;
+import models.ContactColumn;
+import service.AsyncContactService;
 import service.ContactService;
+import service.photo.PhotoThumbnailCache;
+import service.snapshot.ContactSnapshotStore;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.sql.SQLException;
 import java.util.List;
 
 public class ContactTablePanel extends JPanel {
     private JTable contactTable;
-    private DefaultTableModel tableModel;
+    private LazyContactTableModel tableModel;
     private ContactService contactService;
+    private AsyncContactService asyncContactService;
 
     public ContactTablePanel() {
-        contactService = new ContactService();
+        contactService = ContactService.defaultService();
+        asyncContactService = new AsyncContactService(contactService);
         setLayout(new BorderLayout());
         setBorder(new EmptyBorder(15, 15, 15, 15));
 
-        // Création du modèle de table avec colonnes
-        String[] columnNames = {"ID", "Nom", "Post-Nom", "Email", "Téléphone", "Genre", "Adresse"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // Toutes les cellules non éditables
-            }
-        };
+        // Modèle virtuel : les contacts sont chargés par pages, au fil du défilement
+        tableModel = new LazyContactTableModel.Builder(asyncContactService)
+                .columns(ContactColumn.PHOTO_CONTACT, ContactColumn.ID, ContactColumn.NOM, ContactColumn.POSTNOM,
+                        ContactColumn.EMAIL, ContactColumn.NUMERO_TELEPHONE, ContactColumn.GENRE, ContactColumn.ADRESSE)
+                .snapshotStore(ContactSnapshotStore.defaultStore())
+                .build();
 
         // Création du tableau
         contactTable = new JTable(tableModel);
@@ -36,6 +38,9 @@ public class ContactTablePanel extends JPanel {
         contactTable.getTableHeader().setFont(new Font("Arial", Font.BOLD, 12));
         contactTable.setFont(new Font("Arial", Font.PLAIN, 12));
         contactTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        // Miniatures décodées en arrière-plan, avatar générique en attendant
+        PhotoCellRenderer.install(contactTable, tableModel.findColumn(ContactColumn.PHOTO_CONTACT),
+                PhotoThumbnailCache.defaultCache());
 
         // Ajout de la barre de défilement
         JScrollPane scrollPane = new JScrollPane(contactTable);
@@ -45,31 +50,39 @@ public class ContactTablePanel extends JPanel {
         loadContactData();
     }
 
+    public ContactService getContactService() {
+        return contactService;
+    }
+
+    public AsyncContactService getAsyncContactService() {
+        return asyncContactService;
+    }
+
+    public JTable getContactTable() {
+        return contactTable;
+    }
+
+    public LazyContactTableModel getTableModel() {
+        return tableModel;
+    }
+
+    /**
+     * Met la table à jour depuis la base (seuls les contacts modifiés sont relus)
+     */
+    public void refresh() {
+        tableModel.refresh();
+    }
+
+    /**
+     * Remplace le contenu de la table (ex. résultats d'une recherche)
+     * @param contacts contacts à afficher
+     */
+    public void showContacts(List<Contact> contacts) {
+        tableModel.setContacts(contacts);
+    }
+
     private void loadContactData() {
-        // Vider le modèle actuel
-        tableModel.setRowCount(0);
-
-        try {
-            List<Contact> contacts = contactService.getAllContacts();
-
-            for (Contact contact : contacts) {
-                Object[] rowData = {
-                        contact.getId(),
-                        contact.getNom(),
-                        contact.getPostnom(),
-                        contact.getEmail(),
-                        contact.getNumeroTelephone(),
-                        contact.getGenre(),
-                        contact.getAdresse()
-                };
-                tableModel.addRow(rowData);
-            }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this,
-                    "Erreur lors du chargement des contacts: " + e.getMessage(),
-                    "Erreur", JOptionPane.ERROR_MESSAGE);
-            e.printStackTrace();
-        }
+        tableModel.load();
     }
 
 }
\ No newline at end of file
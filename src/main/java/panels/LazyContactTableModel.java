@@ -0,0 +1,783 @@
+package panels;
+
+import dao.ContactChanges;
+import dao.ContactDAO;
+import models.Contact;
+import models.ContactColumn;
+import service.AsyncContactService;
+import service.snapshot.ContactSnapshot;
+import service.snapshot.ContactSnapshotStore;
+import utils.metrics.Histogram;
+import utils.metrics.Metrics;
+
+import javax.swing.Timer;
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Modèle de table virtuel : seules les lignes affichées sont chargées.
+ * <p>
+ * Le modèle connaît les ids de toutes les lignes (un int par ligne) et charge les contacts
+ * par pages d'ids consécutifs, lorsque la table en demande l'affichage. Un nombre borné de
+ * contacts reste en mémoire (LRU) et la page suivante est préchargée en arrière-plan.
+ * Une ligne pas encore chargée affiche son id et un indicateur de chargement.
+ * <p>
+ * setContacts() affiche au contraire une liste déjà chargée (ex. résultats de recherche),
+ * sans la convertir en lignes Object[]. À utiliser uniquement depuis l'EDT.
+ * <p>
+ * Les rafraîchissements (reload, setContacts) comparent l'ancien et le nouveau contenu par id
+ * et ne signalent que les lignes insérées, supprimées ou modifiées : la sélection, le défilement
+ * et la largeur des colonnes sont conservés. Après une écriture, contactSaved et contactDeleted
+ * mettent à jour une seule ligne, sans requête.
+ * <p>
+ * refresh() ne lit que les contacts modifiés depuis le dernier chargement (ContactDAO.changesSince) :
+ * son coût dépend du nombre de changements, pas de la taille de la table.
+ * <p>
+ * Avec un répertoire d'instantanés (Builder.snapshotStore), load() affiche d'abord l'instantané
+ * local, puis le réconcilie avec la base ; tant qu'il est à jour, les contacts affichés sont lus
+ * dans l'instantané projeté en mémoire plutôt qu'en base. Il est réécrit après chaque synchronisation.
+ */
+public class LazyContactTableModel extends AbstractTableModel {
+    private static final String LOADING = "…";
+    // Nombre de contacts lus par requête (surchargeable par Builder.pageSize)
+    public static final int DEFAULT_PAGE_SIZE = 200;
+    // Délai avant de relire une page en échec, doublé à chaque nouvel échec (surchargeable par -Dui.contacts.pageRetryMillis=...)
+    private static final int PAGE_RETRY_MILLIS = Integer.getInteger("ui.contacts.pageRetryMillis", 1000);
+    private static final int MAX_PAGE_RETRY_MILLIS = 30_000;
+
+    // Métriques (JMX) : de la demande jusqu'aux lignes à jour dans la table (EDT compris)
+    private static final Histogram RELOAD_TIMER = Metrics.timer("ui.contacts.reload");
+    private static final Histogram PAGE_LOAD_TIMER = Metrics.timer("ui.contacts.pageLoad");
+    private static final Histogram REFRESH_TIMER = Metrics.timer("ui.contacts.refresh");
+    private static final Histogram SNAPSHOT_LOAD_TIMER = Metrics.timer("ui.contacts.snapshotLoad");
+
+    private final AsyncContactService contactService;
+    private final ContactColumn[] columns;
+    private final int pageSize;
+
+    private int[] ids = new int[0];  // squelette : id de chaque ligne
+    private List<Contact> contacts;  // liste fournie par setContacts, sinon null (mode paginé)
+    // Contacts chargés, par id : restent affichés pendant leur rechargement
+    private final Map<Integer, Contact> loaded;
+    // Pages relues depuis le dernier rechargement, dont tous les contacts sont encore chargés
+    // (les autres le seront à l'affichage)
+    private final Map<Integer, Boolean> freshPages;
+    private final Set<Integer> pendingPages = new HashSet<>();
+    // Pages dont la lecture a échoué : pas de nouvel essai avant la fin de leur délai
+    private final Map<Integer, PageRetry> failedPages = new HashMap<>();
+    private long generation; // incrémenté à chaque rechargement : les pages en vol deviennent périmées
+    private long syncVersion = -1; // version de la base à laquelle correspond le squelette (-1 : inconnue)
+
+    // Instantané local (facultatif) : base de la prochaine écriture, et source des contacts tant qu'il est à jour
+    private final ContactSnapshotStore snapshotStore;
+    private ContactSnapshot snapshot;
+    private boolean snapshotCurrent;
+    // Contacts modifiés depuis la version de l'instantané : leur enregistrement y est périmé
+    private Set<Integer> snapshotStale = new HashSet<>();
+    // Contacts modifiés pendant l'écriture d'un nouvel instantané (null si aucune écriture en cours)
+    private Set<Integer> staleDuringSave;
+    private boolean snapshotDirty;
+
+    private LazyContactTableModel(Builder builder) {
+        this.contactService = builder.contactService;
+        this.columns = builder.columns;
+        this.pageSize = builder.pageSize;
+        this.snapshotStore = builder.snapshotStore;
+        int maxPages = builder.maxPages;
+        int maxLoaded = maxPages * builder.pageSize;
+        this.loaded = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Contact> eldest) {
+                if (size() <= maxLoaded) {
+                    return false;
+                }
+                evicted(eldest.getKey());
+                return true;
+            }
+        };
+        this.freshPages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Boolean> eldest) {
+                return size() > maxPages;
+            }
+        };
+    }
+
+    /**
+     * Recharge la liste des ids depuis la base (en arrière-plan), puis applique les différences.
+     * Les contacts déjà affichés restent visibles jusqu'à l'arrivée de leur nouvelle version.
+     */
+    public void reload() {
+        long loadGeneration = ++generation;
+        pendingPages.clear();
+        long start = System.nanoTime();
+        // Version lue avant les ids : un changement concurrent sera relu par le prochain refresh()
+        CompletableFuture<Long> version = contactService.getChangeVersion();
+        version.thenCompose(v -> contactService.getContactIds()).whenCompleteAsync((loadedIds, error) -> {
+            if (loadGeneration != generation) {
+                return;
+            }
+            RELOAD_TIMER.recordSince(start);
+            if (error != null) {
+                System.err.println("Erreur lors du chargement des contacts: " + error.getMessage());
+                return;
+            }
+            syncVersion = version.join();
+            snapshotCurrent = false; // l'instantané ne correspond plus au squelette jusqu'à sa réécriture
+            int[] oldIds = ids;
+            if (contacts != null) {
+                // Les contacts de la liste affichée servent de version courante
+                contacts.forEach(contact -> loaded.put(contact.getId(), contact));
+                contacts = null;
+            }
+            ids = loadedIds;
+            forgetPages(); // tout est à relire, au fil de l'affichage
+            if (isSorted(oldIds)) {
+                fireSortedDiff(oldIds, loadedIds);
+            } else {
+                fireKeyedDiff(oldIds, loadedIds, null);
+            }
+            saveSnapshot();
+        }, AsyncContactService.edt());
+    }
+
+    /**
+     * Premier chargement : depuis l'instantané local s'il en existe un valide (affichage immédiat),
+     * puis synchronisation des seuls changements survenus depuis ; sinon, comme reload().
+     */
+    public void load() {
+        if (snapshotStore == null) {
+            reload();
+            return;
+        }
+        long loadGeneration = ++generation;
+        pendingPages.clear();
+        long start = System.nanoTime();
+        contactService.latestSnapshot(snapshotStore).whenCompleteAsync((latest, error) -> {
+            if (loadGeneration != generation) {
+                return;
+            }
+            if (error != null || latest == null) {
+                reload();
+                return;
+            }
+            SNAPSHOT_LOAD_TIMER.recordSince(start);
+            int[] oldIds = ids;
+            contacts = null;
+            ids = latest.getIds();
+            syncVersion = latest.getVersion();
+            activateSnapshot(latest);
+            if (isSorted(oldIds)) {
+                fireSortedDiff(oldIds, ids);
+            } else {
+                fireKeyedDiff(oldIds, ids, null);
+            }
+            refresh(); // réconciliation avec la base
+        }, AsyncContactService.edt());
+    }
+
+    /**
+     * Applique les seuls changements survenus en base depuis le dernier chargement (en arrière-plan).
+     * Recharge entièrement si la version n'est pas connue (mode liste, premier chargement, base
+     * sans version de modification) ou si elle est trop ancienne.
+     */
+    public void refresh() {
+        if (contacts != null || syncVersion < 0) {
+            reload();
+            return;
+        }
+        long loadGeneration = ++generation;
+        pendingPages.clear();
+        long start = System.nanoTime();
+        contactService.changesSince(syncVersion).whenCompleteAsync((changes, error) -> {
+            if (loadGeneration != generation) {
+                return;
+            }
+            if (error != null) {
+                System.err.println("Erreur lors de la synchronisation des contacts: " + error.getMessage());
+                return;
+            }
+            if (changes.isFullResyncRequired()) {
+                if (changes.getVersion() < 0) {
+                    // Base injoignable : l'affichage courant (ex. instantané local) est conservé
+                    System.err.println("Synchronisation des contacts impossible: base injoignable");
+                    return;
+                }
+                reload();
+                return;
+            }
+            applyChanges(changes);
+            REFRESH_TIMER.recordSince(start);
+            if (changes.hasMore()) {
+                refresh();
+            } else if (snapshot == null || snapshot.getVersion() < syncVersion) {
+                saveSnapshot();
+            }
+        }, AsyncContactService.edt());
+    }
+
+    /**
+     * Affiche une liste de contacts déjà chargée.
+     */
+    public void setContacts(List<Contact> contacts) {
+        generation++;
+        pendingPages.clear();
+        int[] oldIds = ids;
+        List<Contact> oldContacts = this.contacts;
+        int[] newIds = new int[contacts.size()];
+        for (int i = 0; i < newIds.length; i++) {
+            newIds[i] = contacts.get(i).getId();
+        }
+        this.ids = newIds;
+        this.contacts = new ArrayList<>(contacts);
+        fireKeyedDiff(oldIds, newIds, oldContacts);
+    }
+
+    /**
+     * Reflète un ajout ou une modification faite par l'application (une seule ligne, sans requête).
+     * En mode liste, un contact absent de la liste affichée n'y est pas ajouté.
+     */
+    public void contactSaved(Contact contact) {
+        int id = contact.getId();
+        if (contacts != null) {
+            int row = indexOf(id);
+            if (row >= 0) {
+                contacts.set(row, contact);
+                fireTableRowsUpdated(row, row);
+            }
+            return;
+        }
+        loaded.put(id, contact);
+        markSnapshotStale(id);
+        int row = Arrays.binarySearch(ids, id);
+        if (row >= 0) {
+            fireTableRowsUpdated(row, row);
+            return;
+        }
+        int insertAt = -row - 1;
+        int[] grown = new int[ids.length + 1];
+        System.arraycopy(ids, 0, grown, 0, insertAt);
+        grown[insertAt] = id;
+        System.arraycopy(ids, insertAt, grown, insertAt + 1, ids.length - insertAt);
+        ids = grown;
+        forgetPages(); // les pages suivantes sont décalées d'une ligne
+        fireTableRowsInserted(insertAt, insertAt);
+    }
+
+    /**
+     * Reflète une suppression faite par l'application (une seule ligne, sans requête).
+     */
+    public void contactDeleted(int id) {
+        int row = contacts != null ? indexOf(id) : Arrays.binarySearch(ids, id);
+        if (row < 0) {
+            return;
+        }
+        int[] shrunk = new int[ids.length - 1];
+        System.arraycopy(ids, 0, shrunk, 0, row);
+        System.arraycopy(ids, row + 1, shrunk, row, ids.length - row - 1);
+        ids = shrunk;
+        if (contacts != null) {
+            contacts.remove(row);
+        } else {
+            loaded.remove(id);
+            forgetPages();
+        }
+        fireTableRowsDeleted(row, row);
+    }
+
+    /**
+     * @return l'id de la ligne (toujours connu, même si le contact n'est pas encore chargé)
+     */
+    public int getIdAt(int row) {
+        return ids[row];
+    }
+
+    /**
+     * @return le contact de la ligne, ou null s'il est en cours de chargement
+     */
+    public Contact getContactAt(int row) {
+        if (contacts != null) {
+            return contacts.get(row);
+        }
+        if (snapshotCurrent) {
+            // Lecture locale, sans requête : seuls les contacts absents de l'instantané passent par la base
+            int id = ids[row];
+            Contact contact = loaded.get(id);
+            if (contact == null && !snapshotStale.contains(id)) {
+                contact = snapshot.find(id);
+                if (contact != null) {
+                    loaded.put(id, contact);
+                }
+            }
+            if (contact != null) {
+                return contact;
+            }
+        }
+        int page = row / pageSize;
+        requestPage(page);
+        requestPage(page + 1); // préchargement de la page suivante
+        return loaded.get(ids[row]);
+    }
+
+    @Override
+    public int getRowCount() {
+        return ids.length;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    /**
+     * @return index de la colonne dans le modèle, ou -1 si elle n'est pas affichée
+     */
+    public int findColumn(ContactColumn column) {
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i] == column) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column].getLabel();
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return columns[column].isNumeric() ? Integer.class : String.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        ContactColumn col = columns[column];
+        if (col == ContactColumn.ID) {
+            return ids[row];
+        }
+        Contact contact = getContactAt(row);
+        return contact == null ? LOADING : col.valueOf(contact);
+    }
+
+    // ===== MÉTHODES UTILITAIRES PRIVÉES =====
+
+    private void requestPage(int page) {
+        int from = page * pageSize;
+        if (from >= ids.length || freshPages.get(page) != null) {
+            return;
+        }
+        PageRetry retry = failedPages.get(page);
+        if ((retry != null && System.nanoTime() < retry.notBefore()) || !pendingPages.add(page)) {
+            return;
+        }
+        int to = Math.min(from + pageSize, ids.length) - 1;
+        int[] pageIds = ids;
+        long loadGeneration = generation;
+        long start = System.nanoTime();
+
+        contactService.findByIdRange(pageIds[from], pageIds[to]).whenCompleteAsync((rows, error) -> {
+            if (loadGeneration != generation) {
+                return;
+            }
+            pendingPages.remove(page);
+            if (error != null) {
+                System.err.println("Erreur lors du chargement d'une page: " + error.getMessage());
+                if (pageIds == ids) {
+                    retryLater(page);
+                }
+                return;
+            }
+            failedPages.remove(page);
+            // Les lignes sont retrouvées par id (elles ont pu se décaler) ; seules les modifiées sont signalées
+            RangeCollector changed = new RangeCollector();
+            for (Contact contact : rows) {
+                int row = Arrays.binarySearch(ids, contact.getId());
+                if (row >= 0) {
+                    Contact previous = loaded.put(contact.getId(), contact);
+                    if (previous == null || !sameContent(previous, contact)) {
+                        changed.add(row);
+                    }
+                }
+            }
+            if (pageIds == ids) {
+                freshPages.put(page, Boolean.TRUE);
+            }
+            changed.fireUpdated();
+            PAGE_LOAD_TIMER.recordSince(start);
+        }, AsyncContactService.edt());
+    }
+
+    /**
+     * Reporte des changements dans le squelette et les contacts chargés (mode paginé).
+     */
+    private void applyChanges(ContactChanges changes) {
+        // Les pages en vol ont pu être lues avant ces changements
+        generation++;
+        pendingPages.clear();
+        syncVersion = changes.getVersion();
+        if (changes.isEmpty()) {
+            return;
+        }
+        int[] deletedIds = changes.getDeletedIds();
+        Arrays.sort(deletedIds);
+        List<Contact> changed = new ArrayList<>(changes.getChanged());
+        changed.sort(Comparator.comparingInt(Contact::getId));
+
+        // Nouveau squelette : fusion des ids conservés et des ids modifiés, tous triés
+        int[] oldIds = ids;
+        int[] newIds = new int[oldIds.length + changed.size()];
+        int count = 0;
+        int j = 0;
+        for (int id : oldIds) {
+            while (j < changed.size() && changed.get(j).getId() < id) {
+                newIds[count++] = changed.get(j++).getId();
+            }
+            if (j < changed.size() && changed.get(j).getId() == id) {
+                j++;
+                newIds[count++] = id; // modifié (ou supprimé puis recréé)
+            } else if (Arrays.binarySearch(deletedIds, id) < 0) {
+                newIds[count++] = id;
+            }
+        }
+        while (j < changed.size()) {
+            newIds[count++] = changed.get(j++).getId();
+        }
+        newIds = Arrays.copyOf(newIds, count);
+
+        // Les contacts modifiés sont reçus complets : inutile de relire leur page
+        RangeCollector updated = new RangeCollector();
+        for (Contact contact : changed) {
+            markSnapshotStale(contact.getId());
+            Contact previous = loaded.put(contact.getId(), contact);
+            if (Arrays.binarySearch(oldIds, contact.getId()) >= 0
+                    && (previous == null || !sameContent(previous, contact))) {
+                updated.add(Arrays.binarySearch(newIds, contact.getId()));
+            }
+        }
+
+        ids = newIds;
+        fireSortedDiff(oldIds, newIds);
+        if (!Arrays.equals(oldIds, newIds)) {
+            retainFreshPages();
+        }
+        updated.fireUpdated();
+    }
+
+    /**
+     * Réécrit l'instantané local en arrière-plan (changements depuis sa version, ou tous les contacts).
+     * Une seule écriture à la fois : une demande pendant l'écriture est reportée à sa fin.
+     */
+    private void saveSnapshot() {
+        if (snapshotStore == null) {
+            return;
+        }
+        if (staleDuringSave != null) {
+            snapshotDirty = true;
+            return;
+        }
+        staleDuringSave = new HashSet<>();
+        contactService.syncSnapshot(snapshotStore, snapshot).whenCompleteAsync((saved, error) -> {
+            Set<Integer> stale = staleDuringSave;
+            staleDuringSave = null;
+            if (error != null) {
+                System.err.println("Erreur lors de l'écriture de l'instantané: " + error.getMessage());
+            } else if (saved != null) {
+                boolean replaced = saved != snapshot;
+                snapshot = saved;
+                // Au moins aussi récent que le squelette : les lignes peuvent être lues dans l'instantané
+                if (contacts == null && saved.getVersion() >= syncVersion && (replaced || !snapshotCurrent)) {
+                    snapshotStale = stale;
+                    loaded.keySet().retainAll(stale);
+                    freshPages.clear(); // les contacts absents de l'instantané seront relus
+                    snapshotCurrent = true;
+                    if (ids.length > 0) {
+                        fireTableRowsUpdated(0, ids.length - 1);
+                    }
+                }
+            }
+            if (snapshotDirty) {
+                snapshotDirty = false;
+                saveSnapshot();
+            }
+        }, AsyncContactService.edt());
+    }
+
+    private void activateSnapshot(ContactSnapshot latest) {
+        snapshot = latest;
+        snapshotCurrent = true;
+        snapshotStale = new HashSet<>();
+        loaded.clear();
+        forgetPages();
+    }
+
+    private void markSnapshotStale(int id) {
+        if (snapshot != null) {
+            snapshotStale.add(id);
+        }
+        if (staleDuringSave != null) {
+            staleDuringSave.add(id);
+        }
+    }
+
+    /**
+     * Un contact sort de la mémoire (LRU) : sa page n'est plus complète et sera relue à l'affichage
+     */
+    private void evicted(int id) {
+        if (contacts == null) {
+            int row = Arrays.binarySearch(ids, id);
+            if (row >= 0) {
+                freshPages.remove(row / pageSize);
+            }
+        }
+    }
+
+    private void forgetPages() {
+        freshPages.clear();
+        failedPages.clear();
+    }
+
+    /**
+     * Reporte le prochain essai d'une page en échec (délai doublé à chaque échec), puis
+     * redessine ses lignes pour la redemander si elle est toujours affichée
+     */
+    private void retryLater(int page) {
+        PageRetry previous = failedPages.get(page);
+        int failures = previous == null ? 1 : previous.failures() + 1;
+        int delay = (int) Math.min(MAX_PAGE_RETRY_MILLIS, (long) PAGE_RETRY_MILLIS << Math.min(failures - 1, 16));
+        failedPages.put(page, new PageRetry(failures, System.nanoTime() + delay * 1_000_000L));
+        long retryGeneration = generation;
+        Timer timer = new Timer(delay, e -> {
+            int from = page * pageSize;
+            if (retryGeneration == generation && from < ids.length) {
+                fireTableRowsUpdated(from, Math.min(from + pageSize, ids.length) - 1);
+            }
+        });
+        timer.setRepeats(false);
+        timer.start();
+    }
+
+    /**
+     * Après un décalage des lignes, une page reste à jour si tous ses contacts sont chargés :
+     * les autres seront relues à l'affichage.
+     */
+    private void retainFreshPages() {
+        for (Integer page : new ArrayList<>(freshPages.keySet())) {
+            int from = page * pageSize;
+            int to = Math.min(from + pageSize, ids.length);
+            boolean complete = from < to;
+            for (int row = from; row < to && complete; row++) {
+                complete = loaded.containsKey(ids[row]);
+            }
+            if (!complete) {
+                freshPages.remove(page);
+            }
+        }
+    }
+
+    /**
+     * Différence entre deux squelettes triés par id : une seule passe de fusion.
+     * Les lignes communes sont signalées lors de leur relecture (requestPage).
+     */
+    private void fireSortedDiff(int[] oldIds, int[] newIds) {
+        RangeCollector deleted = new RangeCollector();
+        RangeCollector inserted = new RangeCollector();
+        int i = 0;
+        int j = 0;
+        while (i < oldIds.length || j < newIds.length) {
+            if (j == newIds.length || (i < oldIds.length && oldIds[i] < newIds[j])) {
+                loaded.remove(oldIds[i]);
+                deleted.add(i++);
+            } else if (i == oldIds.length || newIds[j] < oldIds[i]) {
+                inserted.add(j++);
+            } else {
+                i++;
+                j++;
+            }
+        }
+        deleted.fireDeleted();
+        inserted.fireInserted();
+    }
+
+    /**
+     * Différence par id entre deux listes d'ordre quelconque. Si l'ordre relatif des lignes
+     * communes a changé, la table est entièrement redessinée (Swing n'a pas d'événement de déplacement).
+     * @param oldContacts ancienne liste affichée, ou null si l'on venait du mode paginé
+     */
+    private void fireKeyedDiff(int[] oldIds, int[] newIds, List<Contact> oldContacts) {
+        Map<Integer, Integer> newIndex = new HashMap<>(newIds.length * 2);
+        for (int j = 0; j < newIds.length; j++) {
+            newIndex.put(newIds[j], j);
+        }
+        Set<Integer> oldIdSet = new HashSet<>(oldIds.length * 2);
+        RangeCollector deleted = new RangeCollector();
+        RangeCollector updated = new RangeCollector();
+        int lastCommon = -1;
+        for (int i = 0; i < oldIds.length; i++) {
+            oldIdSet.add(oldIds[i]);
+            Integer j = newIndex.get(oldIds[i]);
+            if (j == null) {
+                deleted.add(i);
+                continue;
+            }
+            if (j < lastCommon) {
+                fireTableDataChanged(); // ordre modifié
+                return;
+            }
+            lastCommon = j;
+            Contact before = oldContacts != null ? oldContacts.get(i) : loaded.get(oldIds[i]);
+            Contact after = contacts != null ? contacts.get(j) : null;
+            if (before == null || after == null || !sameContent(before, after)) {
+                updated.add(j);
+            }
+        }
+        RangeCollector inserted = new RangeCollector();
+        for (int j = 0; j < newIds.length; j++) {
+            if (!oldIdSet.contains(newIds[j])) {
+                inserted.add(j);
+            }
+        }
+        deleted.fireDeleted();
+        inserted.fireInserted();
+        updated.fireUpdated();
+    }
+
+    private boolean sameContent(Contact a, Contact b) {
+        for (ContactColumn column : columns) {
+            if (!Objects.equals(column.valueOf(a), column.valueOf(b))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int indexOf(int id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isSorted(int[] values) {
+        for (int i = 1; i < values.length; i++) {
+            if (values[i - 1] >= values[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param notBefore date (System.nanoTime) avant laquelle la page n'est pas redemandée
+     */
+    private record PageRetry(int failures, long notBefore) {
+    }
+
+    /**
+     * Regroupe des indices croissants en plages contiguës, pour un événement par plage.
+     * Les suppressions sont signalées de la fin vers le début et les insertions du début
+     * vers la fin : chaque plage reste valide dans l'état laissé par la précédente.
+     */
+    private final class RangeCollector {
+        private final List<int[]> ranges = new ArrayList<>();
+
+        void add(int index) {
+            int[] last = ranges.isEmpty() ? null : ranges.get(ranges.size() - 1);
+            if (last != null && last[1] == index - 1) {
+                last[1] = index;
+            } else {
+                ranges.add(new int[]{index, index});
+            }
+        }
+
+        void fireDeleted() {
+            for (int k = ranges.size() - 1; k >= 0; k--) {
+                fireTableRowsDeleted(ranges.get(k)[0], ranges.get(k)[1]);
+            }
+        }
+
+        void fireInserted() {
+            for (int[] range : ranges) {
+                fireTableRowsInserted(range[0], range[1]);
+            }
+        }
+
+        void fireUpdated() {
+            for (int[] range : ranges) {
+                fireTableRowsUpdated(range[0], range[1]);
+            }
+        }
+    }
+
+    // ==================== BUILDER CLASS ====================
+
+    public static class Builder {
+        private final AsyncContactService contactService;
+        private ContactColumn[] columns = ContactColumn.values();
+        private int pageSize = DEFAULT_PAGE_SIZE;
+        private int maxPages = 16;
+        private ContactSnapshotStore snapshotStore;
+
+        public Builder(AsyncContactService contactService) {
+            this.contactService = contactService;
+        }
+
+        public Builder columns(ContactColumn... columns) {
+            this.columns = columns.clone();
+            return this;
+        }
+
+        /**
+         * Nombre de lignes chargées par requête.
+         */
+        public Builder pageSize(int pageSize) {
+            this.pageSize = pageSize;
+            return this;
+        }
+
+        /**
+         * Nombre de pages gardées en mémoire (au moins 3 : les deux pages visibles et la suivante).
+         */
+        public Builder maxPages(int maxPages) {
+            this.maxPages = maxPages;
+            return this;
+        }
+
+        /**
+         * Répertoire d'instantanés locaux utilisé par load() (null : pas d'instantané).
+         */
+        public Builder snapshotStore(ContactSnapshotStore snapshotStore) {
+            this.snapshotStore = snapshotStore;
+            return this;
+        }
+
+        public LazyContactTableModel build() {
+            if (contactService == null) {
+                throw new IllegalArgumentException("Le service de contacts est obligatoire");
+            }
+            if (columns.length == 0) {
+                throw new IllegalArgumentException("Au moins une colonne est requise");
+            }
+            if (pageSize <= 0 || pageSize > ContactDAO.MAX_PAGE_SIZE) {
+                throw new IllegalArgumentException("Taille de page invalide: " + pageSize);
+            }
+            if (maxPages < 3) {
+                throw new IllegalArgumentException("Au moins 3 pages doivent tenir en mémoire");
+            }
+            return new LazyContactTableModel(this);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package panels;
+
+import service.photo.PhotoThumbnailCache;
+import javax.swing.*;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.TableColumn;
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Ellipse2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Rendu de la colonne photo : la miniature si elle est en cache, sinon un avatar générique.
+ * Les miniatures manquantes sont demandées au cache sans bloquer le thread Swing ; le tableau
+ * est repeint (une seule fois pour plusieurs miniatures arrivées ensemble) dès qu'elles sont prêtes.
+ * <pre>
+ * PhotoCellRenderer.install(table, tableModel.findColumn(ContactColumn.PHOTO_CONTACT), PhotoThumbnailCache.defaultCache());
+ * </pre>
+ */
+public class PhotoCellRenderer extends DefaultTableCellRenderer {
+    private static final int PADDING = 2;
+    private static final Color PLACEHOLDER_BACKGROUND = new Color(0xD5DBE1);
+    private static final Color PLACEHOLDER_FOREGROUND = new Color(0xF4F6F8);
+
+    private final PhotoThumbnailCache cache;
+    private final AvatarIcon icon = new AvatarIcon();
+    private final AtomicBoolean repaintPending = new AtomicBoolean();
+    private JTable table;
+
+    public PhotoCellRenderer(PhotoThumbnailCache cache) {
+        if (cache == null) {
+            throw new IllegalArgumentException("Le cache des miniatures est obligatoire");
+        }
+        this.cache = cache;
+        setHorizontalAlignment(CENTER);
+        setIcon(icon);
+    }
+
+    /**
+     * Installe le rendu sur une colonne du tableau et ajuste sa largeur à la hauteur des lignes
+     * @param modelColumn index de la colonne dans le modèle (ignoré si négatif)
+     */
+    public static void install(JTable table, int modelColumn, PhotoThumbnailCache cache) {
+        if (modelColumn < 0) {
+            return;
+        }
+        int viewColumn = table.convertColumnIndexToView(modelColumn);
+        if (viewColumn < 0) {
+            return;
+        }
+        int width = table.getRowHeight() + table.getIntercellSpacing().width + PADDING * 2;
+        TableColumn column = table.getColumnModel().getColumn(viewColumn);
+        column.setCellRenderer(new PhotoCellRenderer(cache));
+        column.setMinWidth(width);
+        column.setMaxWidth(width);
+        column.setPreferredWidth(width);
+    }
+
+    @Override
+    public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                                                   boolean hasFocus, int row, int column) {
+        super.getTableCellRendererComponent(table, null, isSelected, hasFocus, row, column);
+        this.table = table;
+        int side = Math.max(1, table.getRowHeight(row) - table.getIntercellSpacing().height - PADDING * 2);
+        BufferedImage thumbnail = null;
+        if (value instanceof Integer photoId && photoId > 0) {
+            // Miniature à la résolution de l'écran (HiDPI), peinte à la taille logique
+            thumbnail = cache.get(photoId, (int) Math.ceil(side * scaleOf(table)), this::scheduleRepaint);
+        }
+        icon.set(thumbnail, side);
+        return this;
+    }
+
+    // ===== MÉTHODES UTILITAIRES PRIVÉES =====
+
+    private void scheduleRepaint() {
+        if (repaintPending.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(() -> {
+                repaintPending.set(false);
+                if (table != null) {
+                    table.repaint(table.getVisibleRect());
+                }
+            });
+        }
+    }
+
+    private static double scaleOf(JTable table) {
+        GraphicsConfiguration configuration = table.getGraphicsConfiguration();
+        if (configuration == null) {
+            return 1;
+        }
+        AffineTransform transform = configuration.getDefaultTransform();
+        return Math.max(1, transform.getScaleX());
+    }
+
+    /**
+     * Icône réutilisée par toutes les cellules : miniature, ou silhouette sur un disque
+     */
+    private static final class AvatarIcon implements Icon {
+        private BufferedImage thumbnail;
+        private int side;
+
+        void set(BufferedImage thumbnail, int side) {
+            this.thumbnail = thumbnail;
+            this.side = side;
+        }
+
+        @Override
+        public void paintIcon(Component c, Graphics g, int x, int y) {
+            if (thumbnail != null) {
+                g.drawImage(thumbnail, x, y, side, side, null);
+                return;
+            }
+            Graphics2D g2 = (Graphics2D) g.create();
+            try {
+                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                g2.setColor(PLACEHOLDER_BACKGROUND);
+                g2.fillOval(x, y, side, side);
+                g2.setColor(PLACEHOLDER_FOREGROUND);
+                g2.clip(new Ellipse2D.Float(x, y, side, side));
+                int head = side * 3 / 8;
+                g2.fillOval(x + (side - head) / 2, y + side / 5, head, head);
+                g2.fillOval(x + side / 5, y + side * 5 / 8, side * 3 / 5, side * 3 / 5);
+            } finally {
+                g2.dispose();
+            }
+        }
+
+        @Override
+        public int getIconWidth() {
+            return side;
+        }
+
+        @Override
+        public int getIconHeight() {
+            return side;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package panels;
+
+import dao.QueryCancellation;
+import models.Contact;
+import service.AsyncContactService;
+import utils.metrics.Histogram;
+import utils.metrics.Metrics;
+
+import javax.swing.JTextField;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Répartiteur de la recherche à la frappe de ContactHeaderPanel.
+ * <p>
+ * Les frappes rapprochées sont regroupées (anti-rebond) : seule la dernière valeur, stable
+ * pendant la fenêtre d'attente, déclenche une requête. Une nouvelle recherche annule la
+ * précédente en base (Statement.cancel) et un résultat périmé n'atteint jamais la table.
+ * <pre>
+ * header.setSearchListener(new SearchDispatcher(asyncService, 250, table::showContacts, table::refresh));
+ * </pre>
+ * Toutes les méthodes s'appellent depuis l'EDT ; les callbacks y sont aussi exécutés.
+ * {@link #attach(JTextField)} branche directement un champ de saisie (frappe, Entrée).
+ */
+public class SearchDispatcher implements ContactHeaderPanel.SearchListener {
+    // Fenêtre d'anti-rebond par défaut (surchargeable par -Dui.search.debounceMillis=...)
+    public static final int DEFAULT_DEBOUNCE_MILLIS = Integer.getInteger("ui.search.debounceMillis", 250);
+
+    // Métriques (JMX) : de l'envoi de la recherche à l'affichage des résultats (hors anti-rebond)
+    private static final Histogram SEARCH_LATENCY = Metrics.timer("ui.search.latency");
+
+    /**
+     * Recherche lancée pour un terme ; annulable par le jeton
+     */
+    @FunctionalInterface
+    public interface Search {
+        CompletableFuture<List<Contact>> search(String term, QueryCancellation cancellation);
+    }
+
+    private final Search search;
+    private final Consumer<List<Contact>> onResults;
+    private final Runnable onReset;
+    private final Timer debounceTimer;
+
+    private String pendingTerm;
+    private String dispatchedTerm;
+    private long generation; // incrémenté à chaque nouvelle recherche ou réinitialisation
+    private QueryCancellation inFlight;
+
+    public SearchDispatcher(AsyncContactService contactService, Consumer<List<Contact>> onResults,
+                            Runnable onReset) {
+        this(contactService, DEFAULT_DEBOUNCE_MILLIS, onResults, onReset);
+    }
+
+    /**
+     * @param contactService service exécutant les recherches
+     * @param debounceMillis durée sans frappe avant l'envoi de la recherche
+     * @param onResults reçoit les résultats de la dernière recherche (sur l'EDT)
+     * @param onReset appelé quand le champ est vidé (sur l'EDT)
+     */
+    public SearchDispatcher(AsyncContactService contactService, int debounceMillis,
+                            Consumer<List<Contact>> onResults, Runnable onReset) {
+        this(requireService(contactService)::searchContacts, debounceMillis, onResults, onReset);
+    }
+
+    /**
+     * @param search recherche à lancer (ex. en base, puis approchée sans résultat)
+     */
+    public SearchDispatcher(Search search, int debounceMillis,
+                            Consumer<List<Contact>> onResults, Runnable onReset) {
+        if (search == null || onResults == null || onReset == null) {
+            throw new IllegalArgumentException("Le service et les callbacks sont obligatoires");
+        }
+        if (debounceMillis < 0) {
+            throw new IllegalArgumentException("La fenêtre d'anti-rebond doit être positive");
+        }
+        this.search = search;
+        this.onResults = onResults;
+        this.onReset = onReset;
+        this.debounceTimer = new Timer(debounceMillis, e -> dispatch());
+        this.debounceTimer.setRepeats(false);
+    }
+
+    @Override
+    public void onSearch(String query) {
+        pendingTerm = query;
+        debounceTimer.restart();
+    }
+
+    @Override
+    public void onReset() {
+        debounceTimer.stop();
+        pendingTerm = null;
+        cancelInFlight();
+        onReset.run();
+    }
+
+    /**
+     * Lance tout de suite la recherche, sans attendre la fin de l'anti-rebond (ex. touche Entrée)
+     */
+    public void searchNow(String query) {
+        debounceTimer.stop();
+        pendingTerm = query;
+        dispatch();
+    }
+
+    /**
+     * Recherche à la frappe dans un champ : vide, il réinitialise ; Entrée lance la recherche
+     * sans attendre
+     */
+    public void attach(JTextField field) {
+        field.getDocument().addDocumentListener(new DocumentListener() {
+            public void insertUpdate(DocumentEvent e) { handle(); }
+            public void removeUpdate(DocumentEvent e) { handle(); }
+            public void changedUpdate(DocumentEvent e) { handle(); }
+
+            private void handle() {
+                String text = field.getText().trim();
+                if (text.isEmpty()) onReset();
+                else onSearch(text);
+            }
+        });
+        field.addActionListener(e -> {
+            String text = field.getText().trim();
+            if (!text.isEmpty()) {
+                searchNow(text);
+            }
+        });
+    }
+
+    /**
+     * Abandonne toute recherche en attente ou en cours (ex. fermeture du panneau).
+     */
+    public void cancel() {
+        debounceTimer.stop();
+        pendingTerm = null;
+        cancelInFlight();
+    }
+
+    // ===== MÉTHODES UTILITAIRES PRIVÉES =====
+
+    private void dispatch() {
+        String term = pendingTerm;
+        pendingTerm = null;
+        if (term == null || (term.equals(dispatchedTerm) && inFlight != null)) {
+            return; // même terme déjà en cours (ex. frappe puis effacement d'un caractère)
+        }
+        cancelInFlight();
+
+        QueryCancellation cancellation = new QueryCancellation();
+        long searchGeneration = generation;
+        long start = System.nanoTime();
+        inFlight = cancellation;
+        dispatchedTerm = term;
+
+        CompletableFuture<List<Contact>> results = search.search(term, cancellation);
+        results.whenCompleteAsync((contacts, error) -> {
+            if (searchGeneration != generation) {
+                return; // périmé : une recherche plus récente a été lancée
+            }
+            inFlight = null;
+            if (error == null) {
+                onResults.accept(contacts);
+                SEARCH_LATENCY.recordSince(start);
+            } else {
+                System.err.println("Erreur lors de la recherche: " + error.getMessage());
+            }
+        }, AsyncContactService.edt());
+    }
+
+    private static AsyncContactService requireService(AsyncContactService contactService) {
+        if (contactService == null) {
+            throw new IllegalArgumentException("Le service et les callbacks sont obligatoires");
+        }
+        return contactService;
+    }
+
+    private void cancelInFlight() {
+        generation++;
+        dispatchedTerm = null;
+        if (inFlight != null) {
+            inFlight.cancel();
+            inFlight = null;
+        }
+    }
+}
@@ -0,0 +1,627 @@
+package server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dao.BatchResult;
+import dao.ContactChanges;
+import dao.ContactDAO;
+import dao.ContactPage;
+import dao.ContactSort;
+import models.Contact;
+import service.AuthenticationService;
+import service.AuthenticationService.AuthenticationException;
+import service.ContactService;
+import service.User;
+import utils.DBConnection;
+import utils.Json;
+import utils.SessionManager;
+import utils.metrics.Counter;
+import utils.metrics.Histogram;
+import utils.metrics.Metrics;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Serveur HTTP sans interface graphique exposant ContactService et l'authentification en JSON.
+ * <p>
+ * Tous les clients partagent ainsi un seul pool de connexions, un seul cache et un seul jeu
+ * de requêtes préparées. Chaque requête est traitée sur un thread virtuel ; le nombre de
+ * requêtes exécutées simultanément est borné par le budget de connexions du pool.
+ * <pre>
+ * POST   /api/login              {"numero_telephone": "...", "mot_de_passe": "..."} → {"token", "user"}
+ * POST   /api/logout
+ * GET    /api/contacts?sort=NOM&amp;limit=50&amp;pageToken=...   page (pagination keyset)
+ * GET    /api/contacts/search?q=...&amp;limit=50&amp;local=true    recherche (en base, ou dans l'index local)
+ * GET    /api/contacts/search?q=...&amp;limit=50&amp;fuzzy=true    recherche approchée sur les noms (fautes tolérées)
+ * GET    /api/contacts/changes?since=42                       changements depuis une version (sans since : version courante)
+ * GET    /api/contacts/{id}
+ * POST   /api/contacts           (admin) ajout
+ * PUT    /api/contacts/{id}      (admin) mise à jour
+ * DELETE /api/contacts/{id}      (admin) suppression
+ * POST   /api/contacts/batch     (admin) {"add": [...]} | {"update": [...]} | {"delete": [ids]}
+ * GET    /api/health
+ * </pre>
+ * Une recherche exige un terme q non vide et renvoie au plus limit contacts (1 à 1000, 50 par défaut).
+ * L'index des recherches local et fuzzy est construit en arrière-plan au démarrage ; d'ici là,
+ * ces recherches répondent 503.
+ * Les routes /api/contacts exigent l'en-tête {@code Authorization: Bearer <token>} obtenu à la connexion.
+ * Les erreurs sont renvoyées sous la forme {@code {"error": "message"}}.
+ */
+public class ContactHttpServer implements AutoCloseable {
+    private static final String CONTACTS_PATH = "/api/contacts";
+    private static final String JSON_CONTENT_TYPE = "application/json; charset=utf-8";
+
+    // Métriques (JMX) : durée de traitement de chaque requête, erreurs serveur (5xx)
+    private static final Histogram REQUEST_TIMER = Metrics.timer("http.requests");
+    private static final Counter SERVER_ERRORS = Metrics.counter("http.errors");
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ContactService contactService;
+    private final AuthenticationService authService;
+    private final Semaphore permits;
+    private final int maxBodyBytes;
+    private final int maxBatchSize;
+    private final AtomicBoolean indexBuilding = new AtomicBoolean();
+
+    private ContactHttpServer(Builder builder) throws IOException {
+        this.contactService = builder.contactService;
+        this.authService = builder.authService;
+        this.permits = new Semaphore(builder.maxConcurrency, true);
+        this.maxBodyBytes = builder.maxBodyBytes;
+        this.maxBatchSize = builder.maxBatchSize;
+
+        this.server = HttpServer.create(new InetSocketAddress(builder.bindAddress, builder.port), 0);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/api/health", exchange -> handle(exchange, false, this::health));
+        server.createContext("/api/login", exchange -> handle(exchange, true, this::login));
+        server.createContext("/api/logout", exchange -> handle(exchange, false, this::logout));
+        server.createContext(CONTACTS_PATH, exchange -> handle(exchange, true, this::contacts));
+    }
+
+    /**
+     * Démarre l'écoute (non bloquant)
+     */
+    public void start() {
+        server.start();
+        // Index des recherches local et fuzzy, hors du traitement des requêtes
+        executor.execute(this::buildSearchIndex);
+    }
+
+    /**
+     * @return le port d'écoute effectif (utile avec le port 0 : port libre choisi par le système)
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /**
+     * Arrête l'écoute, laisse au plus une seconde aux requêtes en cours pour se terminer
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdownNow();
+    }
+
+    // ===== ROUTES =====
+
+    private Response health(HttpExchange exchange) {
+        requireMethod(exchange, "GET");
+        return Response.ok("{\"status\":\"ok\"}");
+    }
+
+    private Response login(HttpExchange exchange) throws IOException, AuthenticationException {
+        requireMethod(exchange, "POST");
+        Map<?, ?> body = readObject(exchange);
+        Object phone = body.get("numero_telephone");
+        Object password = body.get("mot_de_passe");
+        if (!(phone instanceof String) || !(password instanceof String)
+                || ((String) phone).isBlank() || ((String) password).isBlank()) {
+            throw new IllegalArgumentException("Tous les champs sont obligatoires");
+        }
+        User user = authService.authenticate((String) phone, (String) password);
+        SessionManager.Session session = SessionManager.open(user);
+
+        StringBuilder sb = new StringBuilder("{\"token\":").append(Json.quote(session.getToken())).append(",\"user\":");
+        ContactJson.appendUser(sb, user);
+        return Response.ok(sb.append('}').toString());
+    }
+
+    private Response logout(HttpExchange exchange) {
+        requireMethod(exchange, "POST");
+        SessionManager.close(bearerToken(exchange));
+        return Response.noContent();
+    }
+
+    private Response contacts(HttpExchange exchange) throws IOException, SQLException {
+        User user = requireUser(exchange);
+        String method = exchange.getRequestMethod();
+        String rest = exchange.getRequestURI().getPath().substring(CONTACTS_PATH.length());
+
+        if (rest.isEmpty() || rest.equals("/")) {
+            if (method.equals("GET")) {
+                return page(exchange);
+            }
+            requireMethod(exchange, "POST");
+            requireAdmin(user);
+            return addContact(exchange);
+        }
+        if (rest.equals("/search")) {
+            requireMethod(exchange, "GET");
+            return search(exchange);
+        }
+        if (rest.equals("/changes")) {
+            requireMethod(exchange, "GET");
+            return changes(exchange);
+        }
+        if (rest.equals("/batch")) {
+            requireMethod(exchange, "POST");
+            requireAdmin(user);
+            return batch(exchange);
+        }
+
+        int id = parseId(rest.substring(1));
+        switch (method) {
+            case "GET":
+                Contact contact = contactService.findById(id);
+                if (contact == null) {
+                    throw new HttpError(404, "Contact introuvable");
+                }
+                return Response.ok(contactJson(contact));
+            case "PUT":
+                requireAdmin(user);
+                return updateContact(exchange, id);
+            case "DELETE":
+                requireAdmin(user);
+                if (!contactService.deleteContact(id)) {
+                    throw new HttpError(404, "Contact introuvable");
+                }
+                return Response.noContent();
+            default:
+                throw new HttpError(405, "Méthode non autorisée");
+        }
+    }
+
+    private Response page(HttpExchange exchange) throws SQLException {
+        Map<String, String> query = queryParameters(exchange);
+        ContactSort sort = ContactSort.valueOf(query.getOrDefault("sort", "ID").toUpperCase(Locale.ROOT));
+        int limit = parseInt(query.getOrDefault("limit", "50"), "limit");
+        ContactPage page = contactService.getContactsPage(sort, query.get("pageToken"), limit);
+
+        StringBuilder sb = new StringBuilder("{\"contacts\":");
+        ContactJson.appendContacts(sb, page.getContacts());
+        sb.append(",\"nextPageToken\":").append(Json.quote(page.getNextPageToken())).append('}');
+        return Response.ok(sb.toString());
+    }
+
+    /**
+     * Synchronisation incrémentale : le client rappelle avec la version reçue.
+     * Si fullResync vaut true, il recharge tout (pages) puis repart de cette version.
+     */
+    private Response changes(HttpExchange exchange) throws SQLException {
+        String since = queryParameters(exchange).get("since");
+        if (since == null) {
+            return Response.ok("{\"version\":" + contactService.getChangeVersion() + ",\"fullResync\":true}");
+        }
+        ContactChanges changes = contactService.changesSince(parseLong(since, "since"));
+        StringBuilder sb = new StringBuilder("{\"version\":");
+        sb.append(changes.getVersion())
+                .append(",\"fullResync\":").append(changes.isFullResyncRequired())
+                .append(",\"hasMore\":").append(changes.hasMore())
+                .append(",\"changed\":");
+        ContactJson.appendContacts(sb, changes.getChanged());
+        sb.append(",\"deleted\":").append(Arrays.toString(changes.getDeletedIds()).replace(" ", ""));
+        return Response.ok(sb.append('}').toString());
+    }
+
+    private Response search(HttpExchange exchange) {
+        Map<String, String> query = queryParameters(exchange);
+        String term = query.getOrDefault("q", "").trim();
+        if (term.isEmpty()) {
+            throw new IllegalArgumentException("Terme de recherche (q) obligatoire");
+        }
+        int limit = parseInt(query.getOrDefault("limit", "50"), "limit");
+        if (limit <= 0 || limit > ContactDAO.MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit doit être compris entre 1 et " + ContactDAO.MAX_PAGE_SIZE);
+        }
+        boolean fuzzy = Boolean.parseBoolean(query.get("fuzzy"));
+        boolean local = Boolean.parseBoolean(query.get("local"));
+        if ((fuzzy || local) && !contactService.isSearchIndexReady()) {
+            executor.execute(this::buildSearchIndex); // sans effet si une construction est en cours
+            throw new HttpError(503, "Index de recherche en cours de construction, réessayer plus tard");
+        }
+        List<Contact> contacts;
+        if (fuzzy) {
+            contacts = contactService.searchFuzzy(term, limit);
+        } else if (local) {
+            contacts = contactService.searchLocal(term, limit);
+        } else {
+            contacts = contactService.searchContacts(term, limit);
+        }
+
+        StringBuilder sb = new StringBuilder("{\"contacts\":");
+        ContactJson.appendContacts(sb, contacts);
+        return Response.ok(sb.append('}').toString());
+    }
+
+    private Response addContact(HttpExchange exchange) throws IOException, SQLException {
+        Contact contact = ContactJson.toContact(readBody(exchange));
+        contact.setId(0);
+        if (!contactService.addContact(contact)) {
+            throw new HttpError(500, "Échec de l'ajout du contact");
+        }
+        return new Response(201, contactJson(contact));
+    }
+
+    private Response updateContact(HttpExchange exchange, int id) throws IOException, SQLException {
+        Contact contact = ContactJson.toContact(readBody(exchange));
+        contact.setId(id);
+        if (!contactService.updateContact(contact)) {
+            throw new HttpError(404, "Contact introuvable");
+        }
+        return Response.ok(contactJson(contact));
+    }
+
+    /**
+     * Écriture en lot : les éléments invalides sont rejetés individuellement,
+     * les autres sont envoyés en base en une seule opération
+     */
+    private Response batch(HttpExchange exchange) throws IOException, SQLException {
+        Map<?, ?> body = readObject(exchange);
+        if (body.size() != 1) {
+            throw new IllegalArgumentException("Une seule opération par lot : add, update ou delete");
+        }
+        Map.Entry<?, ?> operation = body.entrySet().iterator().next();
+        if (!(operation.getValue() instanceof List<?> items)) {
+            throw new IllegalArgumentException("Liste attendue pour " + operation.getKey());
+        }
+        if (items.size() > maxBatchSize) {
+            throw new HttpError(413, "Lot trop volumineux (maximum " + maxBatchSize + " éléments)");
+        }
+
+        int size = items.size();
+        String[] rejected = new String[size];
+        int[] resultIndexes = new int[size];
+        StringBuilder sb = new StringBuilder();
+        switch (String.valueOf(operation.getKey())) {
+            case "add", "update" -> {
+                boolean add = operation.getKey().equals("add");
+                List<Contact> contacts = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    try {
+                        Contact contact = ContactJson.toContact(items.get(i));
+                        if (add) {
+                            contact.setId(0);
+                        } else if (contact.getId() <= 0) {
+                            throw new IllegalArgumentException("Id obligatoire pour une mise à jour");
+                        }
+                        resultIndexes[i] = contacts.size();
+                        contacts.add(contact);
+                    } catch (IllegalArgumentException e) {
+                        rejected[i] = e.getMessage();
+                    }
+                }
+                BatchResult result = add ? contactService.addContacts(contacts) : contactService.updateContacts(contacts);
+                ContactJson.appendBatch(sb, size, result, resultIndexes, rejected, add ? contacts : null);
+            }
+            case "delete" -> {
+                List<Integer> ids = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    try {
+                        resultIndexes[i] = ids.size();
+                        ids.add(ContactJson.toInt(items.get(i), "id"));
+                    } catch (IllegalArgumentException e) {
+                        rejected[i] = e.getMessage();
+                    }
+                }
+                ContactJson.appendBatch(sb, size, contactService.deleteContacts(ids), resultIndexes, rejected, null);
+            }
+            default -> throw new IllegalArgumentException("Opération inconnue: " + operation.getKey());
+        }
+        return Response.ok(sb.toString());
+    }
+
+    // ===== MÉTHODES UTILITAIRES PRIVÉES =====
+
+    private void buildSearchIndex() {
+        if (!indexBuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            if (!contactService.isSearchIndexReady()) {
+                contactService.rebuildSearchIndex();
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Construction de l'index de recherche impossible: " + e.getMessage());
+        } finally {
+            indexBuilding.set(false);
+        }
+    }
+
+    /**
+     * Traitement d'une route, renvoyant la réponse JSON à écrire
+     */
+    @FunctionalInterface
+    private interface Route {
+        Response handle(HttpExchange exchange) throws IOException, SQLException, AuthenticationException;
+    }
+
+    /**
+     * @param body corps JSON, ou null pour une réponse sans contenu
+     */
+    private record Response(int status, String body) {
+        static Response ok(String body) {
+            return new Response(200, body);
+        }
+
+        static Response noContent() {
+            return new Response(204, null);
+        }
+    }
+
+    /**
+     * Erreur renvoyée au client avec le statut HTTP donné
+     */
+    private static final class HttpError extends RuntimeException {
+        private final int status;
+
+        HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    /**
+     * @param limited true si la route accède à la base (soumise à la limite de concurrence)
+     */
+    private void handle(HttpExchange exchange, boolean limited, Route route) throws IOException {
+        long start = System.nanoTime();
+        try (exchange) {
+            Response response;
+            try {
+                if (limited) {
+                    permits.acquire();
+                }
+                try {
+                    response = route.handle(exchange);
+                } finally {
+                    if (limited) {
+                        permits.release();
+                    }
+                }
+            } catch (HttpError e) {
+                response = error(e.status, e.getMessage());
+            } catch (IllegalArgumentException e) {
+                response = error(400, e.getMessage());
+            } catch (AuthenticationException e) {
+                response = e.getCause() instanceof SQLException
+                        ? error(503, e.getMessage())
+                        : error(401, e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                response = error(503, "Serveur en cours d'arrêt");
+            } catch (SQLException | RuntimeException e) {
+                System.err.println("Erreur lors du traitement de " + exchange.getRequestURI() + ": " + e.getMessage());
+                e.printStackTrace();
+                response = error(500, "Erreur interne du serveur");
+            }
+            send(exchange, response);
+        } finally {
+            REQUEST_TIMER.recordSince(start);
+        }
+    }
+
+    private static Response error(int status, String message) {
+        if (status >= 500) {
+            SERVER_ERRORS.increment();
+        }
+        return new Response(status, "{\"error\":" + Json.quote(message) + "}");
+    }
+
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        if (response.body() == null) {
+            exchange.sendResponseHeaders(response.status(), -1);
+            return;
+        }
+        byte[] bytes = response.body().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", JSON_CONTENT_TYPE);
+        exchange.sendResponseHeaders(response.status(), bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private Object readBody(HttpExchange exchange) throws IOException {
+        byte[] bytes;
+        try (InputStream in = exchange.getRequestBody()) {
+            bytes = in.readNBytes(maxBodyBytes + 1);
+        }
+        if (bytes.length > maxBodyBytes) {
+            throw new HttpError(413, "Requête trop volumineuse");
+        }
+        return Json.parse(new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    private Map<?, ?> readObject(HttpExchange exchange) throws IOException {
+        if (!(readBody(exchange) instanceof Map<?, ?> object)) {
+            throw new IllegalArgumentException("Objet JSON attendu");
+        }
+        return object;
+    }
+
+    private static String contactJson(Contact contact) {
+        StringBuilder sb = new StringBuilder(256);
+        ContactJson.appendContact(sb, contact);
+        return sb.toString();
+    }
+
+    private static void requireMethod(HttpExchange exchange, String method) {
+        if (!exchange.getRequestMethod().equals(method)) {
+            exchange.getResponseHeaders().set("Allow", method);
+            throw new HttpError(405, "Méthode non autorisée");
+        }
+    }
+
+    private static User requireUser(HttpExchange exchange) {
+        User user = SessionManager.getUser(bearerToken(exchange));
+        if (user == null) {
+            throw new HttpError(401, "Session absente ou expirée");
+        }
+        return user;
+    }
+
+    private static void requireAdmin(User user) {
+        if (!user.isAdmin()) {
+            throw new HttpError(403, "Action réservée aux administrateurs");
+        }
+    }
+
+    private static String bearerToken(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            return null;
+        }
+        return header.substring(7).trim();
+    }
+
+    private static Map<String, String> queryParameters(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null || query.isEmpty()) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    private static int parseId(String value) {
+        try {
+            int id = Integer.parseInt(value);
+            if (id > 0) {
+                return id;
+            }
+        } catch (NumberFormatException e) {
+            // traité ci-dessous
+        }
+        throw new HttpError(404, "Ressource introuvable");
+    }
+
+    private static int parseInt(String value, String name) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Entier attendu pour " + name);
+        }
+    }
+
+    private static long parseLong(String value, String name) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Entier attendu pour " + name);
+        }
+    }
+
+    // ==================== BUILDER CLASS ====================
+
+    public static class Builder {
+        // Obligatoire
+        private final ContactService contactService;
+
+        // Optionnels
+        private AuthenticationService authService = new AuthenticationService();
+        private InetAddress bindAddress = InetAddress.getLoopbackAddress();
+        private int port = 8080;
+        private int maxConcurrency = DBConnection.getMaxPoolSize();
+        private int maxBodyBytes = 8 * 1024 * 1024;
+        private int maxBatchSize = 10_000;
+
+        public Builder(ContactService contactService) {
+            this.contactService = contactService;
+        }
+
+        public Builder authenticationService(AuthenticationService authService) {
+            this.authService = authService;
+            return this;
+        }
+
+        /**
+         * Adresse d'écoute : boucle locale par défaut ; 0.0.0.0 pour toutes les interfaces
+         */
+        public Builder bindAddress(InetAddress bindAddress) {
+            this.bindAddress = bindAddress;
+            return this;
+        }
+
+        /**
+         * Port d'écoute ; 0 pour un port libre choisi par le système
+         */
+        public Builder port(int port) {
+            this.port = port;
+            return this;
+        }
+
+        /**
+         * Nombre maximal de requêtes accédant simultanément à la base (les autres attendent leur tour)
+         */
+        public Builder maxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        public Builder maxBodyBytes(int maxBodyBytes) {
+            this.maxBodyBytes = maxBodyBytes;
+            return this;
+        }
+
+        public Builder maxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * Crée le serveur et réserve le port (l'écoute commence avec start())
+         * @throws IOException si le port ne peut pas être réservé
+         */
+        public ContactHttpServer build() throws IOException {
+            if (contactService == null || authService == null || bindAddress == null) {
+                throw new IllegalArgumentException("Service de contacts, authentification et adresse obligatoires");
+            }
+            if (port < 0 || port > 65_535) {
+                throw new IllegalArgumentException("Port invalide: " + port);
+            }
+            if (maxConcurrency <= 0 || maxBodyBytes <= 0 || maxBatchSize <= 0) {
+                throw new IllegalArgumentException("Les limites doivent être positives");
+            }
+            return new ContactHttpServer(this);
+        }
+    }
+}
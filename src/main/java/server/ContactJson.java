@@ -0,0 +1,131 @@
+package server;
+
+import dao.BatchResult;
+import models.Contact;
+import models.ContactColumn;
+import service.User;
+import utils.Json;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conversions JSON de l'API HTTP : contacts, lots et utilisateurs.
+ * Les propriétés d'un contact portent le nom de leur colonne en base (comme l'export JSON).
+ */
+final class ContactJson {
+
+    private ContactJson() {}
+
+    static void appendContact(StringBuilder sb, Contact contact) {
+        sb.append('{');
+        ContactColumn[] columns = ContactColumn.values();
+        for (int i = 0; i < columns.length; i++) {
+            ContactColumn column = columns[i];
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append('"').append(column.getColumnName()).append("\":");
+            Object value = column.valueOf(contact);
+            if (column.isNumeric() && value != null) {
+                sb.append(value);
+            } else {
+                sb.append(Json.quote(value == null ? null : value.toString()));
+            }
+        }
+        sb.append('}');
+    }
+
+    static void appendContacts(StringBuilder sb, List<Contact> contacts) {
+        sb.append('[');
+        for (int i = 0; i < contacts.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            appendContact(sb, contacts.get(i));
+        }
+        sb.append(']');
+    }
+
+    /**
+     * Issue de chaque ligne d'un lot. Les lignes rejetées avant l'envoi en base
+     * (rejected[i] non null) sont rapportées en échec avec leur motif.
+     */
+    static void appendBatch(StringBuilder sb, int size, BatchResult result, int[] resultIndexes,
+                            String[] rejected, List<Contact> contacts) {
+        int succeeded = 0;
+        StringBuilder rows = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                rows.append(',');
+            }
+            if (rejected[i] != null) {
+                rows.append("{\"outcome\":\"FAILED\",\"error\":").append(Json.quote(rejected[i])).append('}');
+                continue;
+            }
+            int index = resultIndexes[i];
+            BatchResult.RowOutcome outcome = result.getOutcome(index);
+            rows.append("{\"outcome\":\"").append(outcome).append('"');
+            if (outcome == BatchResult.RowOutcome.SUCCESS) {
+                succeeded++;
+                if (contacts != null) {
+                    rows.append(",\"id\":").append(contacts.get(index).getId());
+                }
+            } else if (result.getError(index) != null) {
+                rows.append(",\"error\":").append(Json.quote(result.getError(index)));
+            }
+            rows.append('}');
+        }
+        sb.append("{\"succeeded\":").append(succeeded)
+                .append(",\"failed\":").append(size - succeeded)
+                .append(",\"results\":[").append(rows).append("]}");
+    }
+
+    static void appendUser(StringBuilder sb, User user) {
+        sb.append("{\"id\":").append(user.getId())
+                .append(",\"numero_telephone\":").append(Json.quote(user.getPhoneNumber()))
+                .append(",\"role\":").append(Json.quote(user.getRole()))
+                .append('}');
+    }
+
+    /**
+     * Construit un contact à partir d'un objet JSON, via les setters validants
+     * @throws IllegalArgumentException si un champ obligatoire manque ou est invalide
+     */
+    static Contact toContact(Object json) {
+        if (!(json instanceof Map<?, ?> object)) {
+            throw new IllegalArgumentException("Objet contact attendu");
+        }
+        Contact contact = new Contact();
+        contact.setNom(string(object, "nom"));
+        contact.setPostnom(string(object, "postnom"));
+        contact.setEmail(string(object, "email"));
+        contact.setNumeroTelephone(string(object, "numero_telephone"));
+        contact.setGenre(string(object, "genre"));
+        contact.setAdresse(string(object, "adresse"));
+        Object photo = object.get("photo_contact");
+        if (photo != null) {
+            contact.setPhotoContact(toInt(photo, "photo_contact"));
+        }
+        Object id = object.get("id");
+        if (id != null) {
+            contact.setId(toInt(id, "id"));
+        }
+        return contact;
+    }
+
+    static int toInt(Object value, String name) {
+        if (value instanceof Long number && number >= Integer.MIN_VALUE && number <= Integer.MAX_VALUE) {
+            return number.intValue();
+        }
+        throw new IllegalArgumentException("Entier attendu pour " + name);
+    }
+
+    private static String string(Map<?, ?> object, String name) {
+        Object value = object.get(name);
+        if (value != null && !(value instanceof String)) {
+            throw new IllegalArgumentException("Chaîne attendue pour " + name);
+        }
+        return (String) value;
+    }
+}
@@ -0,0 +1,364 @@
+package service;
+
+import dao.BatchResult;
+import dao.ContactChanges;
+import dao.ContactPage;
+import dao.ContactSort;
+import dao.QueryCancellation;
+import models.Contact;
+import service.search.ColumnarContactStore;
+import service.snapshot.ContactSnapshot;
+import service.snapshot.ContactSnapshotStore;
+import utils.DBConnection;
+
+import javax.swing.SwingUtilities;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Predicate;
+
+/**
+ * Variante asynchrone de ContactService : chaque opération retourne un CompletableFuture.
+ * <p>
+ * Les tâches s'exécutent sur des threads virtuels (un par tâche) ; un sémaphore limite le
+ * nombre de tâches simultanées au budget de connexions du pool, pour que les tâches en
+ * surplus attendent ici plutôt que dans ConnectionPool.getConnection() (et son délai maximal).
+ * <p>
+ * Annuler un future retourné (cancel) : une tâche encore en attente ne s'exécute pas ; une
+ * tâche en cours n'est pas interrompue (un thread virtuel interrompu pendant une lecture
+ * réseau ferme la connexion JDBC, perdue pour le pool) : son résultat est ignoré, et sa
+ * requête est annulée par Statement.cancel si elle a un QueryCancellation. L'annulation ne
+ * remonte pas depuis les étapes dérivées (thenApply...) : il faut annuler le future d'origine.
+ */
+public class AsyncContactService implements AutoCloseable {
+    private final ContactService contactService;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permits;
+
+    public AsyncContactService(ContactService contactService) {
+        this(contactService, DBConnection.getMaxPoolSize());
+    }
+
+    /**
+     * @param contactService service synchrone sous-jacent (cache et index partagés)
+     * @param maxConcurrency nombre maximal de tâches exécutées simultanément
+     */
+    public AsyncContactService(ContactService contactService, int maxConcurrency) {
+        if (contactService == null) {
+            throw new IllegalArgumentException("Le service de contacts est obligatoire");
+        }
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("La concurrence maximale doit être positive");
+        }
+        this.contactService = contactService;
+        this.permits = new Semaphore(maxConcurrency, true);
+    }
+
+    public CompletableFuture<List<Contact>> getAllContacts() {
+        return submit(contactService::getAllContacts);
+    }
+
+    public CompletableFuture<ContactPage> getContactsPage(ContactSort sort, String pageToken, int pageSize) {
+        return submit(() -> contactService.getContactsPage(sort, pageToken, pageSize));
+    }
+
+    public CompletableFuture<int[]> getContactIds() {
+        return submit(contactService::getContactIds);
+    }
+
+    public CompletableFuture<List<Contact>> findByIdRange(int fromId, int toId) {
+        return submit(() -> contactService.findByIdRange(fromId, toId));
+    }
+
+    public CompletableFuture<Long> getChangeVersion() {
+        return submit(contactService::getChangeVersion);
+    }
+
+    public CompletableFuture<ContactChanges> changesSince(long version) {
+        return submit(() -> contactService.changesSince(version));
+    }
+
+    public CompletableFuture<ContactSnapshot> latestSnapshot(ContactSnapshotStore store) {
+        return submit(store::latest);
+    }
+
+    public CompletableFuture<ContactSnapshot> syncSnapshot(ContactSnapshotStore store, ContactSnapshot base) {
+        return submit(() -> {
+            try {
+                return store.sync(contactService, base);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    public CompletableFuture<Boolean> addContact(Contact contact) {
+        return submit(() -> contactService.addContact(contact));
+    }
+
+    public CompletableFuture<BatchResult> addContacts(List<Contact> contacts) {
+        return submit(() -> contactService.addContacts(contacts));
+    }
+
+    public CompletableFuture<BatchResult> addContacts(List<Contact> contacts, int batchSize) {
+        return submit(() -> contactService.addContacts(contacts, batchSize));
+    }
+
+    public CompletableFuture<BatchResult> updateContacts(List<Contact> contacts) {
+        return submit(() -> contactService.updateContacts(contacts));
+    }
+
+    public CompletableFuture<BatchResult> deleteContacts(Collection<Integer> ids) {
+        return submit(() -> contactService.deleteContacts(ids));
+    }
+
+    public CompletableFuture<Boolean> updateContact(Contact contact) {
+        return submit(() -> contactService.updateContact(contact));
+    }
+
+    public CompletableFuture<Boolean> deleteContact(int id) {
+        return submit(() -> contactService.deleteContact(id));
+    }
+
+    /**
+     * @return future du contact trouvé, ou de null s'il n'existe pas
+     */
+    public CompletableFuture<Contact> findById(int id) {
+        return submit(() -> contactService.findById(id));
+    }
+
+    public CompletableFuture<List<Contact>> searchContacts(String searchTerm) {
+        return submit(() -> contactService.searchContacts(searchTerm));
+    }
+
+    /**
+     * Recherche en base annulable par le jeton (Statement.cancel), sans interrompre le thread ;
+     * annuler le future annule aussi le jeton
+     */
+    public CompletableFuture<List<Contact>> searchContacts(String searchTerm, QueryCancellation cancellation) {
+        return submit(cancellation, () -> contactService.searchContacts(searchTerm, cancellation));
+    }
+
+    public CompletableFuture<List<Contact>> searchLocal(String searchTerm) {
+        return submit(() -> contactService.searchLocal(searchTerm));
+    }
+
+    public CompletableFuture<List<Contact>> searchFuzzy(String searchTerm) {
+        return submit(() -> contactService.searchFuzzy(searchTerm));
+    }
+
+    public CompletableFuture<List<Contact>> filterLocal(Predicate<ColumnarContactStore.ContactRow> filter) {
+        return submit(() -> contactService.filterLocal(filter));
+    }
+
+    public CompletableFuture<Map<String, Integer>> countByGenre() {
+        return submit(contactService::countByGenre);
+    }
+
+    public CompletableFuture<Void> rebuildSearchIndex() {
+        return submit(() -> {
+            contactService.rebuildSearchIndex();
+            return null;
+        });
+    }
+
+    /**
+     * Recherche plusieurs contacts en parallèle (dans la limite de concurrence).
+     * @param ids les ids recherchés
+     * @return future des contacts trouvés, par id, dans l'ordre des ids ; les absents sont omis
+     */
+    public CompletableFuture<Map<Integer, Contact>> findByIds(Collection<Integer> ids) {
+        List<Integer> idList = new ArrayList<>(ids);
+        List<CompletableFuture<Contact>> lookups = new ArrayList<>(idList.size());
+        for (int id : idList) {
+            lookups.add(findById(id));
+        }
+        CompletableFuture<List<Contact>> all = allOf(lookups);
+        CompletableFuture<Map<Integer, Contact>> result = all.thenApply(contacts -> {
+            Map<Integer, Contact> found = new LinkedHashMap<>();
+            for (int i = 0; i < idList.size(); i++) {
+                if (contacts.get(i) != null) {
+                    found.put(idList.get(i), contacts.get(i));
+                }
+            }
+            return found;
+        });
+        result.whenComplete((found, error) -> {
+            if (result.isCancelled()) {
+                all.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Exécute une opération quelconque sur le service dans les mêmes conditions
+     * (thread virtuel, limite de concurrence, annulation).
+     */
+    public <T> CompletableFuture<T> submit(SqlTask<T> task) {
+        return submit(null, task);
+    }
+
+    /**
+     * Comme {@link #submit(SqlTask)} ; annuler le future d'une tâche en cours annule le jeton
+     * @param cancellation jeton d'annulation de la requête de la tâche, ou null
+     */
+    public <T> CompletableFuture<T> submit(QueryCancellation cancellation, SqlTask<T> task) {
+        TaskFuture<T> future = new TaskFuture<>(cancellation);
+        future.attach(executor.submit(() -> run(task, future)));
+        return future;
+    }
+
+    /**
+     * Ferme l'exécuteur et interrompt les tâches en cours.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    // ===== COMPOSITION =====
+
+    /**
+     * Combine des futures en un future de la liste de leurs résultats (même ordre).
+     * Dès qu'un future échoue, les autres sont annulés et le résultat échoue avec la même cause.
+     */
+    public static <T> CompletableFuture<List<T>> allOf(List<? extends CompletableFuture<? extends T>> futures) {
+        CompletableFuture<List<T>> result = new CompletableFuture<>();
+        for (CompletableFuture<? extends T> future : futures) {
+            future.whenComplete((value, error) -> {
+                if (error != null && result.completeExceptionally(unwrap(error))) {
+                    futures.forEach(other -> other.cancel(true));
+                }
+            });
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenRun(() -> {
+            List<T> values = new ArrayList<>(futures.size());
+            for (CompletableFuture<? extends T> future : futures) {
+                values.add(future.join());
+            }
+            result.complete(values);
+        });
+        // Annuler le résultat combiné annule chacune des tâches
+        result.whenComplete((values, error) -> {
+            if (result.isCancelled()) {
+                futures.forEach(future -> future.cancel(true));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Exécuteur du thread Swing (EDT), pour appliquer un résultat à l'interface :
+     * {@code future.thenAcceptAsync(contact -> ..., AsyncContactService.edt())}
+     */
+    public static Executor edt() {
+        return SwingUtilities::invokeLater;
+    }
+
+    /**
+     * Opération sur le service pouvant lever une SQLException.
+     */
+    @FunctionalInterface
+    public interface SqlTask<T> {
+        T call() throws SQLException;
+    }
+
+    // ===== MÉTHODES UTILITAIRES PRIVÉES =====
+
+    private <T> void run(SqlTask<T> task, TaskFuture<T> future) {
+        if (future.isDone()) {
+            return; // annulée avant démarrage
+        }
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            future.completeExceptionally(new CancellationException("Tâche interrompue"));
+            return;
+        }
+        try {
+            if (future.start()) {
+                future.complete(task.call());
+            }
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            return error.getCause();
+        }
+        return error;
+    }
+
+    /**
+     * CompletableFuture dont l'annulation retire la tâche si elle n'a pas démarré (seule
+     * l'attente d'une place est interrompue), ou annule sa requête si elle est en cours.
+     */
+    private static final class TaskFuture<T> extends CompletableFuture<T> {
+        private final QueryCancellation cancellation;
+        private volatile Future<?> task;
+        private boolean started;
+
+        TaskFuture(QueryCancellation cancellation) {
+            this.cancellation = cancellation;
+        }
+
+        void attach(Future<?> task) {
+            this.task = task;
+            if (isCancelled()) {
+                task.cancel(false); // annulé entre la création et la soumission
+            }
+        }
+
+        /**
+         * @return false si la tâche a été annulée avant de démarrer
+         */
+        synchronized boolean start() {
+            if (isDone()) {
+                return false;
+            }
+            started = true;
+            return true;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (!cancelled) {
+                return false;
+            }
+            boolean running;
+            synchronized (this) {
+                running = started;
+            }
+            if (running) {
+                if (cancellation != null) {
+                    cancellation.cancel();
+                }
+            } else {
+                Future<?> current = task;
+                if (current != null) {
+                    current.cancel(true); // pas encore de requête : n'interrompt que l'attente d'une place
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -4,8 +4,15 @@ import com.mysql.cj.protocol.x.CompressionSplittedOutputStream;
 import ui.AdminDashboard;
 import ui.UserDashboard;
 import utils.DBConnection;
+import utils.metrics.Counter;
+import utils.metrics.Histogram;
+import utils.metrics.Metrics;
 import javax.swing.*;
 import java.sql.*;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 //Service d'authentification lors de la connexion.
 public class AuthenticationService {
@@ -13,42 +20,127 @@ public class AuthenticationService {
             "SELECT id, numero_telephone, role FROM comptes " +
                     "WHERE numero_telephone = ? AND mot_de_passe = SHA2(?, 256)";
 
+    // Métriques (JMX) : durée de la vérification des identifiants, issues des tentatives
+    private static final Histogram AUTH_TIMER = Metrics.timer("auth.authenticate");
+    private static final Counter AUTH_SUCCESSES = Metrics.counter("auth.successes");
+    private static final Counter AUTH_FAILURES = Metrics.counter("auth.failures");
+    private static final Counter AUTH_ERRORS = Metrics.counter("auth.errors");
+    private static final Counter AUTH_TIMEOUTS = Metrics.counter("auth.timeouts");
+
+    // Délai maximal d'une authentification asynchrone (surchargeable par -Dauth.timeoutMillis=...)
+    public static final long DEFAULT_TIMEOUT_MILLIS = Long.getLong("auth.timeoutMillis", 10_000);
+
     public void authenticateAndRedirect(String phoneNumber, String password, JFrame loginFrame)
             throws AuthenticationException {
+        User user = authenticate(phoneNumber, password);
+
+        // Fermer la fenêtre de login dans l'EDT
+        SwingUtilities.invokeLater(() -> {
+            loginFrame.dispose();
+            openDashboard(user);
+        });
+    }
+
+    /**
+     * Vérifie les identifiants, sans interaction avec l'interface
+     * @return l'utilisateur authentifié
+     * @throws AuthenticationException si les identifiants sont incorrects ou la base injoignable
+     */
+    public User authenticate(String phoneNumber, String password) throws AuthenticationException {
+        return authenticate(phoneNumber, password, 0);
+    }
+
+    /**
+     * Vérifie les identifiants sur un thread virtuel, avec le délai par défaut
+     * @see #authenticateAsync(String, String, Duration)
+     */
+    public CompletableFuture<User> authenticateAsync(String phoneNumber, String password) {
+        return authenticateAsync(phoneNumber, password, Duration.ofMillis(DEFAULT_TIMEOUT_MILLIS));
+    }
+
+    /**
+     * Vérifie les identifiants sur un thread virtuel.
+     * Passé le délai, le future échoue avec une AuthenticationException et la vérification est
+     * interrompue (attente d'une connexion du pool, délai de la requête côté serveur).
+     * @param timeout délai maximal, connexion à la base comprise
+     * @return future de l'utilisateur authentifié ; échoue avec une AuthenticationException
+     */
+    public CompletableFuture<User> authenticateAsync(String phoneNumber, String password, Duration timeout) {
+        if (timeout == null || timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Le délai doit être positif");
+        }
+        CompletableFuture<User> result = new CompletableFuture<>();
+        int queryTimeoutSeconds = (int) Math.max(1, (timeout.toMillis() + 999) / 1000);
+        Thread worker = Thread.ofVirtual().name("authentication").start(() -> {
+            try {
+                result.complete(authenticate(phoneNumber, password, queryTimeoutSeconds));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        CompletableFuture<User> deadline = new CompletableFuture<>();
+        result.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS).whenComplete((user, error) -> {
+            if (error == null) {
+                deadline.complete(user);
+            } else if (error instanceof TimeoutException) {
+                worker.interrupt();
+                AUTH_TIMEOUTS.increment();
+                deadline.completeExceptionally(new AuthenticationException(
+                        "Le serveur ne répond pas (délai de " + timeout.toMillis() + " ms dépassé)", error));
+            } else {
+                deadline.completeExceptionally(error);
+            }
+        });
+        return deadline;
+    }
+
+    /**
+     * Ouvre le tableau de bord correspondant au rôle (à appeler depuis l'EDT)
+     */
+    public static void openDashboard(User user) {
+        if (user.isAdmin()) {
+            System.out.println("Ouverture du dashboard admin...");
+            new AdminDashboard(user); // setVisible est déjà dans le constructeur
+        } else {
+            System.out.println("Ouverture du dashboard utilisateur...");
+            new UserDashboard(user);
+        }
+    }
+
+    // ===== MÉTHODES UTILITAIRES PRIVÉES =====
+
+    /**
+     * @param queryTimeoutSeconds délai de la requête côté serveur, 0 pour aucun
+     */
+    private User authenticate(String phoneNumber, String password, int queryTimeoutSeconds)
+            throws AuthenticationException {
+        long start = System.nanoTime();
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(AUTH_QUERY)) {
 
+            if (queryTimeoutSeconds > 0) {
+                stmt.setQueryTimeout(queryTimeoutSeconds); // remis à 0 au retour dans le cache des statements
+            }
             stmt.setString(1, phoneNumber.trim());
             stmt.setString(2, password.trim());
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    User user = new User.Builder(
-                            rs.getInt("id"),
-                            rs.getString("numero_telephone"),
-                            rs.getString("role"))
-                            .build();
-
-                    // Fermer la fenêtre de login dans l'EDT
-                    SwingUtilities.invokeLater(() -> {
-                        loginFrame.dispose();
-
-                        if (user.isAdmin()) {
-                            System.out.println("Ouverture du dashboard admin...");
-                            new AdminDashboard(user); // setVisible est déjà dans le constructeur
-                        } else {
-                            System.out.println("Ouverture du dashboard utilisateur...");
-                            new UserDashboard(user);
-                        }
-                    });
-                } else {
-                    throw new AuthenticationException("Identifiants incorrects");
+                    User user = UserRowMapper.of(rs).map(rs);
+                    AUTH_SUCCESSES.increment();
+                    return user;
                 }
+                AUTH_FAILURES.increment();
+                throw new AuthenticationException("Identifiants incorrects");
             }
         } catch (SQLException e) {
+            AUTH_ERRORS.increment();
             throw new AuthenticationException("Erreur de connexion à la base de données", e);
+        } finally {
+            AUTH_TIMER.recordSince(start);
         }
     }
+
     public static class AuthenticationException extends Exception {
         public AuthenticationException(String message) {
             super(message);
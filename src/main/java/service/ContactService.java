@@ -1,24 +1,197 @@
 package service;
 
+import dao.BatchResult;
+import dao.ContactChanges;
 import dao.ContactDAO;
+import dao.ContactPage;
+import dao.ContactSort;
+import dao.QueryCancellation;
 import models.Contact;
+import service.search.ColumnarContactStore;
+import service.search.FuzzyNameIndex;
+import service.search.TrigramIndex;
+import utils.BoundedCache;
+import utils.DBConnection;
+import utils.metrics.Histogram;
+import utils.metrics.Metrics;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 public class ContactService {
+    // Cache des contacts lus par id (surchargeable par -Dcache.contacts.xxx=...)
+    private static final int CACHE_MAX_ENTRIES = Integer.getInteger("cache.contacts.maxEntries", 10_000);
+    private static final long CACHE_TTL_SECONDS = Long.getLong("cache.contacts.ttlSeconds", 300);
+
+    // Métriques (JMX) : durée de chaque opération vue par les appelants (cache et index compris)
+    private static final Histogram GET_ALL_TIMER = Metrics.timer("service.contacts.getAll");
+    private static final Histogram STREAM_TIMER = Metrics.timer("service.contacts.streamOpen");
+    private static final Histogram SEARCH_TIMER = Metrics.timer("service.contacts.search");
+    private static final Histogram GET_IDS_TIMER = Metrics.timer("service.contacts.getIds");
+    private static final Histogram ID_RANGE_TIMER = Metrics.timer("service.contacts.findByIdRange");
+    private static final Histogram PAGE_TIMER = Metrics.timer("service.contacts.page");
+    private static final Histogram ADD_TIMER = Metrics.timer("service.contacts.add");
+    private static final Histogram ADD_BATCH_TIMER = Metrics.timer("service.contacts.addBatch");
+    private static final Histogram UPDATE_TIMER = Metrics.timer("service.contacts.update");
+    private static final Histogram UPDATE_BATCH_TIMER = Metrics.timer("service.contacts.updateBatch");
+    private static final Histogram DELETE_TIMER = Metrics.timer("service.contacts.delete");
+    private static final Histogram DELETE_BATCH_TIMER = Metrics.timer("service.contacts.deleteBatch");
+    private static final Histogram FIND_BY_ID_TIMER = Metrics.timer("service.contacts.findById");
+    private static final Histogram SEARCH_LOCAL_TIMER = Metrics.timer("service.contacts.searchLocal");
+    private static final Histogram SEARCH_FUZZY_TIMER = Metrics.timer("service.contacts.searchFuzzy");
+    private static final Histogram CHANGES_TIMER = Metrics.timer("service.contacts.changesSince");
+    private static final Histogram REBUILD_INDEX_TIMER = Metrics.timer("service.contacts.rebuildSearchIndex");
+
     private final ContactDAO contactDAO;
+    private final BoundedCache<Integer, Contact> contactCache = new BoundedCache.Builder<Integer, Contact>()
+            .maxEntries(CACHE_MAX_ENTRIES)
+            .expireAfterWrite(Duration.ofSeconds(CACHE_TTL_SECONDS))
+            .build();
+
+    // Index de recherche locale et contacts en mémoire, construits au premier usage puis tenus
+    // à jour ; null tant qu'aucune construction n'a abouti
+    private volatile LocalIndex localIndex;
+    // Écritures reçues pendant une construction, rejouées sur le nouvel index (null hors construction)
+    private List<Consumer<LocalIndex>> pendingIndexWrites;
+    private final Object indexWriteLock = new Object();
 
     public ContactService() {
         this.contactDAO = new ContactDAO();
     }
 
+    /**
+     * Service partagé de l'application (tableaux de bord, serveur HTTP) : seul son cache et son
+     * index sont publiés par les jauges service.contacts.*
+     */
+    public static ContactService defaultService() {
+        return DefaultHolder.INSTANCE;
+    }
+
     /**
      * Récupère tous les contacts depuis la base de données
      * @return Liste des contacts
      * @throws SQLException en cas d'erreur SQL
      */
     public List<Contact> getAllContacts() throws SQLException {
-        return contactDAO.getAllContacts();
+        return GET_ALL_TIMER.time(contactDAO::getAllContacts);
+    }
+
+    /**
+     * Parcourt tous les contacts en continu, sans les charger en mémoire
+     * @return flux de contacts, à fermer après usage (try-with-resources)
+     */
+    public Stream<Contact> streamAllContacts() {
+        return STREAM_TIMER.time(contactDAO::streamAllContacts);
+    }
+
+    /**
+     * Parcourt en continu les contacts correspondant à une recherche
+     * @param searchTerm terme recherché ; vide = tous les contacts
+     * @return flux de contacts, à fermer après usage (try-with-resources)
+     */
+    public Stream<Contact> streamContacts(String searchTerm) {
+        return STREAM_TIMER.time(() -> contactDAO.streamContacts(searchTerm));
+    }
+
+    /**
+     * Recherche des contacts en base (nom, postnom, téléphone)
+     * @param searchTerm terme recherché ; vide = tous les contacts
+     * @return les contacts correspondants
+     */
+    public List<Contact> searchContacts(String searchTerm) {
+        return SEARCH_TIMER.time(() -> contactDAO.searchContacts(searchTerm));
+    }
+
+    /**
+     * Recherche annulable depuis un autre thread (voir QueryCancellation)
+     * @param searchTerm terme recherché ; vide = tous les contacts
+     * @param cancellation jeton d'annulation de la requête
+     * @return les contacts correspondants ; liste vide si la recherche a été annulée
+     */
+    public List<Contact> searchContacts(String searchTerm, QueryCancellation cancellation) {
+        return SEARCH_TIMER.time(() -> contactDAO.searchContacts(searchTerm, cancellation));
+    }
+
+    /**
+     * Recherche en base limitée aux premiers résultats
+     * @param searchTerm terme recherché, non vide
+     * @param limit nombre maximal de contacts (1 à ContactDAO.MAX_PAGE_SIZE)
+     */
+    public List<Contact> searchContacts(String searchTerm, int limit) {
+        return SEARCH_TIMER.time(() -> contactDAO.searchContacts(searchTerm, limit));
+    }
+
+    /**
+     * Ids de tous les contacts, triés (squelette des tableaux paginés)
+     * @return tableau trié des ids
+     * @throws SQLException en cas d'erreur SQL
+     */
+    public int[] getContactIds() throws SQLException {
+        return GET_IDS_TIMER.time(contactDAO::getContactIds);
+    }
+
+    /**
+     * Contacts dont l'id est compris entre deux bornes incluses, triés par id
+     * @throws SQLException en cas d'erreur SQL
+     */
+    public List<Contact> findByIdRange(int fromId, int toId) throws SQLException {
+        return ID_RANGE_TIMER.time(() -> contactDAO.findByIdRange(fromId, toId));
+    }
+
+    /**
+     * Récupère une page de contacts (pagination keyset)
+     * @param sort ordre de tri
+     * @param pageToken jeton de la page précédente, ou null pour la première page
+     * @param pageSize nombre de contacts par page
+     * @return la page, avec le jeton de la suivante
+     * @throws SQLException en cas d'erreur SQL
+     */
+    public ContactPage getContactsPage(ContactSort sort, String pageToken, int pageSize) throws SQLException {
+        return PAGE_TIMER.time(() -> contactDAO.getContactsPage(sort, pageToken, pageSize));
+    }
+
+    /**
+     * Version courante de la table contacts, à mémoriser avant un chargement complet
+     * pour ne demander ensuite que les changements (changesSince)
+     * @return la version, ou -1 si la base ne la fournit pas
+     * @throws SQLException en cas d'erreur SQL
+     */
+    public long getChangeVersion() throws SQLException {
+        return contactDAO.getChangeVersion();
+    }
+
+    /**
+     * Contacts ajoutés, modifiés ou supprimés depuis une version (synchronisation incrémentale).
+     * Les changements lus, y compris ceux faits par d'autres clients, sont reportés
+     * dans le cache et l'index de recherche locale.
+     * @param version version de la synchronisation précédente
+     * @return les changements et la nouvelle version
+     * @throws SQLException en cas d'erreur SQL
+     */
+    public ContactChanges changesSince(long version) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            ContactChanges changes = contactDAO.changesSince(version);
+            // Suppressions d'abord : un id supprimé puis recréé figure dans les deux listes
+            for (int id : changes.getDeletedIds()) {
+                contactCache.invalidate(id);
+                unindexContact(id);
+            }
+            for (Contact contact : changes.getChanged()) {
+                contactCache.invalidate(contact.getId());
+                indexContact(contact);
+            }
+            return changes;
+        } finally {
+            CHANGES_TIMER.recordSince(start);
+        }
     }
 
     /**
@@ -28,7 +201,99 @@ public class ContactService {
      * @throws SQLException en cas d'erreur SQL
      */
     public boolean addContact(Contact contact) throws SQLException {
-        return contactDAO.addContact(contact);
+        long start = System.nanoTime();
+        try {
+            boolean added = contactDAO.addContact(contact);
+            if (added) {
+                contactCache.invalidate(contact.getId());
+                indexContact(contact);
+            }
+            return added;
+        } finally {
+            ADD_TIMER.recordSince(start);
+        }
+    }
+
+    /**
+     * Ajoute plusieurs contacts en lot (les ids générés sont affectés aux contacts)
+     * @param contacts les contacts à ajouter
+     * @return l'issue de chaque ligne
+     * @throws SQLException en cas d'erreur SQL
+     */
+    public BatchResult addContacts(List<Contact> contacts) throws SQLException {
+        return addContacts(contacts, ContactDAO.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Ajoute plusieurs contacts en lot, par tranches de taille donnée
+     * @param contacts les contacts à ajouter
+     * @param batchSize nombre de lignes par transaction
+     * @return l'issue de chaque ligne
+     * @throws SQLException en cas d'erreur SQL
+     */
+    public BatchResult addContacts(List<Contact> contacts, int batchSize) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            BatchResult result = contactDAO.addContacts(contacts, batchSize);
+            for (int i = 0; i < result.size(); i++) {
+                if (result.getOutcome(i) == BatchResult.RowOutcome.SUCCESS) {
+                    contactCache.invalidate(contacts.get(i).getId());
+                    indexContact(contacts.get(i));
+                }
+            }
+            return result;
+        } finally {
+            ADD_BATCH_TIMER.recordSince(start);
+        }
+    }
+
+    /**
+     * Met à jour plusieurs contacts en lot
+     * @param contacts les contacts modifiés
+     * @return l'issue de chaque ligne
+     * @throws SQLException en cas d'erreur SQL
+     */
+    public BatchResult updateContacts(List<Contact> contacts) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            BatchResult result = contactDAO.updateContacts(contacts);
+            for (int i = 0; i < result.size(); i++) {
+                if (contacts.get(i) != null) {
+                    contactCache.invalidate(contacts.get(i).getId());
+                }
+                if (result.getOutcome(i) == BatchResult.RowOutcome.SUCCESS) {
+                    indexContact(contacts.get(i));
+                }
+            }
+            return result;
+        } finally {
+            UPDATE_BATCH_TIMER.recordSince(start);
+        }
+    }
+
+    /**
+     * Supprime plusieurs contacts en lot
+     * @param ids les ids des contacts à supprimer
+     * @return l'issue de chaque id
+     * @throws SQLException en cas d'erreur SQL
+     */
+    public BatchResult deleteContacts(Collection<Integer> ids) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            List<Integer> idList = new ArrayList<>(ids);
+            BatchResult result = contactDAO.deleteContacts(idList);
+            for (int i = 0; i < result.size(); i++) {
+                if (idList.get(i) != null) {
+                    contactCache.invalidate(idList.get(i));
+                }
+                if (result.getOutcome(i) == BatchResult.RowOutcome.SUCCESS) {
+                    unindexContact(idList.get(i));
+                }
+            }
+            return result;
+        } finally {
+            DELETE_BATCH_TIMER.recordSince(start);
+        }
     }
 
     /**
@@ -38,7 +303,17 @@ public class ContactService {
      * @throws SQLException en cas d'erreur SQL
      */
     public boolean updateContact(Contact contact) throws SQLException {
-        return contactDAO.updateContact(contact);
+        long start = System.nanoTime();
+        try {
+            boolean updated = contactDAO.updateContact(contact);
+            contactCache.invalidate(contact.getId());
+            if (updated) {
+                indexContact(contact);
+            }
+            return updated;
+        } finally {
+            UPDATE_TIMER.recordSince(start);
+        }
     }
 
     /**
@@ -48,17 +323,246 @@ public class ContactService {
      * @throws SQLException en cas d'erreur SQL
      */
     public boolean deleteContact(int id) throws SQLException {
-        return contactDAO.deleteContact(id);
+        long start = System.nanoTime();
+        try {
+            boolean deleted = contactDAO.deleteContact(id);
+            contactCache.invalidate(id);
+            if (deleted) {
+                unindexContact(id);
+            }
+            return deleted;
+        } finally {
+            DELETE_TIMER.recordSince(start);
+        }
     }
 
     /**
-     * Trouve un contact par son ID
+     * Trouve un contact par son ID (lecture via le cache, puis la base si absent)
      * @param id l'ID du contact
      * @return le Contact trouvé ou null
      * @throws SQLException en cas d'erreur SQL
      */
     public Contact findById(int id) throws SQLException {
-        return contactDAO.findById(id).orElse(null);
+        return FIND_BY_ID_TIMER.time(() -> contactCache.get(id, key -> contactDAO.findById(key).orElse(null)));
+    }
+
+    /**
+     * Statistiques du cache de findById (taux de succès, évictions...)
+     * @return instantané des statistiques
+     */
+    public BoundedCache.CacheStats getContactCacheStats() {
+        return contactCache.getStats();
+    }
+
+    /**
+     * Recherche de sous-chaîne en mémoire (nom, postnom, téléphone, email), sans requête SQL.
+     * L'index est chargé depuis la base au premier appel, puis tenu à jour par les
+     * ajouts, modifications et suppressions faits via ce service.
+     * @param searchTerm terme recherché
+     * @return les contacts correspondants, triés par id
+     * @throws IllegalStateException si l'index n'a pas pu être chargé depuis la base
+     */
+    public List<Contact> searchLocal(String searchTerm) {
+        return searchLocal(searchTerm, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param limit nombre maximal de contacts (les plus petits ids)
+     */
+    public List<Contact> searchLocal(String searchTerm, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("La limite doit être positive");
+        }
+        long start = System.nanoTime();
+        try {
+            LocalIndex index = ensureSearchIndex();
+            int[] ids = index.trigrams.search(searchTerm);
+            return index.contacts.getAll(ids.length > limit ? Arrays.copyOf(ids, limit) : ids);
+        } finally {
+            SEARCH_LOCAL_TIMER.recordSince(start);
+        }
+    }
+
+    /**
+     * @return true si l'index de recherche locale est construit (les recherches locales ne lisent pas la base)
+     */
+    public boolean isSearchIndexReady() {
+        return localIndex != null;
+    }
+
+    /**
+     * Recherche approchée sur le nom et le postnom, tolérante aux fautes de frappe et
+     * d'orthographe ("Kavila Jozef" trouve "Kabila Joseph"), sans requête SQL
+     * @param searchTerm un ou plusieurs mots
+     * @return au plus {@link FuzzyNameIndex#DEFAULT_LIMIT} contacts, du plus proche au plus éloigné
+     */
+    public List<Contact> searchFuzzy(String searchTerm) {
+        return searchFuzzy(searchTerm, FuzzyNameIndex.DEFAULT_LIMIT);
+    }
+
+    public List<Contact> searchFuzzy(String searchTerm, int limit) {
+        long start = System.nanoTime();
+        try {
+            LocalIndex index = ensureSearchIndex();
+            return index.contacts.getAll(index.names.search(searchTerm, limit));
+        } finally {
+            SEARCH_FUZZY_TIMER.recordSince(start);
+        }
+    }
+
+    /**
+     * Contacts en mémoire acceptés par un filtre, sans requête SQL (parcours des colonnes)
+     * @param filter filtre sur une vue de chaque contact, valide pendant l'appel uniquement
+     * @return les contacts correspondants, triés par id
+     */
+    public List<Contact> filterLocal(Predicate<ColumnarContactStore.ContactRow> filter) {
+        ColumnarContactStore contacts = ensureSearchIndex().contacts;
+        return contacts.getAll(contacts.filter(filter));
+    }
+
+    /**
+     * Nombre de contacts en mémoire acceptés par un filtre, sans requête SQL
+     */
+    public int countLocal(Predicate<ColumnarContactStore.ContactRow> filter) {
+        return ensureSearchIndex().contacts.count(filter);
     }
 
+    /**
+     * Nombre de contacts par genre (null : genre non renseigné), sans requête SQL
+     */
+    public Map<String, Integer> countByGenre() {
+        return ensureSearchIndex().contacts.countByGenre();
+    }
+
+    /**
+     * Prépare l'affichage de la première page d'un tableau de contacts : ouvre les connexions
+     * du pool et exécute une première fois les requêtes du squelette d'ids et de la première page
+     * (requêtes préparées en cache sur la connexion utilisée, pages de la table chaudes côté
+     * serveur). Les contacts lus ne sont pas gardés : le tableau relit sa première page.
+     * @param pageSize taille de la première page
+     */
+    public void warmUp(int pageSize) {
+        try {
+            DBConnection.warmUp();
+        } catch (SQLException e) {
+            System.err.println("Préchauffage des connexions impossible: " + e.getMessage());
+            return;
+        }
+        int[] ids = contactDAO.getContactIds();
+        if (ids.length > 0) {
+            contactDAO.findByIdRange(ids[0], ids[Math.min(pageSize, ids.length) - 1]);
+        }
+    }
+
+    /**
+     * Recharge entièrement l'index de recherche locale depuis la base. Le nouvel index est
+     * construit à part et ne remplace l'actuel qu'une fois tous les contacts lus : les
+     * recherches concurrentes utilisent l'ancien, et un échec de lecture le laisse en place.
+     * Les ajouts, modifications et suppressions faits pendant la construction y sont rejoués.
+     * @throws IllegalStateException si les contacts n'ont pas pu être lus
+     */
+    public synchronized void rebuildSearchIndex() {
+        long start = System.nanoTime();
+        synchronized (indexWriteLock) {
+            pendingIndexWrites = new ArrayList<>();
+        }
+        try {
+            LocalIndex rebuilt = new LocalIndex();
+            try (Stream<Contact> contacts = contactDAO.streamAllContacts()) {
+                contacts.forEach(rebuilt::put);
+            }
+            synchronized (indexWriteLock) {
+                pendingIndexWrites.forEach(write -> write.accept(rebuilt));
+                localIndex = rebuilt;
+            }
+        } finally {
+            synchronized (indexWriteLock) {
+                pendingIndexWrites = null;
+            }
+            REBUILD_INDEX_TIMER.recordSince(start);
+        }
+    }
+
+    // ===== MÉTHODES UTILITAIRES PRIVÉES =====
+
+    private LocalIndex ensureSearchIndex() {
+        LocalIndex index = localIndex;
+        if (index == null) {
+            synchronized (this) {
+                if (localIndex == null) {
+                    rebuildSearchIndex();
+                }
+                index = localIndex;
+            }
+        }
+        return index;
+    }
+
+    private void indexContact(Contact contact) {
+        applyIndexWrite(index -> index.put(contact));
+    }
+
+    private void unindexContact(int id) {
+        applyIndexWrite(index -> index.remove(id));
+    }
+
+    /**
+     * Applique une écriture à l'index courant, et la garde pour l'index en construction
+     */
+    private void applyIndexWrite(Consumer<LocalIndex> write) {
+        synchronized (indexWriteLock) {
+            if (pendingIndexWrites != null) {
+                pendingIndexWrites.add(write);
+            }
+            LocalIndex index = localIndex;
+            if (index != null) {
+                write.accept(index);
+            }
+        }
+    }
+
+    private void registerGauges() {
+        Metrics.gauge("service.contacts.cache.size", () -> contactCache.getStats().size());
+        Metrics.gauge("service.contacts.cache.hitRatio", () -> contactCache.getStats().hitRatio());
+        Metrics.gauge("service.contacts.local.bytes", () -> {
+            LocalIndex index = localIndex;
+            return index == null ? 0 : index.contacts.getMemoryBytes();
+        });
+    }
+
+    private static final class DefaultHolder {
+        private static final ContactService INSTANCE = new ContactService();
+
+        static {
+            INSTANCE.registerGauges();
+        }
+    }
+
+    /**
+     * Contacts en mémoire (colonnes) et leurs index de recherche (trigrammes, noms approchés).
+     * Les index relisent les textes dans les colonnes : ils n'en gardent pas de copie.
+     */
+    private static final class LocalIndex {
+        final ColumnarContactStore contacts = new ColumnarContactStore();
+        final TrigramIndex trigrams = new TrigramIndex(id -> contacts.read(id, row -> new String[]{
+                row.getNom(), row.getPostnom(), row.getNumeroTelephone(), row.getEmail()}));
+        final FuzzyNameIndex names = new FuzzyNameIndex(id -> contacts.read(id, row -> new String[]{
+                row.getNom(), row.getPostnom()}));
+
+        void put(Contact contact) {
+            int id = contact.getId();
+            // Retrait d'après l'ancien texte, tant qu'il est encore dans les colonnes
+            trigrams.remove(id);
+            names.remove(id);
+            contacts.put(contact);
+            trigrams.put(id);
+            names.put(id);
+        }
+
+        void remove(int id) {
+            trigrams.remove(id);
+            names.remove(id);
+            contacts.remove(id);
+        }
+    }
 }
@@ -34,16 +34,17 @@ public final class User {
 
     /**
      * Constructeur privé utilisé par le Builder.
+     * @param validate false pour des données déjà validées (lues depuis la base)
      */
-    private User(Builder builder) {
+    private User(Builder builder, boolean validate) {
         this.id = builder.id;
-        this.phoneNumber = validatePhone(builder.phoneNumber);
-        this.role = validateRole(builder.role);
-        this.lastName = validateName(builder.lastName, "Nom");
-        this.firstName = validateName(builder.firstName, "Prénom");
-        this.email = validateEmail(builder.email);
-        this.gender = validateGender(builder.gender);
-        this.address = validateAddress(builder.address);
+        this.phoneNumber = validate ? validatePhone(builder.phoneNumber) : builder.phoneNumber;
+        this.role = validateRole(builder.role); // toujours normalisé : isAdmin() en dépend
+        this.lastName = validate ? validateName(builder.lastName, "Nom") : builder.lastName;
+        this.firstName = validate ? validateName(builder.firstName, "Prénom") : builder.firstName;
+        this.email = validate ? validateEmail(builder.email) : builder.email;
+        this.gender = validate ? validateGender(builder.gender) : builder.gender;
+        this.address = validate ? validateAddress(builder.address) : builder.address;
         this.birthDate = builder.birthDate;
         this.profilePicture = builder.profilePicture;
         this.creationDate = builder.creationDate != null ? builder.creationDate : LocalDateTime.now();
@@ -225,7 +226,15 @@ public final class User {
         }
 
         public User build() {
-            return new User(this);
+            return new User(this, true);
+        }
+
+        /**
+         * Construit sans revalider ni normaliser : réservé aux lignes lues depuis la base,
+         * validées lors de leur écriture (voir UserRowMapper).
+         */
+        User buildTrusted() {
+            return new User(this, false);
         }
     }
 }
\ No newline at end of file
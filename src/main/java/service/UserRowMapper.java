@@ -0,0 +1,77 @@
+package service;
+
+import dao.ColumnIndexes;
+import dao.RowMapper;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Mapping ResultSet → User par index de colonne, résolus une fois par résultat.
+ * Seuls id, numero_telephone et role sont obligatoires ; les autres colonnes de la table
+ * comptes sont lues si la requête les sélectionne. L'utilisateur est construit sans
+ * revalidation (données déjà validées à l'écriture).
+ */
+public final class UserRowMapper implements RowMapper<User> {
+    private final int id;
+    private final int phoneNumber;
+    private final int role;
+    // Colonnes optionnelles : 0 si absentes du résultat
+    private final int lastName;
+    private final int firstName;
+    private final int email;
+    private final int gender;
+    private final int address;
+    private final int birthDate;
+    private final int profilePicture;
+    private final int creationDate;
+    private final int lastLogin;
+
+    private UserRowMapper(ColumnIndexes columns) throws SQLException {
+        this.id = columns.required("id");
+        this.phoneNumber = columns.required("numero_telephone");
+        this.role = columns.required("role");
+        this.lastName = columns.optional("nom");
+        this.firstName = columns.optional("prenom");
+        this.email = columns.optional("email");
+        this.gender = columns.optional("genre");
+        this.address = columns.optional("adresse");
+        this.birthDate = columns.optional("date_naissance");
+        this.profilePicture = columns.optional("photo_profil");
+        this.creationDate = columns.optional("date_creation");
+        this.lastLogin = columns.optional("derniere_connexion");
+    }
+
+    /**
+     * Prépare le mapping pour les colonnes de ce résultat.
+     */
+    public static UserRowMapper of(ResultSet rs) throws SQLException {
+        return new UserRowMapper(new ColumnIndexes(rs.getMetaData()));
+    }
+
+    @Override
+    public User map(ResultSet rs) throws SQLException {
+        User.Builder builder = new User.Builder(rs.getInt(id), rs.getString(phoneNumber), rs.getString(role));
+        if (lastName != 0) builder.lastName(rs.getString(lastName));
+        if (firstName != 0) builder.firstName(rs.getString(firstName));
+        if (email != 0) builder.email(rs.getString(email));
+        if (gender != 0) builder.gender(rs.getString(gender));
+        if (address != 0) builder.address(rs.getString(address));
+        if (birthDate != 0) {
+            Date date = rs.getDate(birthDate);
+            builder.birthDate(date != null ? date.toLocalDate() : null);
+        }
+        if (profilePicture != 0) builder.profilePicture(rs.getString(profilePicture));
+        if (creationDate != 0) {
+            Timestamp created = rs.getTimestamp(creationDate);
+            builder.creationDate(created != null ? created.toLocalDateTime() : null);
+        }
+        if (lastLogin != 0) {
+            Timestamp login = rs.getTimestamp(lastLogin);
+            builder.lastLogin(login != null ? login.toLocalDateTime() : null);
+        }
+        return builder.buildTrusted();
+    }
+}
@@ -0,0 +1,125 @@
+package service.photo;
+
+import dao.PhotoDAO;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Locale;
+
+/**
+ * Photos des contacts : enregistrement avec leur vignette, et lecture pour l'affichage.
+ * <p>
+ * La vignette (carré central de {@link #STORED_THUMBNAIL_SIZE} pixels, en JPEG) est calculée
+ * une seule fois à l'enregistrement : les tableaux ne transfèrent et ne décodent que quelques Ko
+ * par photo, au lieu de l'image d'origine.
+ */
+public class PhotoService {
+    // Côté de la vignette enregistrée : couvre les miniatures des tableaux, écrans HiDPI compris
+    public static final int STORED_THUMBNAIL_SIZE = 128;
+    private static final float THUMBNAIL_QUALITY = 0.85f;
+
+    private final PhotoDAO photoDAO;
+
+    public PhotoService() {
+        this.photoDAO = new PhotoDAO();
+    }
+
+    /**
+     * Enregistre une photo et sa vignette
+     * @return l'id de la photo, à placer dans photo_contact ; 0 en cas d'échec
+     * @throws IllegalArgumentException si le contenu n'est pas une image lisible
+     */
+    public int addPhoto(byte[] content) {
+        if (content == null || content.length == 0) {
+            throw new IllegalArgumentException("Le contenu de la photo est obligatoire");
+        }
+        try {
+            String mimeType = mimeTypeOf(content);
+            if (mimeType == null) {
+                throw new IllegalArgumentException("Format d'image non reconnu");
+            }
+            return photoDAO.addPhoto(content, mimeType, encodeThumbnail(content));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Image illisible: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return le contenu d'origine de la photo, ou null
+     */
+    public byte[] getPhoto(int photoId) {
+        return photoDAO.findContent(photoId);
+    }
+
+    /**
+     * Contenu à décoder pour une miniature : la vignette si elle suffit, sinon l'original
+     * @param size côté de la miniature, en pixels
+     */
+    public byte[] readForThumbnail(int photoId, int size) {
+        return size <= STORED_THUMBNAIL_SIZE ? photoDAO.findThumbnail(photoId) : photoDAO.findContent(photoId);
+    }
+
+    public boolean deletePhoto(int photoId) {
+        return photoDAO.deletePhoto(photoId);
+    }
+
+    // ===== MÉTHODES UTILITAIRES PRIVÉES =====
+
+    private static String mimeTypeOf(byte[] content) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(content))) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                String[] mimeTypes = reader.getOriginatingProvider().getMIMETypes();
+                return mimeTypes != null && mimeTypes.length > 0 ? mimeTypes[0]
+                        : "image/" + reader.getFormatName().toLowerCase(Locale.ROOT);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static byte[] encodeThumbnail(byte[] content) throws IOException {
+        BufferedImage square = PhotoThumbnailCache.decodeSquare(content, STORED_THUMBNAIL_SIZE);
+        if (square == null) {
+            return null;
+        }
+        // JPEG sans transparence : fond opaque
+        BufferedImage thumbnail = new BufferedImage(STORED_THUMBNAIL_SIZE, STORED_THUMBNAIL_SIZE,
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = thumbnail.createGraphics();
+        try {
+            g.drawImage(PhotoThumbnailCache.draw(square, STORED_THUMBNAIL_SIZE, false), 0, 0, Color.WHITE, null);
+        } finally {
+            g.dispose();
+        }
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(THUMBNAIL_QUALITY);
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(thumbnail, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
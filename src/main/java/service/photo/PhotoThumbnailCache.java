@@ -0,0 +1,370 @@
+package service.photo;
+
+import utils.BoundedCache;
+import utils.metrics.Counter;
+import utils.metrics.Histogram;
+import utils.metrics.Metrics;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Miniatures des photos de contacts, prêtes à peindre.
+ * <p>
+ * Les photos sont lues (la vignette enregistrée avec la photo, voir {@link PhotoService})
+ * et décodées sur des threads de fond, directement à une taille proche de la miniature
+ * (sous-échantillonnage au décodage), puis recadrées en carré, réduites et arrondies.
+ * Les miniatures sont gardées dans un cache LRU borné en octets ; le thread Swing ne fait
+ * que lire le cache et peindre.
+ * <pre>
+ * BufferedImage thumbnail = cache.get(photoId, 52, table::repaint); // null : pas encore prête
+ * </pre>
+ * Les demandes en attente sont traitées de la plus récente à la plus ancienne (les lignes
+ * visibles d'abord lors d'un défilement rapide), et les plus anciennes sont abandonnées au-delà
+ * d'une limite. Le contenu d'une photo ne change pas pour un id donné (une nouvelle photo
+ * reçoit un nouvel id) : une miniature n'est jamais périmée.
+ */
+public class PhotoThumbnailCache implements AutoCloseable {
+    // Mémoire des miniatures et nombre de threads de décodage (surchargeables par -Dphoto.cache.xxx=...)
+    private static final long DEFAULT_MAX_BYTES = Long.getLong("photo.cache.maxBytes", 32L * 1024 * 1024);
+    private static final int DEFAULT_DECODE_THREADS = Integer.getInteger("photo.cache.decodeThreads",
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2)));
+    // Demandes en attente de décodage au-delà desquelles les plus anciennes sont abandonnées
+    private static final int MAX_PENDING = 256;
+    // Une photo absente ou illisible n'est redemandée qu'après ce délai
+    private static final Duration MISSING_TTL = Duration.ofSeconds(60);
+    // Garde contre les images démesurées (en-tête forgé) : au-delà, la photo est refusée
+    private static final long MAX_SOURCE_PIXELS = 100_000_000L;
+
+    // Métriques (JMX) : lecture et décodage d'une photo, demandes abandonnées
+    private static final Histogram DECODE_TIMER = Metrics.timer("photo.decode");
+    private static final Counter DECODE_ERRORS = Metrics.counter("photo.decode.errors");
+    private static final Counter DROPPED = Metrics.counter("photo.decode.dropped");
+
+    private final PhotoSource source;
+    private final BoundedCache<Long, BufferedImage> thumbnails;
+    private final BoundedCache<Long, Boolean> missing;
+    private final Map<Long, CompletableFuture<BufferedImage>> inFlight = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor decoder;
+
+    private PhotoThumbnailCache(Builder builder) {
+        this.source = builder.source;
+        this.thumbnails = new BoundedCache.Builder<Long, BufferedImage>()
+                .maxEntries(Integer.MAX_VALUE)
+                .maxWeight(builder.maxBytes, image -> image.getWidth() * image.getHeight() * Integer.BYTES)
+                .build();
+        this.missing = new BoundedCache.Builder<Long, Boolean>()
+                .maxEntries(10_000)
+                .expireAfterWrite(MISSING_TTL)
+                .build();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.decoder = new ThreadPoolExecutor(builder.decodeThreads, builder.decodeThreads,
+                0, TimeUnit.MILLISECONDS, new LifoQueue(MAX_PENDING), task -> {
+                    Thread thread = new Thread(task, "photo-decode-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                });
+    }
+
+    /**
+     * Cache partagé de l'application, lisant les vignettes en base ; seul publié par les jauges photo.thumbnails.*
+     */
+    public static PhotoThumbnailCache defaultCache() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * Miniature si elle est prête ; sinon son chargement est lancé en arrière-plan
+     * @param size côté de la miniature, en pixels
+     * @param onReady appelé (sur un thread de décodage) quand la miniature devient disponible
+     * @return la miniature, ou null si elle n'est pas prête ou si la photo est absente
+     */
+    public BufferedImage get(int photoId, int size, Runnable onReady) {
+        if (photoId <= 0) {
+            return null;
+        }
+        long key = key(photoId, size);
+        BufferedImage thumbnail = thumbnails.getIfPresent(key);
+        if (thumbnail == null && missing.getIfPresent(key) == null) {
+            load(key, photoId, size).thenAccept(image -> {
+                if (image != null && onReady != null) {
+                    onReady.run();
+                }
+            });
+        }
+        return thumbnail;
+    }
+
+    /**
+     * Charge une miniature (depuis le cache si possible)
+     * @return un future de la miniature, complété par null si la photo est absente ou illisible
+     */
+    public CompletableFuture<BufferedImage> load(int photoId, int size) {
+        if (photoId <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long key = key(photoId, size);
+        BufferedImage thumbnail = thumbnails.getIfPresent(key);
+        if (thumbnail != null || missing.getIfPresent(key) != null) {
+            return CompletableFuture.completedFuture(thumbnail);
+        }
+        return load(key, photoId, size);
+    }
+
+    /**
+     * Statistiques du cache de miniatures (poids = octets occupés)
+     */
+    public BoundedCache.CacheStats getStats() {
+        return thumbnails.getStats();
+    }
+
+    public void invalidateAll() {
+        thumbnails.invalidateAll();
+        missing.invalidateAll();
+    }
+
+    /**
+     * Arrête les threads de décodage ; les demandes en attente ne sont pas traitées
+     */
+    @Override
+    public void close() {
+        decoder.shutdownNow();
+    }
+
+    /**
+     * Lecture du contenu d'une photo
+     */
+    @FunctionalInterface
+    public interface PhotoSource {
+        /**
+         * @param size côté de la miniature qui sera calculée (pour choisir la vignette ou l'original)
+         * @return les octets de l'image, ou null si elle est absente ou illisible
+         */
+        byte[] load(int photoId, int size);
+    }
+
+    /**
+     * Décode une image directement à une taille proche de la miniature, puis la recadre
+     * en carré, la réduit et l'arrondit
+     * @return la miniature (size x size, fond transparent hors du disque), ou null si le
+     *         format n'est pas reconnu
+     */
+    public static BufferedImage decodeThumbnail(byte[] content, int size) throws IOException {
+        BufferedImage square = decodeSquare(content, size);
+        return square == null ? null : draw(square, size, true);
+    }
+
+    /**
+     * Décode le carré central d'une image, réduit à une taille comprise entre size et 2 x size
+     * @return l'image réduite, ou null si le format n'est pas reconnu
+     */
+    static BufferedImage decodeSquare(byte[] content, int size) throws IOException {
+        if (size <= 0) {
+            throw new IllegalArgumentException("La taille de la miniature doit être positive");
+        }
+        try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(content))) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_SOURCE_PIXELS) {
+                    throw new IOException("Image trop grande (" + width + "x" + height + ")");
+                }
+                // Carré central, décodé une ligne et une colonne sur "step" : le décodeur ne
+                // produit jamais l'image en pleine résolution
+                int side = Math.min(width, height);
+                int step = Math.max(1, side / (size * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceRegion(new Rectangle((width - side) / 2, (height - side) / 2, side, side));
+                param.setSourceSubsampling(step, step, 0, 0);
+                BufferedImage current = reader.read(0, param);
+                // Réductions successives de moitié : une seule réduction bilinéaire importante crénelle l'image
+                while (current.getWidth() >= size * 4) {
+                    current = draw(current, current.getWidth() / 2, false);
+                }
+                return current;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // ===== MÉTHODES UTILITAIRES PRIVÉES =====
+
+    private CompletableFuture<BufferedImage> load(long key, int photoId, int size) {
+        CompletableFuture<BufferedImage> future = new CompletableFuture<>();
+        CompletableFuture<BufferedImage> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            return existing;
+        }
+        future.whenComplete((image, error) -> inFlight.remove(key, future));
+        try {
+            decoder.execute(new DecodeTask(key, photoId, size, future));
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e); // cache fermé
+        }
+        return future;
+    }
+
+    private BufferedImage decode(long key, int photoId, int size) {
+        long start = System.nanoTime();
+        try {
+            byte[] content = source.load(photoId, size);
+            BufferedImage thumbnail = content == null ? null : decodeThumbnail(content, size);
+            if (thumbnail == null) {
+                missing.put(key, Boolean.TRUE);
+                return null;
+            }
+            thumbnails.put(key, thumbnail);
+            return thumbnail;
+        } catch (IOException | RuntimeException e) {
+            DECODE_ERRORS.increment();
+            System.err.println("Photo " + photoId + " illisible: " + e.getMessage());
+            missing.put(key, Boolean.TRUE);
+            return null;
+        } finally {
+            DECODE_TIMER.recordSince(start);
+        }
+    }
+
+    /**
+     * Redimensionne une image carrée ; avec disc, seul le disque inscrit reste opaque
+     */
+    static BufferedImage draw(BufferedImage image, int size, boolean disc) {
+        BufferedImage result = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = result.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            if (disc) {
+                g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                g.fillOval(0, 0, size, size);
+                g.setComposite(AlphaComposite.SrcIn);
+            }
+            g.drawImage(image, 0, 0, size, size, null);
+        } finally {
+            g.dispose();
+        }
+        return result;
+    }
+
+    private static long key(int photoId, int size) {
+        return ((long) photoId << 32) | (size & 0xFFFFFFFFL);
+    }
+
+    private final class DecodeTask implements Runnable {
+        private final long key;
+        private final int photoId;
+        private final int size;
+        private final CompletableFuture<BufferedImage> future;
+
+        DecodeTask(long key, int photoId, int size, CompletableFuture<BufferedImage> future) {
+            this.key = key;
+            this.photoId = photoId;
+            this.size = size;
+            this.future = future;
+        }
+
+        @Override
+        public void run() {
+            if (!future.isDone()) {
+                future.complete(decode(key, photoId, size));
+            }
+        }
+
+        void drop() {
+            DROPPED.increment();
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * File des demandes de décodage : la plus récente est servie en premier, la plus ancienne
+     * est abandonnée quand la file est pleine
+     */
+    private static final class LifoQueue extends LinkedBlockingDeque<Runnable> {
+        LifoQueue(int capacity) {
+            super(capacity);
+        }
+
+        @Override
+        public boolean offer(Runnable task) {
+            while (!offerFirst(task)) {
+                Runnable oldest = pollLast();
+                if (oldest instanceof PhotoThumbnailCache.DecodeTask dropped) {
+                    dropped.drop();
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class DefaultHolder {
+        private static final PhotoThumbnailCache INSTANCE = new Builder(new PhotoService()::readForThumbnail).build();
+
+        static {
+            Metrics.gauge("photo.thumbnails.bytes", () -> INSTANCE.thumbnails.getStats().weight());
+            Metrics.gauge("photo.thumbnails.hitRatio", () -> INSTANCE.thumbnails.getStats().hitRatio());
+        }
+    }
+
+    // ==================== BUILDER CLASS ====================
+
+    public static class Builder {
+        private final PhotoSource source;
+        private long maxBytes = DEFAULT_MAX_BYTES;
+        private int decodeThreads = DEFAULT_DECODE_THREADS;
+
+        public Builder(PhotoSource source) {
+            this.source = source;
+        }
+
+        /**
+         * Mémoire maximale occupée par les miniatures (4 octets par pixel)
+         */
+        public Builder maxBytes(long maxBytes) {
+            this.maxBytes = maxBytes;
+            return this;
+        }
+
+        public Builder decodeThreads(int decodeThreads) {
+            this.decodeThreads = decodeThreads;
+            return this;
+        }
+
+        public PhotoThumbnailCache build() {
+            if (source == null) {
+                throw new IllegalArgumentException("La source des photos est obligatoire");
+            }
+            if (maxBytes <= 0 || decodeThreads <= 0) {
+                throw new IllegalArgumentException("La mémoire et le nombre de threads doivent être positifs");
+            }
+            return new PhotoThumbnailCache(this);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package service.search;
+
+import java.util.Arrays;
+
+/**
+ * Automate de Levenshtein borné : reconnaît les mots à au plus k modifications d'un motif
+ * (insertion, suppression, substitution, ou inversion de deux lettres voisines).
+ * <p>
+ * L'automate est simulé lettre par lettre sur la bande des 2k+1 diagonales : les états hors
+ * de la bande ne peuvent plus accepter, et la lecture s'arrête dès qu'aucun état actif n'est
+ * à k modifications ou moins. Un mot trop éloigné est ainsi rejeté après quelques lettres.
+ * Une instance réutilise ses tableaux : elle n'est pas partagée entre threads.
+ */
+public final class BoundedLevenshtein {
+    private final String pattern;
+    private final int maxDistance;
+    // Trois lignes de la matrice des distances (i-2, i-1, i), réutilisées
+    private int[] previous2;
+    private int[] previous;
+    private int[] current;
+
+    /**
+     * @param pattern motif (mot recherché)
+     * @param maxDistance nombre maximal de modifications acceptées (k)
+     */
+    public BoundedLevenshtein(String pattern, int maxDistance) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Le motif est obligatoire");
+        }
+        if (maxDistance < 0) {
+            throw new IllegalArgumentException("La distance maximale doit être positive");
+        }
+        this.pattern = pattern;
+        this.maxDistance = maxDistance;
+        this.previous2 = new int[pattern.length() + 1];
+        this.previous = new int[pattern.length() + 1];
+        this.current = new int[pattern.length() + 1];
+    }
+
+    public String getPattern() { return pattern; }
+    public int getMaxDistance() { return maxDistance; }
+
+    /**
+     * @return true si le mot est à au plus maxDistance modifications du motif
+     */
+    public boolean matches(CharSequence word) {
+        return distance(word) <= maxDistance;
+    }
+
+    /**
+     * @return la distance entre le mot et le motif, ou maxDistance + 1 si elle dépasse la borne
+     */
+    public int distance(CharSequence word) {
+        int m = pattern.length();
+        int n = word.length();
+        int k = maxDistance;
+        int rejected = k + 1;
+        if (Math.abs(m - n) > k) {
+            return rejected;
+        }
+        // Ligne 0 : motif contre le mot vide
+        Arrays.fill(previous2, rejected);
+        Arrays.fill(previous, rejected);
+        for (int i = 0; i <= Math.min(m, k); i++) {
+            previous[i] = i;
+        }
+
+        for (int j = 1; j <= n; j++) {
+            char c = word.charAt(j - 1);
+            int from = Math.max(1, j - k);
+            int to = Math.min(m, j + k);
+            current[from - 1] = from == 1 ? Math.min(j, rejected) : rejected;
+            int best = current[from - 1];
+            for (int i = from; i <= to; i++) {
+                char p = pattern.charAt(i - 1);
+                int value = Math.min(previous[i - 1] + (p == c ? 0 : 1),
+                        Math.min(previous[i], current[i - 1]) + 1);
+                if (i > 1 && j > 1 && p == word.charAt(j - 2) && pattern.charAt(i - 2) == c) {
+                    value = Math.min(value, previous2[i - 2] + 1); // inversion de deux lettres
+                }
+                current[i] = Math.min(value, rejected);
+                best = Math.min(best, current[i]);
+            }
+            if (to < m) {
+                current[to + 1] = rejected;
+            }
+            if (best > k) {
+                return rejected; // plus aucun état acceptable
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[m];
+    }
+}
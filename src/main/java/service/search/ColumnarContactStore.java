@@ -0,0 +1,563 @@
+package service.search;
+
+import models.Contact;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Contacts en mémoire, rangés par colonnes dans des tableaux primitifs.
+ * <p>
+ * Un contact occupe une ligne (slot) de chaque colonne : id et photo dans des int[], genre
+ * codé par dictionnaire (short[] : quelques valeurs répétées), et ses textes à la suite dans
+ * un tableau d'octets partagé (l'arène), en UTF-8 précédés de leur longueur : une seule
+ * position (int) par contact.
+ * Aucun objet n'est conservé par contact : environ 3 fois moins de mémoire qu'une
+ * {@code Map<Integer, Contact>}, et des parcours (filtres, comptages) sur des tableaux contigus.
+ * <p>
+ * {@link #get(int)} reconstruit un Contact à la demande ; les parcours (count, filter) passent
+ * une vue {@link ContactRow} réutilisée, qui ne décode que les champs lus par le filtre.
+ */
+public class ColumnarContactStore {
+    private static final int INITIAL_CAPACITY = 1024;
+    // Champs texte d'un enregistrement, dans l'ordre de l'arène ; chacun est précédé de
+    // sa longueur + 1 en varint (0 pour null)
+    private static final int NOM = 0;
+    private static final int POSTNOM = 1;
+    private static final int EMAIL = 2;
+    private static final int TELEPHONE = 3;
+    private static final int ADRESSE = 4;
+    private static final int STRING_COLUMNS = 5;
+    // L'arène est compactée quand plus de la moitié de son contenu n'est plus référencé
+    private static final int MIN_COMPACT_BYTES = 1 << 20;
+
+    private int[] ids = new int[INITIAL_CAPACITY];           // 0 : slot libre
+    private int[] recordOffsets = new int[INITIAL_CAPACITY];  // position des textes dans l'arène
+    private short[] genreCodes = new short[INITIAL_CAPACITY]; // 0 : null
+    private int[] photos = new int[INITIAL_CAPACITY];
+    private int[] compteIds = new int[INITIAL_CAPACITY];
+    private int slotCount;                                    // slots utilisés ou libérés
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private final IntIntMap slotsById = new IntIntMap();
+
+    private byte[] arena = new byte[INITIAL_CAPACITY * 64];
+    private int arenaSize;
+    private int garbageBytes;
+
+    // Dictionnaire du genre : code → valeur (le code 0 est réservé à null)
+    private final List<String> genreValues = new ArrayList<>(List.of(""));
+    private final Map<String, Short> genreCodesByValue = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Ajoute ou remplace un contact (id strictement positif)
+     */
+    public void put(Contact contact) {
+        int id = contact.getId();
+        if (id <= 0) {
+            throw new IllegalArgumentException("Id de contact invalide: " + id);
+        }
+        byte[][] encoded = new byte[STRING_COLUMNS][];
+        encoded[NOM] = encode(contact.getNom());
+        encoded[POSTNOM] = encode(contact.getPostnom());
+        encoded[EMAIL] = encode(contact.getEmail());
+        encoded[TELEPHONE] = encode(contact.getNumeroTelephone());
+        encoded[ADRESSE] = encode(contact.getAdresse());
+
+        lock.writeLock().lock();
+        try {
+            int slot = slotsById.get(id);
+            if (slot < 0) {
+                slot = allocateSlot();
+                ids[slot] = id;
+                slotsById.put(id, slot);
+            } else {
+                garbageBytes += recordLength(recordOffsets[slot]);
+            }
+            recordOffsets[slot] = append(encoded);
+            genreCodes[slot] = genreCode(contact.getGenre());
+            photos[slot] = contact.getPhotoContact();
+            compteIds[slot] = contact.getCompteId();
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return true si le contact était présent
+     */
+    public boolean remove(int id) {
+        lock.writeLock().lock();
+        try {
+            int slot = slotsById.remove(id);
+            if (slot < 0) {
+                return false;
+            }
+            garbageBytes += recordLength(recordOffsets[slot]);
+            ids[slot] = 0;
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+            }
+            freeSlots[freeCount++] = slot;
+            compactIfNeeded();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            Arrays.fill(ids, 0, slotCount, 0);
+            slotCount = 0;
+            freeCount = 0;
+            slotsById.clear();
+            arenaSize = 0;
+            garbageBytes = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return une copie du contact (modifiable, indépendante du stockage), ou null s'il est absent
+     */
+    public Contact get(int id) {
+        lock.readLock().lock();
+        try {
+            int slot = slotsById.get(id);
+            return slot < 0 ? null : materialize(slot);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lit quelques champs d'un contact sans reconstruire le Contact (seuls les textes lus sont décodés)
+     * @param reader reçoit la vue du contact, valide pendant l'appel seulement
+     * @return le résultat du lecteur, ou null si le contact est absent
+     */
+    public <T> T read(int id, Function<ContactRow, T> reader) {
+        lock.readLock().lock();
+        try {
+            int slot = slotsById.get(id);
+            return slot < 0 ? null : reader.apply(new Row().at(slot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return les contacts présents parmi les ids demandés, dans le même ordre
+     */
+    public List<Contact> getAll(int[] contactIds) {
+        List<Contact> contacts = new ArrayList<>(contactIds.length);
+        lock.readLock().lock();
+        try {
+            for (int id : contactIds) {
+                int slot = slotsById.get(id);
+                if (slot >= 0) {
+                    contacts.add(materialize(slot));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return contacts;
+    }
+
+    /**
+     * Nombre de contacts acceptés par un filtre
+     */
+    public int count(Predicate<ContactRow> filter) {
+        int count = 0;
+        lock.readLock().lock();
+        try {
+            Row row = new Row();
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (ids[slot] != 0 && filter.test(row.at(slot))) {
+                    count++;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return count;
+    }
+
+    /**
+     * @return ids triés des contacts acceptés par un filtre
+     */
+    public int[] filter(Predicate<ContactRow> filter) {
+        int[] matches = new int[64];
+        int count = 0;
+        lock.readLock().lock();
+        try {
+            Row row = new Row();
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (ids[slot] != 0 && filter.test(row.at(slot))) {
+                    if (count == matches.length) {
+                        matches = Arrays.copyOf(matches, count * 2);
+                    }
+                    matches[count++] = ids[slot];
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        int[] sorted = Arrays.copyOf(matches, count);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * Nombre de contacts par genre, par simple parcours des codes du dictionnaire
+     * (sans décoder aucun texte). Les contacts sans genre sont comptés sous la clé null.
+     */
+    public Map<String, Integer> countByGenre() {
+        lock.readLock().lock();
+        try {
+            int[] counts = new int[genreValues.size()];
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (ids[slot] != 0) {
+                    counts[genreCodes[slot]]++;
+                }
+            }
+            Map<String, Integer> result = new LinkedHashMap<>();
+            for (int code = 0; code < counts.length; code++) {
+                if (counts[code] > 0) {
+                    result.put(code == 0 ? null : genreValues.get(code), counts[code]);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return mémoire occupée par les colonnes, l'arène et l'index des ids (en octets, approximative)
+     */
+    public long getMemoryBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) ids.length * (Integer.BYTES * 4 + Short.BYTES)
+                    + arena.length + slotsById.getMemoryBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Vue d'un contact pendant un parcours. Valide uniquement pendant l'appel du filtre :
+     * la même instance passe d'un contact au suivant. Les textes sont décodés à la lecture.
+     */
+    public interface ContactRow {
+        int getId();
+        String getNom();
+        String getPostnom();
+        String getEmail();
+        String getNumeroTelephone();
+        String getGenre();
+        String getAdresse();
+        int getPhotoContact();
+        int getCompteId();
+    }
+
+    // ===== MÉTHODES UTILITAIRES PRIVÉES =====
+
+    private final class Row implements ContactRow {
+        private int slot;
+
+        Row at(int slot) {
+            this.slot = slot;
+            return this;
+        }
+
+        @Override public int getId() { return ids[slot]; }
+        @Override public String getNom() { return string(slot, NOM); }
+        @Override public String getPostnom() { return string(slot, POSTNOM); }
+        @Override public String getEmail() { return string(slot, EMAIL); }
+        @Override public String getNumeroTelephone() { return string(slot, TELEPHONE); }
+        @Override public String getGenre() { return genre(slot); }
+        @Override public String getAdresse() { return string(slot, ADRESSE); }
+        @Override public int getPhotoContact() { return photos[slot]; }
+        @Override public int getCompteId() { return compteIds[slot]; }
+    }
+
+    private Contact materialize(int slot) {
+        return new Contact(ids[slot], string(slot, NOM), string(slot, POSTNOM), string(slot, EMAIL),
+                string(slot, TELEPHONE), genre(slot), string(slot, ADRESSE), photos[slot], compteIds[slot]);
+    }
+
+    private String string(int slot, int column) {
+        int offset = recordOffsets[slot];
+        // Saut des champs précédents
+        for (int i = 0; i < column; i++) {
+            int lengthPlusOne = readVarint(offset);
+            offset += varintSize(lengthPlusOne) + Math.max(lengthPlusOne - 1, 0);
+        }
+        int lengthPlusOne = readVarint(offset);
+        if (lengthPlusOne == 0) {
+            return null;
+        }
+        return new String(arena, offset + varintSize(lengthPlusOne), lengthPlusOne - 1, StandardCharsets.UTF_8);
+    }
+
+    private String genre(int slot) {
+        short code = genreCodes[slot];
+        return code == 0 ? null : genreValues.get(code);
+    }
+
+    private static byte[] encode(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private short genreCode(String genre) {
+        if (genre == null) {
+            return 0;
+        }
+        Short code = genreCodesByValue.get(genre);
+        if (code == null) {
+            if (genreValues.size() > Short.MAX_VALUE) {
+                throw new IllegalStateException("Trop de valeurs distinctes pour le genre");
+            }
+            code = (short) genreValues.size();
+            genreValues.add(genre);
+            genreCodesByValue.put(genre, code);
+        }
+        return code;
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slotCount == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            recordOffsets = Arrays.copyOf(recordOffsets, capacity);
+            genreCodes = Arrays.copyOf(genreCodes, capacity);
+            photos = Arrays.copyOf(photos, capacity);
+            compteIds = Arrays.copyOf(compteIds, capacity);
+        }
+        return slotCount++;
+    }
+
+    /**
+     * Ajoute les textes d'un contact à la fin de l'arène
+     * @return position de l'enregistrement
+     */
+    private int append(byte[][] fields) {
+        int length = 0;
+        for (byte[] field : fields) {
+            int lengthPlusOne = field == null ? 0 : field.length + 1;
+            length += varintSize(lengthPlusOne) + (field == null ? 0 : field.length);
+        }
+        if ((long) arenaSize + length > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Arène de texte pleine");
+        }
+        if (arenaSize + length > arena.length) {
+            // Croissance de moitié : moins de place perdue qu'en doublant
+            long capacity = Math.max(arena.length + ((long) arena.length >> 1), (long) arenaSize + length);
+            arena = Arrays.copyOf(arena, (int) Math.min(capacity, Integer.MAX_VALUE - 8));
+        }
+        int offset = arenaSize;
+        for (byte[] field : fields) {
+            arenaSize = writeVarint(arenaSize, field == null ? 0 : field.length + 1);
+            if (field != null) {
+                System.arraycopy(field, 0, arena, arenaSize, field.length);
+                arenaSize += field.length;
+            }
+        }
+        return offset;
+    }
+
+    private int recordLength(int offset) {
+        int position = offset;
+        for (int column = 0; column < STRING_COLUMNS; column++) {
+            int lengthPlusOne = readVarint(position);
+            position += varintSize(lengthPlusOne) + Math.max(lengthPlusOne - 1, 0);
+        }
+        return position - offset;
+    }
+
+    private int readVarint(int offset) {
+        int value = 0;
+        int shift = 0;
+        int position = offset;
+        byte b;
+        do {
+            b = arena[position++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    /**
+     * @return la position qui suit l'entier écrit
+     */
+    private int writeVarint(int offset, int value) {
+        int position = offset;
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            arena[position++] = (byte) ((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        arena[position++] = (byte) remaining;
+        return position;
+    }
+
+    private static int varintSize(int value) {
+        int size = 1;
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            remaining >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * Recopie les enregistrements encore référencés dans une nouvelle arène (sous le verrou d'écriture)
+     */
+    private void compactIfNeeded() {
+        if (arenaSize < MIN_COMPACT_BYTES || garbageBytes < arenaSize / 2) {
+            return;
+        }
+        byte[] compacted = new byte[Math.max(INITIAL_CAPACITY * 64, arenaSize - garbageBytes + ((arenaSize - garbageBytes) >> 1))];
+        int size = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (ids[slot] == 0) {
+                continue;
+            }
+            int length = recordLength(recordOffsets[slot]);
+            System.arraycopy(arena, recordOffsets[slot], compacted, size, length);
+            recordOffsets[slot] = size;
+            size += length;
+        }
+        arena = compacted;
+        arenaSize = size;
+        garbageBytes = 0;
+    }
+
+    /**
+     * Table de hachage int → int à adressage ouvert (sondage linéaire), sans objet par entrée.
+     * La clé 0 marque une case vide (les ids de contact sont strictement positifs).
+     */
+    private static final class IntIntMap {
+        private int[] keys = new int[INITIAL_CAPACITY * 2];
+        private int[] values = new int[INITIAL_CAPACITY * 2];
+        private int size;
+
+        int get(int key) {
+            int mask = keys.length - 1;
+            for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+                if (keys[i] == 0) {
+                    return -1;
+                }
+            }
+        }
+
+        void put(int key, int value) {
+            if ((size + 1) * 4 > keys.length * 3) {
+                resize(keys.length * 2);
+            }
+            int mask = keys.length - 1;
+            int i = hash(key) & mask;
+            while (keys[i] != 0 && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (keys[i] == 0) {
+                size++;
+            }
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        /**
+         * @return la valeur retirée, ou -1 si la clé est absente
+         */
+        int remove(int key) {
+            int mask = keys.length - 1;
+            int i = hash(key) & mask;
+            while (keys[i] != key) {
+                if (keys[i] == 0) {
+                    return -1;
+                }
+                i = (i + 1) & mask;
+            }
+            int removed = values[i];
+            size--;
+            // Décalage arrière : les clés suivantes du même groupe restent accessibles
+            int hole = i;
+            for (int j = (i + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+                int home = hash(keys[j]) & mask;
+                if (((j - home) & mask) >= ((j - hole) & mask)) {
+                    keys[hole] = keys[j];
+                    values[hole] = values[j];
+                    hole = j;
+                }
+            }
+            keys[hole] = 0;
+            return removed;
+        }
+
+        void clear() {
+            Arrays.fill(keys, 0);
+            size = 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        long getMemoryBytes() {
+            return (long) keys.length * Integer.BYTES * 2;
+        }
+
+        private void resize(int capacity) {
+            int[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new int[capacity];
+            values = new int[capacity];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int hash(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
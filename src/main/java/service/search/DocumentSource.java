@@ -0,0 +1,13 @@
+package service.search;
+
+/**
+ * Textes des documents d'un index. Les index ne gardent aucune copie des textes : ils les
+ * relisent ici (le stockage en colonnes) pour vérifier leurs candidats et retirer un document.
+ */
+@FunctionalInterface
+public interface DocumentSource {
+    /**
+     * @return les champs indexés du document (les valeurs null sont ignorées), ou null s'il est absent
+     */
+    String[] fields(int id);
+}
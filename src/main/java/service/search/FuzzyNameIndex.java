@@ -0,0 +1,331 @@
+package service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Index de recherche approchée sur les noms (tolérant aux fautes de frappe et d'orthographe).
+ * <p>
+ * Chaque mot des noms est indexé sous sa clé phonétique ({@link PhoneticKey}) et sous les
+ * variantes de cette clé privées d'un son : "Kavila" (kfl) retrouve ainsi "Kabila" (kpl) par
+ * la variante commune "kl". Une recherche réunit les listes des clés de chaque mot cherché,
+ * puis ne classe que ces candidats par distance d'édition ({@link BoundedLevenshtein}) :
+ * la table n'est jamais parcourue en entier.
+ * <p>
+ * Un mot cherché correspond à un mot du nom s'il en est à au plus 1 modification (2 au-delà
+ * de 5 lettres), ou s'il se prononce de la même façon. Tous les mots cherchés doivent
+ * correspondre ; les contacts sont classés par nombre total de modifications.
+ * <p>
+ * Les noms ne sont pas copiés : ils sont relus dans la {@link DocumentSource} pour classer les
+ * candidats. Un contact doit être retiré (remove) avant que ses noms ne changent dans la source.
+ */
+public class FuzzyNameIndex {
+    // Nombre de résultats retournés par défaut
+    public static final int DEFAULT_LIMIT = 50;
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^a-z]+");
+    // Un mot plus court n'est pas indexé (initiales, particules)
+    private static final int MIN_WORD_LENGTH = 2;
+    // Une clé plus courte n'a pas de variantes : elles désigneraient une trop grande partie de la table
+    private static final int MIN_KEY_LENGTH_FOR_VARIANTS = 3;
+    // Préfixe des variantes, rangées à part des clés exactes
+    private static final char VARIANT = '~';
+
+    private final DocumentSource source;
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final PostingList indexed = new PostingList();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * @param source champs de nom des contacts
+     */
+    public FuzzyNameIndex(DocumentSource source) {
+        if (source == null) {
+            throw new IllegalArgumentException("La source des documents est obligatoire");
+        }
+        this.source = source;
+    }
+
+    /**
+     * Indexe les noms actuels d'un contact (sans effet s'il est absent de la source)
+     */
+    public void put(int id) {
+        String[] words = words(id);
+        if (words == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            indexed.add(id);
+            for (String key : indexKeys(words)) {
+                postings.computeIfAbsent(key, k -> new PostingList()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retire un contact, d'après ses noms encore présents dans la source
+     */
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            if (!indexed.remove(id)) {
+                return;
+            }
+            String[] previous = words(id);
+            if (previous != null) {
+                removePostings(id, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            indexed.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return indexed.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int[] search(String query) {
+        return search(query, DEFAULT_LIMIT);
+    }
+
+    /**
+     * Recherche approchée
+     * @param query un ou plusieurs mots (ex. "kavila josef")
+     * @param limit nombre maximal de résultats
+     * @return les ids trouvés, du plus proche au plus éloigné (à égalité, par id croissant)
+     */
+    public int[] search(String query, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("La limite doit être positive");
+        }
+        String[] queryWords = words(query == null ? "" : query);
+        if (queryWords.length == 0) {
+            return new int[0];
+        }
+        BoundedLevenshtein[] automata = new BoundedLevenshtein[queryWords.length];
+        String[] queryKeys = new String[queryWords.length];
+        for (int w = 0; w < queryWords.length; w++) {
+            automata[w] = new BoundedLevenshtein(queryWords[w], maxDistance(queryWords[w]));
+            queryKeys[w] = PhoneticKey.encode(queryWords[w]);
+        }
+
+        lock.readLock().lock();
+        try {
+            int[] candidates = candidates(queryKeys);
+            // Contacts ayant un mot de même prononciation que chaque mot cherché
+            PostingList[] samePronunciation = new PostingList[queryKeys.length];
+            for (int w = 0; w < queryKeys.length; w++) {
+                samePronunciation[w] = postings.get(queryKeys[w]);
+            }
+            // Classement : score = modifications cumulées, puis id (tri d'un long composé)
+            long[] ranked = new long[candidates.length];
+            int count = 0;
+            for (int id : candidates) {
+                String[] words = words(id);
+                int score = words == null ? -1 : score(id, words, automata, samePronunciation);
+                if (score >= 0) {
+                    ranked[count++] = ((long) score << 32) | id;
+                }
+            }
+            Arrays.sort(ranked, 0, count);
+            int[] result = new int[Math.min(count, limit)];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = (int) ranked[i];
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ===== MÉTHODES UTILITAIRES PRIVÉES =====
+
+    /**
+     * Contacts dont un mot est à au plus un son de chacun des mots cherchés (intersection,
+     * en partant du mot le plus sélectif)
+     */
+    private int[] candidates(String[] queryKeys) {
+        List<int[]> perWord = new ArrayList<>(queryKeys.length);
+        for (String key : queryKeys) {
+            perWord.add(union(queryKeys(key)));
+        }
+        perWord.sort((a, b) -> Integer.compare(a.length, b.length));
+        int[] result = perWord.get(0);
+        int length = result.length;
+        for (int i = 1; i < perWord.size() && length > 0; i++) {
+            length = PostingList.of(perWord.get(i)).intersect(result, length);
+        }
+        return Arrays.copyOf(result, length);
+    }
+
+    private int[] union(Set<String> keys) {
+        int total = 0;
+        List<PostingList> lists = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            PostingList list = postings.get(key);
+            if (list != null) {
+                lists.add(list);
+                total += list.size;
+            }
+        }
+        int[] ids = new int[total];
+        int offset = 0;
+        for (PostingList list : lists) {
+            System.arraycopy(list.ids, 0, ids, offset, list.size);
+            offset += list.size;
+        }
+        Arrays.sort(ids);
+        int count = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (i == 0 || ids[i] != ids[i - 1]) {
+                ids[count++] = ids[i];
+            }
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    /**
+     * @return modifications cumulées des mots cherchés, ou -1 si l'un d'eux ne correspond à aucun mot
+     */
+    private static int score(int id, String[] words, BoundedLevenshtein[] automata,
+                             PostingList[] samePronunciation) {
+        int total = 0;
+        for (int w = 0; w < automata.length; w++) {
+            BoundedLevenshtein automaton = automata[w];
+            int best = automaton.getMaxDistance() + 1;
+            for (String word : words) {
+                best = Math.min(best, automaton.distance(word));
+                if (best == 0) {
+                    break;
+                }
+            }
+            if (best > automaton.getMaxDistance()) {
+                // Même prononciation, orthographe plus éloignée : classé après les fautes de frappe
+                PostingList same = samePronunciation[w];
+                if (same == null || Arrays.binarySearch(same.ids, 0, same.size, id) < 0) {
+                    return -1;
+                }
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    private void removePostings(int id, String[] words) {
+        for (String key : indexKeys(words)) {
+            PostingList list = postings.get(key);
+            if (list != null && list.remove(id) && list.isEmpty()) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Clés phonétiques des mots, et leurs variantes privées d'un son
+     */
+    private static Set<String> indexKeys(String[] words) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String word : words) {
+            String key = PhoneticKey.encode(word);
+            if (key.isEmpty()) {
+                continue;
+            }
+            keys.add(key);
+            for (String variant : variants(key)) {
+                keys.add(VARIANT + variant);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Clés à consulter pour une clé cherchée Q : Q elle-même, les mots ayant un son de plus
+     * (variante Q), un son de moins (clé égale à une variante de Q) ou un son différent
+     * (variante commune)
+     */
+    private static Set<String> queryKeys(String key) {
+        Set<String> keys = new LinkedHashSet<>();
+        if (key.isEmpty()) {
+            return keys;
+        }
+        keys.add(key);
+        keys.add(VARIANT + key);
+        for (String variant : variants(key)) {
+            keys.add(variant);
+            keys.add(VARIANT + variant);
+        }
+        return keys;
+    }
+
+    private static List<String> variants(String key) {
+        List<String> variants = new ArrayList<>(key.length());
+        if (key.length() >= MIN_KEY_LENGTH_FOR_VARIANTS) {
+            for (int i = 0; i < key.length(); i++) {
+                variants.add(key.substring(0, i) + key.substring(i + 1));
+            }
+        }
+        return variants;
+    }
+
+    /**
+     * @return les mots des noms du contact, ou null s'il est absent de la source
+     */
+    private String[] words(int id) {
+        String[] fields = source.fields(id);
+        return fields == null ? null : words(fields);
+    }
+
+    /**
+     * Mots normalisés (minuscules sans accents, ç prononcé s) des champs donnés
+     */
+    private static String[] words(String... fields) {
+        List<String> words = new ArrayList<>();
+        for (String field : fields) {
+            if (field == null) {
+                continue;
+            }
+            String normalized = TrigramIndex.normalize(field.replace('ç', 's').replace('Ç', 's'));
+            for (String word : WORD_SEPARATOR.split(normalized)) {
+                if (word.length() >= MIN_WORD_LENGTH) {
+                    words.add(word);
+                }
+            }
+        }
+        return words.toArray(new String[0]);
+    }
+
+    /**
+     * Modifications tolérées selon la longueur du mot cherché
+     */
+    private static int maxDistance(String word) {
+        if (word.length() <= 2) {
+            return 0;
+        }
+        return word.length() <= 5 ? 1 : 2;
+    }
+}
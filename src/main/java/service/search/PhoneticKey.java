@@ -0,0 +1,140 @@
+package service.search;
+
+/**
+ * Clé phonétique d'un nom, adaptée au français (et aux graphies courantes des noms
+ * congolais : tsh/tch, mb, ng, w).
+ * <p>
+ * Dans l'esprit de Metaphone : seules les consonnes prononcées sont gardées, par classe de son
+ * (sourdes et sonores confondues : b/p, d/t, g/k, v/f, s/z, j/ch), les voyelles disparaissent
+ * sauf en tête (marquée {@code a}). Les graphies d'un même son donnent la même clé :
+ * "Tshisekedi" / "Tchissekedi" / "Chisekedy" → {@code jskt}, "Dupont" / "Dupond" → {@code tpn}.
+ */
+public final class PhoneticKey {
+    private static final char VOWEL = 'a';
+
+    // Classe utilitaire
+    private PhoneticKey() {}
+
+    /**
+     * @param word mot normalisé (minuscules sans accents, lettres a-z)
+     * @return la clé phonétique, vide si le mot ne contient aucune lettre
+     */
+    public static String encode(String word) {
+        String s = stripSilentEnding(word);
+        StringBuilder key = new StringBuilder(s.length());
+        int i = 0;
+        // Voyelle (ou h muet suivi d'une voyelle) en tête : gardée comme marqueur
+        if (!s.isEmpty() && (isVowel(s, 0) || (s.charAt(0) == 'h' && isVowel(s, 1)))) {
+            key.append(VOWEL);
+            i = s.charAt(0) == 'h' ? 2 : 1;
+        }
+        while (i < s.length()) {
+            char c = s.charAt(i);
+            char next = charAt(s, i + 1);
+            int skip = 1;
+            char code = 0;
+            switch (c) {
+                case 'b', 'p' -> {
+                    code = c == 'p' && next == 'h' ? 'f' : 'p';
+                    skip = c == 'p' && next == 'h' ? 2 : 1;
+                }
+                case 'c' -> {
+                    if (next == 'h') {
+                        code = 'j';
+                        skip = 2;
+                    } else if (next == 'e' || next == 'i' || next == 'y') {
+                        code = 's';
+                    } else {
+                        code = 'k';
+                        skip = next == 'k' ? 2 : 1;
+                    }
+                }
+                case 'd', 't' -> {
+                    if (c == 't' && (next == 's' || next == 'c') && charAt(s, i + 2) == 'h') {
+                        code = 'j'; // tsh, tch
+                        skip = 3;
+                    } else if (c == 't' && next == 'j') {
+                        code = 'j';
+                        skip = 2;
+                    } else {
+                        code = 't';
+                        skip = next == 'h' ? 2 : 1;
+                    }
+                }
+                case 'f', 'v' -> code = 'f';
+                case 'g' -> {
+                    if (next == 'n') {
+                        code = 'n';
+                        skip = 2;
+                    } else if (next == 'e' || next == 'i' || next == 'y') {
+                        code = 'j';
+                    } else {
+                        code = 'k';
+                        skip = next == 'u' && (charAt(s, i + 2) == 'e' || charAt(s, i + 2) == 'i') ? 2 : 1;
+                    }
+                }
+                case 'j' -> code = 'j';
+                case 'k' -> code = 'k';
+                case 'q' -> {
+                    code = 'k';
+                    skip = next == 'u' ? 2 : 1;
+                }
+                case 'l', 'r' -> code = c;
+                // Nasale devant une consonne ou en fin de mot : am/an, em/en se confondent
+                case 'm', 'n' -> code = isVowel(s, i + 1) ? c : 'n';
+                case 's' -> {
+                    if (next == 'h') {
+                        code = 'j';
+                        skip = 2;
+                    } else if (next == 'c' && charAt(s, i + 2) == 'h') {
+                        code = 'j';
+                        skip = 3;
+                    } else {
+                        code = 's';
+                    }
+                }
+                case 'x' -> {
+                    key.append('k');
+                    code = 's';
+                }
+                case 'z' -> code = 's';
+                default -> code = 0; // voyelles, w (semi-voyelle : Mwamba, Kalwa), h muet
+            }
+            if (code != 0 && (key.isEmpty() || key.charAt(key.length() - 1) != code)) {
+                key.append(code);
+            }
+            i += skip;
+        }
+        return key.toString();
+    }
+
+    // ===== MÉTHODES UTILITAIRES PRIVÉES =====
+
+    /**
+     * Consonnes finales muettes : Dupont, Renaud, Dubois, Mercier, Chez
+     */
+    private static String stripSilentEnding(String word) {
+        String s = word;
+        if (s.length() > 3 && (s.endsWith("s") || s.endsWith("x") || s.endsWith("z"))) {
+            s = s.substring(0, s.length() - 1);
+        }
+        if (s.length() > 3 && (s.endsWith("t") || s.endsWith("d"))) {
+            s = s.substring(0, s.length() - 1);
+        }
+        if (s.length() > 4 && s.endsWith("er")) {
+            s = s.substring(0, s.length() - 1);
+        }
+        return s;
+    }
+
+    private static char charAt(String s, int index) {
+        return index < s.length() ? s.charAt(index) : 0;
+    }
+
+    private static boolean isVowel(String s, int index) {
+        return switch (charAt(s, index)) {
+            case 'a', 'e', 'i', 'o', 'u', 'y', 'w' -> true;
+            default -> false;
+        };
+    }
+}
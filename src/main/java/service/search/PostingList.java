@@ -0,0 +1,89 @@
+package service.search;
+
+import java.util.Arrays;
+
+/**
+ * Liste triée d'ids, stockée dans un tableau primitif extensible (listes des index inversés).
+ */
+final class PostingList {
+    int[] ids = new int[4];
+    int size;
+
+    /**
+     * Liste sur un tableau d'ids déjà trié, sans copie
+     */
+    static PostingList of(int[] sortedIds) {
+        PostingList list = new PostingList();
+        list.ids = sortedIds;
+        list.size = sortedIds.length;
+        return list;
+    }
+
+    void add(int id) {
+        if (size > 0 && ids[size - 1] >= id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return; // déjà présent (clé répétée dans le document)
+            }
+            insertAt(-position - 1, id);
+            return;
+        }
+        insertAt(size, id); // cas courant : ids croissants
+    }
+
+    boolean remove(int id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) {
+            return false;
+        }
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+        return true;
+    }
+
+    void clear() {
+        ids = new int[4];
+        size = 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Intersection en place de result[0..length) avec cette liste, par recherche
+     * exponentielle (galop) : le coût dépend de la liste courte, pas de la longue.
+     * @return le nombre d'ids conservés au début de result
+     */
+    int intersect(int[] result, int length) {
+        int count = 0;
+        int from = 0;
+        for (int i = 0; i < length && from < size; i++) {
+            int target = result[i];
+            int step = 1;
+            int bound = from;
+            while (bound < size && ids[bound] < target) {
+                from = bound + 1;
+                bound += step;
+                step <<= 1;
+            }
+            int position = Arrays.binarySearch(ids, from, Math.min(bound + 1, size), target);
+            if (position >= 0) {
+                result[count++] = target;
+                from = position + 1;
+            } else {
+                from = -position - 1;
+            }
+        }
+        return count;
+    }
+
+    private void insertAt(int position, int id) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length + (ids.length >> 1) + 1);
+        }
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        ids[position] = id;
+        size++;
+    }
+}
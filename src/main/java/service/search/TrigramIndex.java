@@ -0,0 +1,212 @@
+package service.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Index inversé de trigrammes en mémoire pour la recherche de sous-chaînes.
+ * <p>
+ * Chaque trigramme pointe vers la liste triée (int[]) des ids qui le contiennent.
+ * Une recherche intersecte les listes des trigrammes du terme, puis vérifie les
+ * candidats restants par une vraie recherche de sous-chaîne. Le texte est normalisé
+ * (minuscules, sans accents) comme une collation MySQL insensible à la casse.
+ * <p>
+ * L'index ne garde pas les textes : il les relit dans sa {@link DocumentSource}. Un document
+ * doit donc être retiré (remove) avant que son texte ne change dans la source, puis réindexé.
+ */
+public class TrigramIndex {
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    // Séparateur entre champs : empêche un trigramme de chevaucher deux champs
+    private static final char FIELD_SEPARATOR = '\u0001';
+
+    private final DocumentSource source;
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private final PostingList indexed = new PostingList();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * @param source textes des documents, relus à l'indexation, au retrait et à la vérification
+     */
+    public TrigramIndex(DocumentSource source) {
+        if (source == null) {
+            throw new IllegalArgumentException("La source des documents est obligatoire");
+        }
+        this.source = source;
+    }
+
+    /**
+     * Indexe le texte actuel d'un document (sans effet s'il est absent de la source).
+     * @param id identifiant du document
+     */
+    public void put(int id) {
+        String text = text(id);
+        if (text == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            indexed.add(id);
+            for (long trigram : trigrams(text)) {
+                postings.computeIfAbsent(trigram, k -> new PostingList()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retire un document de l'index, d'après son texte encore présent dans la source.
+     */
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            if (!indexed.remove(id)) {
+                return;
+            }
+            String previous = text(id);
+            if (previous == null) {
+                return; // déjà retiré de la source : ses listes seront filtrées à la vérification
+            }
+            for (long trigram : trigrams(previous)) {
+                PostingList list = postings.get(trigram);
+                if (list != null && list.remove(id) && list.isEmpty()) {
+                    postings.remove(trigram);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Vide l'index.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            indexed.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return indexed.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Recherche les documents dont un champ contient le terme.
+     * @param term sous-chaîne recherchée
+     * @return les ids correspondants, triés par ordre croissant
+     */
+    public int[] search(String term) {
+        String query = normalize(term == null ? "" : term.trim());
+        if (query.isEmpty()) {
+            return new int[0];
+        }
+        lock.readLock().lock();
+        try {
+            // Trop court pour un trigramme : tous les documents sont candidats
+            int[] candidates = query.length() < 3
+                    ? Arrays.copyOf(indexed.ids, indexed.size)
+                    : intersectPostings(query);
+            int count = 0;
+            for (int id : candidates) {
+                String text = text(id);
+                if (text != null && text.contains(query)) {
+                    candidates[count++] = id;
+                }
+            }
+            return Arrays.copyOf(candidates, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ===== MÉTHODES UTILITAIRES PRIVÉES =====
+
+    private int[] intersectPostings(String query) {
+        Set<Long> distinct = new HashSet<>(trigrams(query));
+        List<PostingList> lists = new ArrayList<>(distinct.size());
+        for (long trigram : distinct) {
+            PostingList list = postings.get(trigram);
+            if (list == null) {
+                return new int[0];
+            }
+            lists.add(list);
+        }
+        // Intersection en partant de la liste la plus courte
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+        int[] result = Arrays.copyOf(lists.get(0).ids, lists.get(0).size);
+        int length = result.length;
+        for (int i = 1; i < lists.size() && length > 0; i++) {
+            length = lists.get(i).intersect(result, length);
+        }
+        return Arrays.copyOf(result, length);
+    }
+
+    private static List<Long> trigrams(String text) {
+        List<Long> result = new ArrayList<>(Math.max(0, text.length() - 2));
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            char a = text.charAt(i);
+            char b = text.charAt(i + 1);
+            char c = text.charAt(i + 2);
+            if (a == FIELD_SEPARATOR || b == FIELD_SEPARATOR || c == FIELD_SEPARATOR) {
+                continue;
+            }
+            result.add(((long) a << 32) | ((long) b << 16) | c);
+        }
+        return result;
+    }
+
+    /**
+     * @return le texte normalisé du document, ou null s'il est absent de la source
+     */
+    private String text(int id) {
+        String[] fields = source.fields(id);
+        return fields == null ? null : normalizeFields(fields);
+    }
+
+    private static String normalizeFields(String... fields) {
+        StringBuilder sb = new StringBuilder();
+        for (String field : fields) {
+            if (field == null) {
+                continue;
+            }
+            if (sb.length() > 0) {
+                sb.append(FIELD_SEPARATOR);
+            }
+            sb.append(normalize(field));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Minuscules et suppression des accents.
+     */
+    static String normalize(String value) {
+        String lower = value.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < lower.length(); i++) {
+            if (lower.charAt(i) > 0x7F) {
+                return DIACRITICS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+            }
+        }
+        return lower;
+    }
+}
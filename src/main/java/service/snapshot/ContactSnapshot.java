@@ -0,0 +1,369 @@
+package service.snapshot;
+
+import models.Contact;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Instantané local de la table contacts, lu par projection mémoire (MappedByteBuffer).
+ * <p>
+ * Seules les pages du fichier réellement lues sont chargées par le système : ouvrir un
+ * instantané ne décode aucun contact, et {@link #find(int)} ne décode que le contact demandé.
+ * <pre>
+ * en-tête (32 octets) : magic "GCSN" | format | version de la base (long) | nombre de contacts
+ *                       | position de l'index | CRC32C du reste du fichier (long)
+ * enregistrements     : nom, postnom, email, téléphone, genre, adresse (longueur u16 + UTF-8,
+ *                       0xFFFF pour null), photo (int), compte (int)
+ * index               : ids triés (int[n]), puis position de chaque enregistrement (int[n])
+ * </pre>
+ * Un fichier tronqué, d'un autre format ou dont la somme de contrôle ne correspond pas est
+ * refusé à l'ouverture (IOException).
+ */
+public final class ContactSnapshot {
+    private static final int MAGIC = 0x4743534E; // "GCSN"
+    private static final int FORMAT = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int STRING_FIELDS = 6;
+    private static final int NULL_LENGTH = 0xFFFF;
+
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final long version;
+    private final int count;
+    private final int idsOffset;
+    private final int positionsOffset;
+
+    private ContactSnapshot(Path file, MappedByteBuffer buffer, long version, int count, int indexOffset) {
+        this.file = file;
+        this.buffer = buffer;
+        this.version = version;
+        this.count = count;
+        this.idsOffset = indexOffset;
+        this.positionsOffset = indexOffset + count * Integer.BYTES;
+    }
+
+    /**
+     * Ouvre et vérifie un instantané (en-tête, somme de contrôle, ordre des ids)
+     * @throws IOException si le fichier est illisible ou corrompu
+     */
+    public static ContactSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Taille d'instantané invalide: " + size);
+            }
+            // La projection reste valide après la fermeture du canal
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT) {
+                throw new IOException("Format d'instantané inconnu");
+            }
+            long version = buffer.getLong(8);
+            int count = buffer.getInt(16);
+            int indexOffset = buffer.getInt(20);
+            if (count < 0 || indexOffset < HEADER_SIZE
+                    || (long) indexOffset + 2L * count * Integer.BYTES != size) {
+                throw new IOException("En-tête d'instantané incohérent");
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.slice(HEADER_SIZE, (int) size - HEADER_SIZE));
+            if (crc.getValue() != buffer.getLong(24)) {
+                throw new IOException("Somme de contrôle d'instantané invalide");
+            }
+            ContactSnapshot snapshot = new ContactSnapshot(file, buffer, version, count, indexOffset);
+            snapshot.checkIndex();
+            return snapshot;
+        }
+    }
+
+    /**
+     * Écrit un instantané. Les contacts peuvent arriver dans un ordre quelconque :
+     * l'index est trié à la fin de l'écriture.
+     * @param version version de la base à laquelle correspondent les contacts
+     * @return le nombre de contacts écrits
+     */
+    public static int write(Path file, long version, Iterator<Contact> contacts) throws IOException {
+        return write(file, version, new Source() {
+            @Override
+            public boolean hasNext() {
+                return contacts.hasNext();
+            }
+
+            @Override
+            public int writeNext(DataOutputStream out) throws IOException {
+                Contact contact = contacts.next();
+                writeRecord(out, contact);
+                return contact.getId();
+            }
+        });
+    }
+
+    /**
+     * @return version de la base à laquelle correspond l'instantané
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * @return ids de tous les contacts, triés
+     */
+    public int[] getIds() {
+        int[] ids = new int[count];
+        buffer.slice(idsOffset, count * Integer.BYTES).asIntBuffer().get(ids);
+        return ids;
+    }
+
+    /**
+     * Décode un contact (recherche dichotomique dans l'index projeté)
+     * @return le contact, ou null s'il ne figure pas dans l'instantané
+     */
+    public Contact find(int id) {
+        int index = indexOf(id);
+        return index < 0 ? null : readRecord(id, buffer.getInt(positionsOffset + index * Integer.BYTES));
+    }
+
+    public boolean contains(int id) {
+        return indexOf(id) >= 0;
+    }
+
+    /**
+     * Écrit un nouvel instantané : celui-ci, moins les contacts supprimés ou remplacés, plus
+     * les contacts modifiés. Les enregistrements inchangés sont recopiés sans être décodés.
+     * @param changed contacts ajoutés ou modifiés, par id
+     * @param deleted ids supprimés
+     */
+    void writeMerged(Path target, long newVersion, Map<Integer, Contact> changed,
+                     Set<Integer> deleted) throws IOException {
+        Iterator<Contact> added = changed.values().iterator();
+        write(target, newVersion, new Source() {
+            private int index = nextKept(0);
+
+            @Override
+            public boolean hasNext() {
+                return index < count || added.hasNext();
+            }
+
+            @Override
+            public int writeNext(DataOutputStream out) throws IOException {
+                if (index < count) {
+                    int id = buffer.getInt(idsOffset + index * Integer.BYTES);
+                    int position = buffer.getInt(positionsOffset + index * Integer.BYTES);
+                    byte[] record = new byte[recordLength(position)];
+                    buffer.get(position, record);
+                    out.write(record);
+                    index = nextKept(index + 1);
+                    return id;
+                }
+                Contact contact = added.next();
+                writeRecord(out, contact);
+                return contact.getId();
+            }
+
+            private int nextKept(int from) {
+                int i = from;
+                while (i < count) {
+                    int id = buffer.getInt(idsOffset + i * Integer.BYTES);
+                    if (!deleted.contains(id) && !changed.containsKey(id)) {
+                        break;
+                    }
+                    i++;
+                }
+                return i;
+            }
+        });
+    }
+
+    // ===== MÉTHODES UTILITAIRES PRIVÉES =====
+
+    /**
+     * Enregistrements à écrire, l'un après l'autre
+     */
+    private interface Source {
+        boolean hasNext();
+
+        /** @return l'id du contact écrit */
+        int writeNext(DataOutputStream out) throws IOException;
+    }
+
+    private static int write(Path file, long version, Source source) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel.position(HEADER_SIZE);
+            CRC32C crc = new CRC32C();
+            CountingOutputStream counting = new CountingOutputStream(
+                    new CheckedOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16), crc));
+            DataOutputStream out = new DataOutputStream(counting);
+
+            int[] ids = new int[1024];
+            int[] positions = new int[1024];
+            int count = 0;
+            while (source.hasNext()) {
+                if (count == ids.length) {
+                    ids = Arrays.copyOf(ids, count * 2);
+                    positions = Arrays.copyOf(positions, count * 2);
+                }
+                long position = HEADER_SIZE + counting.written;
+                ids[count] = source.writeNext(out);
+                positions[count++] = (int) position;
+            }
+            long indexOffset = HEADER_SIZE + counting.written;
+            if (indexOffset + 2L * count * Integer.BYTES > Integer.MAX_VALUE) {
+                throw new IOException("Instantané trop volumineux");
+            }
+
+            // Index trié par id : tri des positions selon leur id
+            long[] entries = new long[count];
+            for (int i = 0; i < count; i++) {
+                entries[i] = ((long) ids[i] << 32) | (positions[i] & 0xFFFFFFFFL);
+            }
+            Arrays.sort(entries);
+            for (int i = 0; i < count; i++) {
+                if (i > 0 && (int) (entries[i] >> 32) == (int) (entries[i - 1] >> 32)) {
+                    throw new IOException("Id en double dans l'instantané: " + (int) (entries[i] >> 32));
+                }
+                out.writeInt((int) (entries[i] >> 32));
+            }
+            for (int i = 0; i < count; i++) {
+                out.writeInt((int) entries[i]);
+            }
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                    .putInt(MAGIC)
+                    .putInt(FORMAT)
+                    .putLong(version)
+                    .putInt(count)
+                    .putInt((int) indexOffset)
+                    .putLong(crc.getValue())
+                    .flip();
+            channel.write(header, 0);
+            channel.force(true);
+            return count;
+        }
+    }
+
+    private static void writeRecord(DataOutputStream out, Contact contact) throws IOException {
+        writeString(out, contact.getNom());
+        writeString(out, contact.getPostnom());
+        writeString(out, contact.getEmail());
+        writeString(out, contact.getNumeroTelephone());
+        writeString(out, contact.getGenre());
+        writeString(out, contact.getAdresse());
+        out.writeInt(contact.getPhotoContact());
+        out.writeInt(contact.getCompteId());
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeShort(NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= NULL_LENGTH) {
+            throw new IOException("Champ trop long pour l'instantané (" + bytes.length + " octets)");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private Contact readRecord(int id, int position) {
+        String[] fields = new String[STRING_FIELDS];
+        int offset = position;
+        for (int i = 0; i < STRING_FIELDS; i++) {
+            int length = Short.toUnsignedInt(buffer.getShort(offset));
+            offset += Short.BYTES;
+            if (length != NULL_LENGTH) {
+                byte[] bytes = new byte[length];
+                buffer.get(offset, bytes);
+                fields[i] = new String(bytes, StandardCharsets.UTF_8);
+                offset += length;
+            }
+        }
+        int photo = buffer.getInt(offset);
+        int compteId = buffer.getInt(offset + Integer.BYTES);
+        return new Contact(id, fields[0], fields[1], fields[2], fields[3], fields[4], fields[5], photo, compteId);
+    }
+
+    private int recordLength(int position) {
+        int offset = position;
+        for (int i = 0; i < STRING_FIELDS; i++) {
+            int length = Short.toUnsignedInt(buffer.getShort(offset));
+            offset += Short.BYTES + (length == NULL_LENGTH ? 0 : length);
+        }
+        return offset + 2 * Integer.BYTES - position;
+    }
+
+    private int indexOf(int id) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midId = buffer.getInt(idsOffset + mid * Integer.BYTES);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private void checkIndex() throws IOException {
+        for (int i = 0; i < count; i++) {
+            if (i > 0 && buffer.getInt(idsOffset + i * Integer.BYTES) <= buffer.getInt(idsOffset + (i - 1) * Integer.BYTES)) {
+                throw new IOException("Index d'instantané non trié");
+            }
+            int position = buffer.getInt(positionsOffset + i * Integer.BYTES);
+            if (position < HEADER_SIZE || position >= idsOffset) {
+                throw new IOException("Position d'enregistrement invalide: " + position);
+            }
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long written;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            written++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            written += len;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package service.snapshot;
+
+import dao.ContactChanges;
+import models.Contact;
+import service.ContactService;
+import utils.DBConnection;
+import utils.metrics.Counter;
+import utils.metrics.Histogram;
+import utils.metrics.Metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Répertoire des instantanés locaux de la table contacts, un sous-répertoire par base.
+ * <p>
+ * Chaque instantané est un nouveau fichier nommé d'après sa version ({@code contacts-<version>.snap}),
+ * écrit à côté puis renommé : un fichier projeté en mémoire n'est jamais réécrit, et un arrêt
+ * pendant l'écriture laisse l'instantané précédent intact. Les anciens fichiers sont supprimés
+ * après chaque écriture (ou au lancement suivant si le système les garde verrouillés).
+ * <pre>
+ * ContactSnapshot snapshot = store.latest();         // affichage immédiat, ou null
+ * snapshot = store.sync(contactService, snapshot);   // changements depuis snapshot.getVersion()
+ * </pre>
+ * Désactivé par -Dsnapshot.enabled=false ; répertoire surchargeable par -Dsnapshot.dir=...
+ * Les instantanés contiennent les coordonnées des contacts en clair : le répertoire par
+ * défaut se trouve dans le dossier personnel de l'utilisateur.
+ */
+public class ContactSnapshotStore {
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("snapshot.enabled", "true"));
+    private static final Path DEFAULT_DIRECTORY = Paths.get(System.getProperty("snapshot.dir",
+            Paths.get(System.getProperty("user.home"), ".gestioncontact", "snapshots").toString()));
+    private static final Pattern FILE_PATTERN = Pattern.compile("contacts-(\\d+)\\.snap");
+
+    // Métriques (JMX) : ouverture (vérification comprise), écriture, et instantanés refusés
+    private static final Histogram OPEN_TIMER = Metrics.timer("snapshot.open");
+    private static final Histogram WRITE_TIMER = Metrics.timer("snapshot.write");
+    private static final Counter CORRUPT = Metrics.counter("snapshot.corrupt");
+
+    private final Path directory;
+
+    public ContactSnapshotStore(Path directory) {
+        if (directory == null) {
+            throw new IllegalArgumentException("Le répertoire est obligatoire");
+        }
+        this.directory = directory;
+    }
+
+    /**
+     * Répertoire par défaut, propre à la base configurée (db.url)
+     * @return le répertoire, ou null si les instantanés sont désactivés
+     */
+    public static ContactSnapshotStore defaultStore() {
+        if (!ENABLED) {
+            return null;
+        }
+        return new ContactSnapshotStore(DEFAULT_DIRECTORY.resolve(databaseKey(DBConnection.getJdbcUrl())));
+    }
+
+    /**
+     * Instantané valide le plus récent. Un fichier corrompu est ignoré et supprimé.
+     * @return l'instantané, ou null s'il n'y en a aucun de valide
+     */
+    public ContactSnapshot latest() {
+        long start = System.nanoTime();
+        try {
+            for (Path file : listByVersionDesc()) {
+                try {
+                    return ContactSnapshot.open(file);
+                } catch (IOException e) {
+                    CORRUPT.increment();
+                    System.err.println("Instantané ignoré (" + file.getFileName() + "): " + e.getMessage());
+                    deleteQuietly(file);
+                }
+            }
+            return null;
+        } finally {
+            OPEN_TIMER.recordSince(start);
+        }
+    }
+
+    /**
+     * Met l'instantané à jour : seuls les changements depuis sa version sont lus en base,
+     * puis fusionnés avec les enregistrements existants. Sans instantané (ou si la base
+     * exige une resynchronisation complète), tous les contacts sont relus.
+     * @param base instantané courant, ou null
+     * @return le nouvel instantané (base lui-même si rien n'a changé), ou null si la base
+     *         ne fournit pas de version de modification
+     * @throws IllegalStateException si les contacts n'ont pas pu être relus en entier
+     */
+    public ContactSnapshot sync(ContactService contactService, ContactSnapshot base) throws SQLException, IOException {
+        if (base != null) {
+            Map<Integer, Contact> changed = new LinkedHashMap<>();
+            Set<Integer> deleted = new HashSet<>();
+            long version = base.getVersion();
+            ContactChanges changes;
+            do {
+                changes = contactService.changesSince(version);
+                if (changes.isFullResyncRequired()) {
+                    break;
+                }
+                // Suppressions d'abord : un id supprimé puis recréé figure dans les deux listes
+                for (int id : changes.getDeletedIds()) {
+                    changed.remove(id);
+                    deleted.add(id);
+                }
+                for (Contact contact : changes.getChanged()) {
+                    changed.put(contact.getId(), contact);
+                }
+                version = changes.getVersion();
+            } while (changes.hasMore());
+
+            if (!changes.isFullResyncRequired()) {
+                if (changed.isEmpty() && deleted.isEmpty()) {
+                    return base;
+                }
+                long newVersion = version;
+                return save(newVersion, file -> base.writeMerged(file, newVersion, changed, deleted));
+            }
+        }
+        // Version lue avant les contacts : un changement concurrent sera relu à la prochaine synchronisation
+        long version = contactService.getChangeVersion();
+        if (version < 0) {
+            return null;
+        }
+        return save(version, file -> {
+            try (Stream<Contact> contacts = contactService.streamAllContacts()) {
+                ContactSnapshot.write(file, version, contacts.iterator());
+            }
+        });
+    }
+
+    // ===== MÉTHODES UTILITAIRES PRIVÉES =====
+
+    @FunctionalInterface
+    private interface SnapshotWriter {
+        void write(Path file) throws IOException, SQLException;
+    }
+
+    private ContactSnapshot save(long version, SnapshotWriter writer) throws IOException, SQLException {
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(directory);
+            Path target = directory.resolve("contacts-" + version + ".snap");
+            Path tmp = Files.createTempFile(directory, "contacts-", ".tmp");
+            try {
+                writer.write(tmp);
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                deleteQuietly(tmp);
+            }
+            ContactSnapshot snapshot = ContactSnapshot.open(target);
+            // Seulement les plus anciens : une autre instance de l'application a pu en écrire un plus récent
+            for (Path older : listByVersionDesc()) {
+                if (fileVersion(older) < version) {
+                    deleteQuietly(older);
+                }
+            }
+            return snapshot;
+        } finally {
+            WRITE_TIMER.recordSince(start);
+        }
+    }
+
+    private List<Path> listByVersionDesc() {
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return files;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "contacts-*.snap")) {
+            stream.forEach(files::add);
+        } catch (IOException e) {
+            System.err.println("Lecture du répertoire des instantanés impossible: " + e.getMessage());
+        }
+        files.removeIf(file -> !FILE_PATTERN.matcher(file.getFileName().toString()).matches());
+        files.sort((a, b) -> Long.compare(fileVersion(b), fileVersion(a)));
+        return files;
+    }
+
+    private static long fileVersion(Path file) {
+        Matcher matcher = FILE_PATTERN.matcher(file.getFileName().toString());
+        if (!matcher.matches()) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(matcher.group(1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Fichier encore projeté (Windows) : il sera supprimé au prochain lancement
+        }
+    }
+
+    private static String databaseKey(String jdbcUrl) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(jdbcUrl.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package service.transfer;
+
+import models.Contact;
+import models.ContactColumn;
+import service.ContactService;
+import utils.CsvWriter;
+import utils.Json;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Export des contacts en CSV ou JSON Lines, ligne par ligne depuis la base.
+ * La mémoire utilisée ne dépend pas du nombre de contacts : seul le tampon
+ * d'écriture et le contact courant sont en mémoire.
+ */
+public class ContactExporter {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Format du fichier produit.
+     */
+    public enum Format {
+        CSV,
+        JSON_LINES
+    }
+
+    /**
+     * Avancement de l'export (appelé hors de l'EDT).
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(long exported);
+    }
+
+    private final ContactService contactService;
+    private final Format format;
+    private final List<ContactColumn> columns;
+    private final boolean gzip;
+    private final String searchTerm;
+    private final int progressInterval;
+    private final ProgressListener progressListener;
+
+    private ContactExporter(Builder builder) {
+        this.contactService = builder.contactService;
+        this.format = builder.format;
+        this.columns = List.copyOf(builder.columns);
+        this.gzip = builder.gzip;
+        this.searchTerm = builder.searchTerm;
+        this.progressInterval = builder.progressInterval;
+        this.progressListener = builder.progressListener;
+    }
+
+    /**
+     * Exporte les contacts vers un fichier (écrasé s'il existe).
+     * @param target fichier de destination
+     * @return le nombre de contacts exportés
+     * @throws IOException en cas d'erreur d'écriture ou de lecture en base
+     */
+    public long export(Path target) throws IOException {
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            return export(Channels.newOutputStream(channel));
+        }
+    }
+
+    /**
+     * Exporte les contacts vers un flux (fermé à la fin de l'export).
+     */
+    public long export(OutputStream target) throws IOException {
+        OutputStream out = gzip ? new GZIPOutputStream(target, BUFFER_SIZE) : target;
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+             Stream<Contact> contacts = contactService.streamContacts(searchTerm)) {
+            return format == Format.CSV ? writeCsv(writer, contacts) : writeJsonLines(writer, contacts);
+        } catch (IllegalStateException e) {
+            // Erreur SQL survenue pendant la lecture en continu
+            throw new IOException("Export interrompu: " + e.getMessage(), e);
+        }
+    }
+
+    private long writeCsv(Writer writer, Stream<Contact> contacts) throws IOException {
+        CsvWriter csv = new CsvWriter(writer);
+        Object[] row = new Object[columns.size()];
+        for (int i = 0; i < row.length; i++) {
+            row[i] = columns.get(i).getColumnName();
+        }
+        csv.writeRecord(row);
+
+        long count = 0;
+        Iterator<Contact> it = contacts.iterator();
+        while (it.hasNext()) {
+            Contact contact = it.next();
+            for (int i = 0; i < row.length; i++) {
+                row[i] = columns.get(i).valueOf(contact);
+            }
+            csv.writeRecord(row);
+            progress(++count);
+        }
+        finish(count);
+        return count;
+    }
+
+    private long writeJsonLines(Writer writer, Stream<Contact> contacts) throws IOException {
+        long count = 0;
+        Iterator<Contact> it = contacts.iterator();
+        while (it.hasNext()) {
+            Contact contact = it.next();
+            writer.write('{');
+            for (int i = 0; i < columns.size(); i++) {
+                ContactColumn column = columns.get(i);
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write('"');
+                writer.write(column.getColumnName());
+                writer.write("\":");
+                Object value = column.valueOf(contact);
+                if (column.isNumeric() && value != null) {
+                    writer.write(value.toString());
+                } else {
+                    Json.appendString(writer, value == null ? null : value.toString());
+                }
+            }
+            writer.write("}\n");
+            progress(++count);
+        }
+        finish(count);
+        return count;
+    }
+
+    private void progress(long count) {
+        if (progressListener != null && count % progressInterval == 0) {
+            progressListener.onProgress(count);
+        }
+    }
+
+    private void finish(long count) {
+        if (progressListener != null && count % progressInterval != 0) {
+            progressListener.onProgress(count);
+        }
+    }
+
+    // ==================== BUILDER CLASS ====================
+
+    public static class Builder {
+        // Champ obligatoire
+        private final ContactService contactService;
+
+        // Champs optionnels
+        private Format format = Format.CSV;
+        private List<ContactColumn> columns = List.of(ContactColumn.values());
+        private boolean gzip;
+        private String searchTerm;
+        private int progressInterval = 10_000;
+        private ProgressListener progressListener;
+
+        public Builder(ContactService contactService) {
+            this.contactService = contactService;
+        }
+
+        public Builder format(Format format) {
+            this.format = format;
+            return this;
+        }
+
+        /**
+         * Colonnes exportées, dans l'ordre donné (toutes par défaut).
+         */
+        public Builder columns(ContactColumn... columns) {
+            this.columns = List.of(columns);
+            return this;
+        }
+
+        public Builder gzip(boolean gzip) {
+            this.gzip = gzip;
+            return this;
+        }
+
+        /**
+         * Restreint l'export aux contacts trouvés par la recherche (mêmes critères que searchContacts).
+         */
+        public Builder filter(String searchTerm) {
+            this.searchTerm = searchTerm;
+            return this;
+        }
+
+        public Builder progressListener(ProgressListener progressListener, int interval) {
+            this.progressListener = progressListener;
+            this.progressInterval = interval;
+            return this;
+        }
+
+        public ContactExporter build() {
+            if (contactService == null || format == null) {
+                throw new IllegalArgumentException("Service et format sont obligatoires");
+            }
+            if (columns.isEmpty()) {
+                throw new IllegalArgumentException("Au moins une colonne doit être exportée");
+            }
+            if (progressInterval <= 0) {
+                throw new IllegalArgumentException("Intervalle de progression invalide: " + progressInterval);
+            }
+            return new ContactExporter(this);
+        }
+    }
+}
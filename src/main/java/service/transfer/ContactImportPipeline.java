@@ -0,0 +1,501 @@
+package service.transfer;
+
+import dao.BatchResult;
+import models.Contact;
+import service.ContactService;
+import utils.CsvReader;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Import massif de contacts depuis un fichier CSV.
+ * <p>
+ * Trois étages reliés par des files bornées : lecture en flux du fichier,
+ * validation parallèle via les setters de {@link Contact}, puis écriture en lot.
+ * Une base lente remplit les files et bloque donc naturellement la lecture.
+ * Un fichier de reprise mémorise le dernier enregistrement traité pour
+ * relancer un import interrompu sans repartir de zéro : les contacts validés
+ * sont remis dans l'ordre du fichier avant d'être écrits, pour qu'aucune ligne
+ * écrite ne se trouve après le point de reprise.
+ */
+public class ContactImportPipeline {
+    // Colonnes attendues dans l'en-tête (noms des colonnes de la table contacts)
+    private static final List<String> REQUIRED_COLUMNS =
+            List.of("nom", "postnom", "email", "numero_telephone", "genre");
+    private static final String ADRESSE = "adresse";
+    private static final String PHOTO_CONTACT = "photo_contact";
+
+    private static final RawRecord END_OF_INPUT = new RawRecord(-1, null);
+    private static final Validated END_OF_VALIDATION = new Validated(-1, null, null);
+
+    private final ContactService contactService;
+    private final int validatorThreads;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final int maxRejectionsKept;
+    private final char delimiter;
+    private final Path checkpointFile;
+    private final ProgressListener progressListener;
+
+    /**
+     * Avancement communiqué après chaque lot écrit (appelé hors de l'EDT).
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(ImportReport progress);
+    }
+
+    private ContactImportPipeline(Builder builder) {
+        this.contactService = builder.contactService;
+        this.validatorThreads = builder.validatorThreads;
+        this.queueCapacity = builder.queueCapacity;
+        this.batchSize = builder.batchSize;
+        this.maxRejectionsKept = builder.maxRejectionsKept;
+        this.delimiter = builder.delimiter;
+        this.checkpointFile = builder.checkpointFile;
+        this.progressListener = builder.progressListener;
+    }
+
+    /**
+     * Importe un fichier CSV encodé en UTF-8, en reprenant après le dernier
+     * enregistrement validé si un fichier de reprise existe.
+     * @param csvFile fichier à importer (première ligne = en-tête)
+     * @return le bilan de l'import
+     * @throws ImportException si le fichier est illisible ou si la base refuse les écritures
+     */
+    public ImportReport importFile(Path csvFile) throws ImportException {
+        try (Reader reader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8)) {
+            return importFrom(reader);
+        } catch (IOException e) {
+            throw new ImportException("Lecture du fichier impossible: " + csvFile, e);
+        }
+    }
+
+    /**
+     * Importe des contacts depuis un flux CSV.
+     */
+    public ImportReport importFrom(Reader reader) throws ImportException {
+        long startNanos = System.nanoTime();
+        long resumeAfter = readCheckpoint();
+        CsvReader csv = new CsvReader(reader, delimiter);
+        Map<String, Integer> columns = readHeader(csv);
+
+        BlockingQueue<RawRecord> rawRecords = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Validated> validated = new ArrayBlockingQueue<>(queueCapacity);
+        // Enregistrements lus mais pas encore remis dans l'ordre : borne le tampon de réordonnancement
+        Semaphore inFlight = new Semaphore(validatorThreads + queueCapacity);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(validatorThreads + 2, r -> {
+            Thread t = new Thread(r, "contact-import-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        try {
+            executor.submit(() -> runStage(executor, failure,
+                    () -> parse(csv, resumeAfter, inFlight, rawRecords)));
+            for (int i = 0; i < validatorThreads; i++) {
+                executor.submit(() -> runStage(executor, failure,
+                        () -> validate(columns, rawRecords, validated)));
+            }
+            BatchWriter writer = new BatchWriter(resumeAfter, startNanos, inFlight);
+            Future<?> writing = executor.submit(() -> runStage(executor, failure,
+                    () -> writer.drain(validated)));
+
+            writing.get();
+            if (failure.get() != null) {
+                throw failure.get();
+            }
+            deleteCheckpoint();
+            return writer.report();
+        } catch (ImportException e) {
+            throw e;
+        } catch (ExecutionException e) {
+            throw new ImportException("Import interrompu", failure.get() != null ? failure.get() : e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ImportException("Import interrompu", e);
+        } catch (Throwable e) {
+            throw new ImportException("Import interrompu: " + e.getMessage(), e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // ===== ÉTAGES DU PIPELINE =====
+
+    @FunctionalInterface
+    private interface Stage {
+        void run() throws Exception;
+    }
+
+    /**
+     * Exécute un étage ; la première erreur arrête tous les autres.
+     */
+    private void runStage(ExecutorService executor, AtomicReference<Throwable> failure, Stage stage) {
+        try {
+            stage.run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+            if (failure.compareAndSet(null, e)) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private void parse(CsvReader csv, long resumeAfter, Semaphore inFlight, BlockingQueue<RawRecord> out)
+            throws IOException, InterruptedException {
+        List<String> fields;
+        while ((fields = csv.readRecord()) != null) {
+            long number = csv.getRecordNumber();
+            if (number > resumeAfter) {
+                inFlight.acquire();
+                out.put(new RawRecord(number, fields));
+            }
+        }
+        for (int i = 0; i < validatorThreads; i++) {
+            out.put(END_OF_INPUT);
+        }
+    }
+
+    private void validate(Map<String, Integer> columns, BlockingQueue<RawRecord> in,
+                          BlockingQueue<Validated> out) throws InterruptedException {
+        while (true) {
+            RawRecord record = in.take();
+            if (record == END_OF_INPUT) {
+                out.put(END_OF_VALIDATION);
+                return;
+            }
+            out.put(toContact(columns, record));
+        }
+    }
+
+    private Validated toContact(Map<String, Integer> columns, RawRecord record) {
+        List<String> fields = record.fields();
+        if (fields.size() == 1 && fields.get(0).isBlank()) {
+            return new Validated(record.number(), null, null); // ligne vide ignorée
+        }
+        if (fields.size() < columns.size()) {
+            return new Validated(record.number(), null,
+                    "Nombre de colonnes incorrect (" + fields.size() + " au lieu de " + columns.size() + ")");
+        }
+        try {
+            Contact contact = new Contact();
+            contact.setNom(fields.get(columns.get("nom")));
+            contact.setPostnom(fields.get(columns.get("postnom")));
+            contact.setEmail(fields.get(columns.get("email")));
+            contact.setNumeroTelephone(fields.get(columns.get("numero_telephone")));
+            contact.setGenre(fields.get(columns.get("genre")));
+            if (columns.containsKey(ADRESSE)) {
+                String adresse = fields.get(columns.get(ADRESSE));
+                contact.setAdresse(adresse.isBlank() ? null : adresse);
+            }
+            if (columns.containsKey(PHOTO_CONTACT)) {
+                String photo = fields.get(columns.get(PHOTO_CONTACT)).trim();
+                contact.setPhotoContact(photo.isEmpty() ? 0 : parsePhoto(photo));
+            }
+            return new Validated(record.number(), contact, null);
+        } catch (IllegalArgumentException e) {
+            return new Validated(record.number(), null, e.getMessage());
+        }
+    }
+
+    private static int parsePhoto(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("L'ID de la photo doit être un entier: " + value);
+        }
+    }
+
+    /**
+     * Dernier étage : remet les enregistrements validés dans l'ordre du fichier (la validation
+     * parallèle les livre dans le désordre), les regroupe en lots et tient le point de reprise.
+     * Les lots ne contiennent que des enregistrements consécutifs : après chaque lot, tout ce qui
+     * précède le point de reprise est écrit ou rejeté, et rien de ce qui le suit n'est écrit.
+     */
+    private final class BatchWriter {
+        private final long resumeAfter;
+        private final long startNanos;
+        private final Semaphore inFlight;
+        // Enregistrements arrivés avant leur tour, par numéro
+        private final Map<Long, Validated> reorder = new HashMap<>();
+        private final List<Validated> pending = new ArrayList<>(batchSize);
+        private final List<ImportReport.Rejection> rejections = new ArrayList<>();
+        private long nextNumber;
+        private long watermark;
+        private long recordsRead;
+        private long imported;
+        private long rejected;
+
+        BatchWriter(long resumeAfter, long startNanos, Semaphore inFlight) {
+            this.resumeAfter = resumeAfter;
+            this.startNanos = startNanos;
+            this.inFlight = inFlight;
+            this.watermark = Math.max(resumeAfter, 1); // l'en-tête est l'enregistrement 1
+            this.nextNumber = watermark + 1;
+        }
+
+        void drain(BlockingQueue<Validated> in) throws InterruptedException, ImportException, IOException {
+            int finished = 0;
+            while (finished < validatorThreads) {
+                Validated item = in.take();
+                if (item == END_OF_VALIDATION) {
+                    finished++;
+                    continue;
+                }
+                reorder.put(item.number(), item);
+                Validated next;
+                while ((next = reorder.remove(nextNumber)) != null) {
+                    nextNumber++;
+                    inFlight.release();
+                    accept(next);
+                }
+            }
+            if (!reorder.isEmpty()) {
+                throw new IllegalStateException("Enregistrement manquant dans l'import: " + nextNumber);
+            }
+            flush();
+        }
+
+        /**
+         * Traite l'enregistrement suivant dans l'ordre du fichier
+         */
+        private void accept(Validated item) throws ImportException, IOException {
+            recordsRead++;
+            if (item.contact() != null) {
+                pending.add(item);
+                if (pending.size() >= batchSize) {
+                    flush();
+                }
+                return;
+            }
+            if (item.error() != null) {
+                reject(item.number(), item.error());
+            }
+            if (pending.isEmpty()) {
+                watermark = item.number(); // sinon avancé par l'écriture du lot en attente
+            }
+        }
+
+        private void flush() throws ImportException, IOException {
+            if (!pending.isEmpty()) {
+                List<Contact> contacts = new ArrayList<>(pending.size());
+                for (Validated item : pending) {
+                    contacts.add(item.contact());
+                }
+                BatchResult result = write(contacts, batchSize);
+                if (result.getFailureCount() > 0) {
+                    // La tranche a été annulée : on rejoue ligne par ligne pour isoler les lignes fautives
+                    result = write(contacts, 1);
+                    if (contacts.size() > 1 && result.getSuccessCount() == 0) {
+                        throw new ImportException("La base refuse les écritures: " + result.getError(0));
+                    }
+                }
+                for (int i = 0; i < pending.size(); i++) {
+                    if (result.getOutcome(i) == BatchResult.RowOutcome.SUCCESS) {
+                        imported++;
+                    } else {
+                        reject(pending.get(i).number(), result.getError(i));
+                    }
+                }
+                pending.clear();
+                // Lignes rejetées à la validation après le dernier contact du lot comprises
+                watermark = nextNumber - 1;
+            }
+            writeCheckpoint(watermark);
+            if (progressListener != null) {
+                progressListener.onProgress(report());
+            }
+        }
+
+        private BatchResult write(List<Contact> contacts, int size) throws ImportException {
+            try {
+                return contactService.addContacts(contacts, size);
+            } catch (SQLException e) {
+                throw new ImportException("Erreur lors de l'écriture des contacts", e);
+            }
+        }
+
+        private void reject(long number, String reason) {
+            rejected++;
+            if (rejections.size() < maxRejectionsKept) {
+                rejections.add(new ImportReport.Rejection(number, reason));
+            }
+        }
+
+        ImportReport report() {
+            return new ImportReport(recordsRead, imported, rejected, resumeAfter,
+                    Duration.ofNanos(System.nanoTime() - startNanos), rejections);
+        }
+    }
+
+    // ===== MÉTHODES UTILITAIRES PRIVÉES =====
+
+    private Map<String, Integer> readHeader(CsvReader csv) throws ImportException {
+        List<String> header;
+        try {
+            header = csv.readRecord();
+        } catch (IOException e) {
+            throw new ImportException("Lecture de l'en-tête impossible", e);
+        }
+        if (header == null) {
+            throw new ImportException("Fichier vide");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).trim().toLowerCase(Locale.ROOT);
+            if (i == 0 && name.startsWith("\uFEFF")) {
+                name = name.substring(1); // BOM UTF-8 laissé par Excel
+            }
+            columns.put(name, i);
+        }
+        for (String required : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(required)) {
+                throw new ImportException("Colonne obligatoire absente de l'en-tête: " + required);
+            }
+        }
+        return columns;
+    }
+
+    private long readCheckpoint() throws ImportException {
+        if (checkpointFile == null || !Files.exists(checkpointFile)) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(Files.readString(checkpointFile).trim());
+        } catch (IOException | NumberFormatException e) {
+            throw new ImportException("Fichier de reprise illisible: " + checkpointFile, e);
+        }
+    }
+
+    private void writeCheckpoint(long recordNumber) throws IOException {
+        if (checkpointFile == null) {
+            return;
+        }
+        Path tmp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        Files.writeString(tmp, Long.toString(recordNumber));
+        Files.move(tmp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void deleteCheckpoint() throws ImportException {
+        if (checkpointFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(checkpointFile);
+        } catch (IOException e) {
+            throw new ImportException("Suppression du fichier de reprise impossible", e);
+        }
+    }
+
+    private record RawRecord(long number, List<String> fields) {
+    }
+
+    private record Validated(long number, Contact contact, String error) {
+    }
+
+    public static class ImportException extends Exception {
+        public ImportException(String message) {
+            super(message);
+        }
+
+        public ImportException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    // ==================== BUILDER CLASS ====================
+
+    public static class Builder {
+        // Champ obligatoire
+        private final ContactService contactService;
+
+        // Champs optionnels
+        private int validatorThreads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        private int queueCapacity = 10_000;
+        private int batchSize = 1_000;
+        private int maxRejectionsKept = 10_000;
+        private char delimiter = ',';
+        private Path checkpointFile;
+        private ProgressListener progressListener;
+
+        public Builder(ContactService contactService) {
+            this.contactService = contactService;
+        }
+
+        public Builder validatorThreads(int validatorThreads) {
+            this.validatorThreads = validatorThreads;
+            return this;
+        }
+
+        /**
+         * Capacité de chacune des deux files entre étages (contre-pression).
+         */
+        public Builder queueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        public Builder batchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        public Builder maxRejectionsKept(int maxRejectionsKept) {
+            this.maxRejectionsKept = maxRejectionsKept;
+            return this;
+        }
+
+        public Builder delimiter(char delimiter) {
+            this.delimiter = delimiter;
+            return this;
+        }
+
+        /**
+         * Fichier mémorisant le dernier enregistrement traité ; sans lui, pas de reprise possible.
+         */
+        public Builder checkpointFile(Path checkpointFile) {
+            this.checkpointFile = checkpointFile;
+            return this;
+        }
+
+        public Builder progressListener(ProgressListener progressListener) {
+            this.progressListener = progressListener;
+            return this;
+        }
+
+        public ContactImportPipeline build() {
+            if (contactService == null) {
+                throw new IllegalArgumentException("Le service de contacts est obligatoire");
+            }
+            if (validatorThreads <= 0 || queueCapacity <= 0 || batchSize <= 0 || maxRejectionsKept < 0) {
+                throw new IllegalArgumentException("Paramètres d'import invalides");
+            }
+            return new ContactImportPipeline(this);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package service.transfer;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Bilan (ou avancement) d'un import de contacts.
+ */
+public final class ImportReport {
+
+    /**
+     * Ligne rejetée et raison du rejet.
+     * @param recordNumber numéro de l'enregistrement dans le fichier (en-tête = 1)
+     * @param reason message de validation ou d'erreur SQL
+     */
+    public record Rejection(long recordNumber, String reason) {
+    }
+
+    private final long recordsRead;
+    private final long imported;
+    private final long rejected;
+    private final long resumedAfter;
+    private final Duration elapsed;
+    private final List<Rejection> rejections;
+
+    ImportReport(long recordsRead, long imported, long rejected, long resumedAfter,
+                 Duration elapsed, List<Rejection> rejections) {
+        this.recordsRead = recordsRead;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.resumedAfter = resumedAfter;
+        this.elapsed = elapsed;
+        this.rejections = List.copyOf(rejections);
+    }
+
+    public long getRecordsRead() { return recordsRead; }
+    public long getImported() { return imported; }
+    public long getRejected() { return rejected; }
+    public Duration getElapsed() { return elapsed; }
+
+    /**
+     * @return le dernier enregistrement déjà importé lors d'une exécution précédente (0 si aucune reprise)
+     */
+    public long getResumedAfter() { return resumedAfter; }
+
+    /**
+     * @return les lignes rejetées (tronqué au plafond configuré ; voir {@link #getRejected()} pour le total)
+     */
+    public List<Rejection> getRejections() { return rejections; }
+
+    /**
+     * @return débit en lignes traitées (importées ou rejetées) par seconde
+     */
+    public double getRowsPerSecond() {
+        double seconds = elapsed.toNanos() / 1_000_000_000.0;
+        return seconds > 0 ? (imported + rejected) / seconds : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Import: %d lus, %d importés, %d rejetés en %d ms (%.0f lignes/s)",
+                recordsRead, imported, rejected, elapsed.toMillis(), getRowsPerSecond());
+    }
+}
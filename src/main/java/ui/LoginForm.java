@@ -1,20 +1,32 @@
 package ui;
 
+import panels.LazyContactTableModel;
+import service.AsyncContactService;
 import service.AuthenticationService;
-import service.AuthenticationService.AuthenticationException;
+import service.ContactService;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.util.Arrays;
+import java.util.concurrent.CompletionException;
 
 /**
  * Formulaire de connexion avec validation des identifiants.
+ * <p>
+ * La vérification se fait hors de l'EDT (thread virtuel, avec délai maximal) : le formulaire
+ * reste réactif et affiche une progression. Pendant ce temps, le service partagé du tableau de
+ * bord ({@link ContactService#defaultService()}) préchauffe le pool : connexions ouvertes, et
+ * requêtes des ids et de la première page préparées et exécutées une première fois. Le tableau
+ * lit ensuite cette page lui-même, sur des connexions et des pages serveur déjà chaudes.
  */
 public class LoginForm extends JFrame {
     private final JTextField phoneField;
     private final JPasswordField passwordField;
+    private final JButton loginButton;
+    private final JProgressBar progressBar;
     private final AuthenticationService authService;
+    private boolean warmUpStarted;
 
     /**
      * Construit le formulaire de connexion.
@@ -49,48 +61,86 @@ public class LoginForm extends JFrame {
         formPanel.add(passwordField);
 
         // Bouton de connexion
-        JButton loginButton = new JButton("Se connecter");
+        loginButton = new JButton("Se connecter");
         loginButton.addActionListener(this::handleLogin);
         formPanel.add(new JLabel()); // Espace vide
         formPanel.add(loginButton);
 
         mainPanel.add(formPanel, BorderLayout.CENTER);
 
-        // Ajout d'un footer avec version
+        // Ajout d'un footer avec progression et version
+        JPanel footerPanel = new JPanel(new BorderLayout(10, 0));
+        progressBar = new JProgressBar();
+        progressBar.setIndeterminate(true);
+        progressBar.setStringPainted(true);
+        progressBar.setString("Connexion en cours...");
+        progressBar.setVisible(false);
+        footerPanel.add(progressBar, BorderLayout.CENTER);
+
         JLabel versionLabel = new JLabel("v1.0.0", SwingConstants.RIGHT);
         versionLabel.setFont(new Font("Arial", Font.PLAIN, 10));
-        mainPanel.add(versionLabel, BorderLayout.SOUTH);
+        footerPanel.add(versionLabel, BorderLayout.EAST);
+        mainPanel.add(footerPanel, BorderLayout.SOUTH);
 
         add(mainPanel);
     }
 
     /**
-     * Gère l'événement de connexion.
+     * Gère l'événement de connexion : validation, puis authentification en arrière-plan.
+     * Le tableau de bord s'ouvre à la réussite ; en cas d'échec, le formulaire est réactivé.
      */
     private void handleLogin(ActionEvent event) {
         String phone = phoneField.getText().trim();
         char[] passwordChars = passwordField.getPassword();
         String password = new String(passwordChars);
+        Arrays.fill(passwordChars, '\0');
 
-        try {
-            // Validation des champs
-            if (phone.isEmpty() || password.isEmpty()) {
-                throw new IllegalArgumentException("Tous les champs sont obligatoires");
-            }
-
-            // Tentative d'authentification
-            authService.authenticateAndRedirect(phone, password, this); // Ajout du paramètre this (la JFrame actuelle)
+        // Validation des champs
+        if (phone.isEmpty() || password.isEmpty()) {
+            showError("Erreur de validation", "Tous les champs sont obligatoires");
+            return;
+        }
 
-            // Nettoyage des champs sensibles
-            Arrays.fill(passwordChars, '\0');
-            phoneField.setText("");
-            passwordField.setText("");
+        setBusy(true);
+        warmUp();
+        authService.authenticateAsync(phone, password).whenCompleteAsync((user, error) -> {
+            if (error == null) {
+                // Nettoyage des champs sensibles
+                phoneField.setText("");
+                passwordField.setText("");
+                dispose();
+                AuthenticationService.openDashboard(user);
+            } else {
+                setBusy(false);
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                showError("Échec de l'authentification", cause.getMessage());
+            }
+        }, AsyncContactService.edt());
+    }
 
-        } catch (AuthenticationException e) {
-            showError("Échec de l'authentification", e.getMessage());
-        } catch (IllegalArgumentException e) {
-            showError("Erreur de validation", e.getMessage());
+    /**
+     * Préchauffe le pool pour le tableau de bord pendant la vérification des identifiants
+     * (une seule fois par formulaire)
+     */
+    private void warmUp() {
+        if (warmUpStarted) {
+            return;
         }
+        warmUpStarted = true;
+        Thread.ofVirtual().name("login-warm-up")
+                .start(() -> ContactService.defaultService().warmUp(LazyContactTableModel.DEFAULT_PAGE_SIZE));
+    }
+
+    /**
+     * Désactive la saisie et affiche la progression pendant l'authentification
+     */
+    private void setBusy(boolean busy) {
+        phoneField.setEnabled(!busy);
+        passwordField.setEnabled(!busy);
+        loginButton.setEnabled(!busy);
+        progressBar.setVisible(busy);
+        setCursor(busy ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
     }
 
     /**
@@ -1,23 +1,42 @@
 package ui;
 
-import dao.ContactDAO;
+import dao.QueryCancellation;
 import models.Contact;
+import models.ContactColumn;
+import panels.LazyContactTableModel;
+import panels.PhotoCellRenderer;
+import panels.SearchDispatcher;
+import service.AsyncContactService;
+import service.ContactService;
+import service.photo.PhotoThumbnailCache;
+import service.snapshot.ContactSnapshotStore;
 import service.User;
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.awt.event.ActionEvent;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class UserDashboard extends JFrame {
     private final User user;
-    private final ContactDAO contactDao;
+    private final AsyncContactService contactService;
+    private final LazyContactTableModel tableModel;
+    private final SearchDispatcher searchDispatcher;
     private JTable contactTable;
     private JTextField searchField;
+    private JCheckBox fuzzyCheckBox;
 
     public UserDashboard(User user) {
         this.user = user;
-        this.contactDao = new ContactDAO();
+        this.contactService = new AsyncContactService(ContactService.defaultService());
+        // Un seul modèle, virtuel, réutilisé par le chargement initial et les recherches
+        this.tableModel = new LazyContactTableModel.Builder(contactService)
+                .columns(ContactColumn.PHOTO_CONTACT, ContactColumn.ID, ContactColumn.NOM, ContactColumn.POSTNOM,
+                        ContactColumn.NUMERO_TELEPHONE, ContactColumn.EMAIL, ContactColumn.GENRE)
+                .snapshotStore(ContactSnapshotStore.defaultStore())
+                .build();
+        // Recherche à la frappe : anti-rebond, annulation de la requête précédente, résultats périmés ignorés
+        this.searchDispatcher = new SearchDispatcher(this::search, SearchDispatcher.DEFAULT_DEBOUNCE_MILLIS,
+                tableModel::setContacts, tableModel::reload);
         initializeUI();
         loadInitialContacts();
     }
@@ -38,7 +57,7 @@ public class UserDashboard extends JFrame {
         mainPanel.add(searchPanel, BorderLayout.NORTH);
 
         // 2. Tableau de résultats avec rendu amélioré
-        contactTable = new JTable();
+        contactTable = new JTable(tableModel);
         customizeTableAppearance();
         JScrollPane scrollPane = new JScrollPane(contactTable);
         mainPanel.add(scrollPane, BorderLayout.CENTER);
@@ -67,12 +86,25 @@ public class UserDashboard extends JFrame {
         JButton searchButton = new JButton("Rechercher", new ImageIcon("icons/search.png"));
         searchButton.setPreferredSize(new Dimension(120, 30));
 
+        // Recherche approchée sur demande : son premier usage charge tout l'annuaire en mémoire
+        fuzzyCheckBox = new JCheckBox("Recherche approchée");
+        fuzzyCheckBox.setToolTipText("Tolère les fautes d'orthographe (le premier usage charge l'annuaire en mémoire)");
+
         // Gestion des événements
-        searchButton.addActionListener(this::performSearch);
-        searchField.addActionListener(this::performSearch);
+        searchDispatcher.attach(searchField);
+        searchButton.addActionListener(e -> performSearch());
+        fuzzyCheckBox.addActionListener(e -> {
+            if (!searchField.getText().trim().isEmpty()) {
+                performSearch();
+            }
+        });
+
+        JPanel actionsPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
+        actionsPanel.add(fuzzyCheckBox);
+        actionsPanel.add(searchButton);
 
         panel.add(searchField, BorderLayout.CENTER);
-        panel.add(searchButton, BorderLayout.EAST);
+        panel.add(actionsPanel, BorderLayout.EAST);
 
         return panel;
     }
@@ -82,6 +114,8 @@ public class UserDashboard extends JFrame {
         contactTable.setIntercellSpacing(new Dimension(10, 5));
         contactTable.setShowGrid(false);
         contactTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        PhotoCellRenderer.install(contactTable, tableModel.findColumn(ContactColumn.PHOTO_CONTACT),
+                PhotoThumbnailCache.defaultCache());
     }
 
     private void setupMenuBar() {
@@ -92,7 +126,7 @@ public class UserDashboard extends JFrame {
         fileMenu.setMnemonic('F');
 
         JMenuItem refreshItem = new JMenuItem("Actualiser", 'A');
-        refreshItem.addActionListener(e -> loadInitialContacts());
+        refreshItem.addActionListener(e -> tableModel.refresh());
 
         JMenuItem exitItem = new JMenuItem("Quitter", 'Q');
         exitItem.addActionListener(e -> System.exit(0));
@@ -106,78 +140,25 @@ public class UserDashboard extends JFrame {
     }
 
     private void loadInitialContacts() {
-        SwingWorker<List<Contact>, Void> worker = new SwingWorker<>() {
-            @Override
-            protected List<Contact> doInBackground() throws Exception {
-                return contactDao.getAllContacts();
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    updateTable(get());
-                } catch (Exception e) {
-                    showError("Erreur de chargement", e.getMessage());
-                }
-            }
-        };
-        worker.execute();
+        tableModel.load();
     }
 
-    private void performSearch(ActionEvent e) {
+    private void performSearch() {
         String searchTerm = searchField.getText().trim();
-
-        SwingWorker<List<Contact>, Void> worker = new SwingWorker<>() {
-            @Override
-            protected List<Contact> doInBackground() throws Exception {
-                if (searchTerm.isEmpty()) {
-                    return contactDao.getAllContacts();
-                }
-                return contactDao.searchContacts(searchTerm);
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    updateTable(get());
-                } catch (Exception ex) {
-                    showError("Erreur de recherche", ex.getMessage());
-                }
-            }
-        };
-        worker.execute();
-    }
-
-    private void updateTable(List<Contact> contacts) {
-        String[] columnNames = {"ID", "Nom", "Postnom", "Téléphone", "Email", "Genre"};
-        Object[][] data = new Object[contacts.size()][columnNames.length];
-
-        for (int i = 0; i < contacts.size(); i++) {
-            Contact c = contacts.get(i);
-            data[i] = new Object[]{
-                    c.getId(),
-                    c.getNom(),
-                    c.getPostnom(),
-                    c.getNumeroTelephone(),
-                    c.getEmail(),
-                    c.getGenre()
-            };
+        if (searchTerm.isEmpty()) {
+            searchDispatcher.onReset();
+        } else {
+            searchDispatcher.searchNow(searchTerm);
         }
-
-        contactTable.setModel(new DefaultTableModel(data, columnNames) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // Rendre le tableau non éditable
-            }
-        });
     }
 
-    private void showError(String title, String message) {
-        JOptionPane.showMessageDialog(
-                this,
-                message,
-                title,
-                JOptionPane.ERROR_MESSAGE
-        );
+    /**
+     * Recherche en base, ou approchée (nom mal orthographié) si l'utilisateur l'a cochée
+     */
+    private CompletableFuture<List<Contact>> search(String searchTerm, QueryCancellation cancellation) {
+        if (fuzzyCheckBox.isSelected()) {
+            return contactService.searchFuzzy(searchTerm);
+        }
+        return contactService.searchContacts(searchTerm, cancellation);
     }
 }
\ No newline at end of file
@@ -0,0 +1,226 @@
+package utils;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Cache borné en lecture traversante (read-through), avec éviction LRU.
+ * Limites : nombre d'entrées et poids total (selon un "weigher"), durée de vie optionnelle.
+ * Les chargements se font hors verrou ; une invalidation survenue pendant un chargement
+ * empêche la valeur chargée (devenue potentiellement périmée) d'entrer dans le cache.
+ */
+public class BoundedCache<K, V> {
+    private final int maxEntries;
+    private final long maxWeight;
+    private final long ttlNanos;
+    private final ToIntFunction<V> weigher;
+
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock();
+    private long totalWeight;
+    private long generation; // incrémenté à chaque invalidation (protégé par lock)
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    private BoundedCache(Builder<K, V> builder) {
+        this.maxEntries = builder.maxEntries;
+        this.maxWeight = builder.maxWeight;
+        this.ttlNanos = builder.ttl == null ? 0 : builder.ttl.toNanos();
+        this.weigher = builder.weigher;
+    }
+
+    /**
+     * Retourne la valeur en cache, ou la charge et la met en cache.
+     * @param loader chargement en cas d'absence ; une valeur null n'est pas mise en cache
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        long loadGeneration;
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && !isExpired(entry)) {
+                hits++;
+                return entry.value;
+            }
+            if (entry != null) {
+                removeEntry(key, entry);
+            }
+            misses++;
+            loadGeneration = generation;
+        } finally {
+            lock.unlock();
+        }
+
+        V value = loader.apply(key);
+        if (value != null) {
+            lock.lock();
+            try {
+                if (generation == loadGeneration) {
+                    putLocked(key, value);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Retourne la valeur en cache sans chargement (null si absente ou expirée).
+     */
+    public V getIfPresent(K key) {
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            if (entry == null || isExpired(entry)) {
+                misses++;
+                return null;
+            }
+            hits++;
+            return entry.value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void put(K key, V value) {
+        lock.lock();
+        try {
+            generation++;
+            putLocked(key, value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            generation++;
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                removeEntry(key, entry);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            generation++;
+            entries.clear();
+            totalWeight = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Instantané des statistiques du cache.
+     */
+    public CacheStats getStats() {
+        lock.lock();
+        try {
+            return new CacheStats(hits, misses, evictions, entries.size(), totalWeight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param hits lectures servies depuis le cache
+     * @param misses lectures ayant nécessité un chargement
+     * @param evictions entrées évincées pour respecter les limites
+     * @param size nombre d'entrées
+     * @param weight poids total des entrées
+     */
+    public record CacheStats(long hits, long misses, long evictions, int size, long weight) {
+
+        public double hitRatio() {
+            long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+    }
+
+    // ===== MÉTHODES UTILITAIRES PRIVÉES =====
+
+    private void putLocked(K key, V value) {
+        Entry<V> previous = entries.remove(key);
+        if (previous != null) {
+            totalWeight -= previous.weight;
+        }
+        int weight = weigher.applyAsInt(value);
+        entries.put(key, new Entry<>(value, weight, System.nanoTime()));
+        totalWeight += weight;
+        evictIfNeeded();
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || totalWeight > maxWeight) && it.hasNext()) {
+            Map.Entry<K, Entry<V>> eldest = it.next();
+            it.remove();
+            totalWeight -= eldest.getValue().weight;
+            evictions++;
+        }
+    }
+
+    private void removeEntry(K key, Entry<V> entry) {
+        entries.remove(key);
+        totalWeight -= entry.weight;
+    }
+
+    private boolean isExpired(Entry<V> entry) {
+        return ttlNanos > 0 && System.nanoTime() - entry.writtenAtNanos > ttlNanos;
+    }
+
+    private record Entry<V>(V value, int weight, long writtenAtNanos) {
+    }
+
+    // ==================== BUILDER CLASS ====================
+
+    public static class Builder<K, V> {
+        private int maxEntries = 10_000;
+        private long maxWeight = Long.MAX_VALUE;
+        private ToIntFunction<V> weigher = value -> 1;
+        private Duration ttl;
+
+        public Builder<K, V> maxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+            return this;
+        }
+
+        /**
+         * Poids total maximal, mesuré par le weigher (ex. taille estimée en octets).
+         */
+        public Builder<K, V> maxWeight(long maxWeight, ToIntFunction<V> weigher) {
+            this.maxWeight = maxWeight;
+            this.weigher = weigher;
+            return this;
+        }
+
+        /**
+         * Durée de vie d'une entrée après écriture (null ou zéro = pas d'expiration).
+         */
+        public Builder<K, V> expireAfterWrite(Duration ttl) {
+            this.ttl = ttl;
+            return this;
+        }
+
+        public BoundedCache<K, V> build() {
+            if (maxEntries <= 0 || maxWeight <= 0) {
+                throw new IllegalArgumentException("Les limites du cache doivent être positives");
+            }
+            return new BoundedCache<>(this);
+        }
+    }
+}
@@ -0,0 +1,431 @@
+package utils;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pool borné de connexions JDBC.
+ * Les connexions physiques sont réutilisées : fermer la connexion obtenue
+ * via {@link #getConnection()} la rend simplement au pool.
+ */
+public final class ConnectionPool implements AutoCloseable {
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long maxWaitNanos;
+    private final long idleTimeoutNanos;
+    private final long leakThresholdNanos;
+    private final long validationIntervalNanos;
+    private final int validationTimeoutSeconds;
+    private final int statementCacheSize;
+
+    // Connexions libres : la plus récemment rendue en tête (LIFO, donc "chaude")
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private int total;   // connexions physiques ouvertes ou en cours d'ouverture (protégé par lock)
+    private int waiting; // threads en attente d'une connexion (protégé par lock)
+    private boolean closed;
+
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong destroyed = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong leaks = new AtomicLong();
+    private final LongAdder statementHits = new LongAdder();
+    private final LongAdder statementMisses = new LongAdder();
+
+    private final ScheduledExecutorService housekeeper;
+
+    private ConnectionPool(Builder builder) {
+        this.url = builder.url;
+        this.username = builder.username;
+        this.password = builder.password;
+        this.minSize = builder.minSize;
+        this.maxSize = builder.maxSize;
+        this.maxWaitNanos = builder.maxWait.toNanos();
+        this.idleTimeoutNanos = builder.idleTimeout.toNanos();
+        this.leakThresholdNanos = builder.leakDetectionThreshold.toNanos();
+        this.validationIntervalNanos = builder.validationInterval.toNanos();
+        this.validationTimeoutSeconds = builder.validationTimeoutSeconds;
+        this.statementCacheSize = builder.statementCacheSize;
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = builder.housekeepingPeriod.toMillis();
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Emprunte une connexion au pool, en attendant au plus {@code maxWait}.
+     * @return une connexion logique ; {@code close()} la rend au pool
+     * @throws SQLTimeoutException si aucune connexion ne se libère à temps
+     * @throws SQLException si l'ouverture d'une nouvelle connexion échoue
+     */
+    public Connection getConnection() throws SQLException {
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while (true) {
+            PooledConnection pooled = acquire(deadline);
+            if (pooled == null) {
+                pooled = open();
+            } else if (!validate(pooled)) {
+                destroy(pooled);
+                continue;
+            }
+            pooled.markBorrowed(leakThresholdNanos > 0);
+            borrowed.add(pooled);
+            return pooled.lease();
+        }
+    }
+
+    /**
+     * Ouvre les connexions manquantes pour atteindre la taille minimale.
+     */
+    public void warmUp() {
+        while (true) {
+            lock.lock();
+            try {
+                if (closed || total >= minSize) return;
+                total++;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                PooledConnection pooled = open();
+                giveBack(pooled);
+            } catch (SQLException e) {
+                System.err.println("Pool: impossible de préouvrir une connexion: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Instantané des compteurs du pool.
+     */
+    public PoolStats getStats() {
+        lock.lock();
+        try {
+            return new PoolStats(borrowed.size(), idle.size(), waiting, total,
+                    created.get(), destroyed.get(), timeouts.get(), leaks.get(),
+                    statementHits.sum(), statementMisses.sum());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ferme les connexions libres et refuse les nouveaux emprunts.
+     * Les connexions encore empruntées sont fermées à leur restitution.
+     */
+    @Override
+    public void close() {
+        List<PooledConnection> toClose;
+        lock.lock();
+        try {
+            if (closed) return;
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        housekeeper.shutdownNow();
+        toClose.forEach(this::destroy);
+    }
+
+    // ===== CYCLE DE VIE DES CONNEXIONS (package-private, utilisé par PooledConnection) =====
+
+    /**
+     * Restitution d'une connexion logique fermée par l'appelant.
+     */
+    void release(PooledConnection pooled) {
+        borrowed.remove(pooled);
+        if (pooled.isBroken() || !pooled.resetState()) {
+            destroy(pooled);
+            return;
+        }
+        giveBack(pooled);
+    }
+
+    // ===== MÉTHODES UTILITAIRES PRIVÉES =====
+
+    /**
+     * Retourne une connexion libre, ou null si l'appelant est autorisé à en ouvrir une nouvelle
+     * (la place est alors déjà réservée dans {@code total}).
+     */
+    private PooledConnection acquire(long deadline) throws SQLException {
+        lock.lock();
+        try {
+            while (true) {
+                if (closed) {
+                    throw new SQLException("Le pool de connexions est fermé");
+                }
+                PooledConnection pooled = idle.pollFirst();
+                if (pooled != null) {
+                    return pooled;
+                }
+                if (total < maxSize) {
+                    total++;
+                    return null;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    timeouts.incrementAndGet();
+                    throw new SQLTimeoutException("Aucune connexion disponible après "
+                            + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos) + " ms (max=" + maxSize + ")");
+                }
+                waiting++;
+                try {
+                    released.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Attente d'une connexion interrompue", e);
+                } finally {
+                    waiting--;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ouvre une connexion physique pour une place déjà réservée.
+     */
+    private PooledConnection open() throws SQLException {
+        try {
+            Connection physical = DriverManager.getConnection(url, username, password);
+            created.incrementAndGet();
+            StatementCache cache = statementCacheSize > 0
+                    ? new StatementCache(physical, statementCacheSize, statementHits, statementMisses)
+                    : null;
+            return new PooledConnection(this, physical, cache);
+        } catch (SQLException | RuntimeException e) {
+            lock.lock();
+            try {
+                total--;
+                released.signal();
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    private boolean validate(PooledConnection pooled) {
+        if (System.nanoTime() - pooled.getLastUsedNanos() < validationIntervalNanos) {
+            return true; // utilisée à l'instant : inutile de refaire un aller-retour
+        }
+        try {
+            return pooled.getPhysical().isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void giveBack(PooledConnection pooled) {
+        lock.lock();
+        try {
+            if (!closed) {
+                idle.addFirst(pooled);
+                released.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        destroy(pooled);
+    }
+
+    private void destroy(PooledConnection pooled) {
+        pooled.closePhysical();
+        destroyed.incrementAndGet();
+        lock.lock();
+        try {
+            total--;
+            released.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Tâche périodique : éviction des connexions inactives et détection des fuites.
+     */
+    private void housekeep() {
+        List<PooledConnection> evicted = new ArrayList<>();
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            // Les plus anciennes sont en queue de file
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext() && total - evicted.size() > minSize) {
+                PooledConnection pooled = it.next();
+                if (now - pooled.getLastUsedNanos() > idleTimeoutNanos) {
+                    it.remove();
+                    evicted.add(pooled);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        evicted.forEach(this::destroy);
+
+        if (leakThresholdNanos > 0) {
+            for (PooledConnection pooled : borrowed) {
+                if (now - pooled.getBorrowedAtNanos() > leakThresholdNanos && pooled.flagLeak()) {
+                    leaks.incrementAndGet();
+                    System.err.println("Pool: connexion empruntée depuis plus de "
+                            + TimeUnit.NANOSECONDS.toMillis(leakThresholdNanos) + " ms (fuite probable)");
+                    if (pooled.getBorrowTrace() != null) {
+                        pooled.getBorrowTrace().printStackTrace();
+                    }
+                }
+            }
+        }
+        warmUp();
+    }
+
+    /**
+     * Compteurs instantanés du pool.
+     * @param borrowed connexions actuellement empruntées
+     * @param idle connexions libres
+     * @param waiting threads en attente d'une connexion
+     * @param total connexions physiques ouvertes
+     * @param created connexions physiques créées depuis le démarrage
+     * @param destroyed connexions physiques fermées depuis le démarrage
+     * @param timeouts emprunts abandonnés faute de connexion libre
+     * @param leaks fuites détectées
+     * @param statementHits PreparedStatement servis depuis le cache
+     * @param statementMisses PreparedStatement réellement préparés
+     */
+    public record PoolStats(int borrowed, int idle, int waiting, int total,
+                            long created, long destroyed, long timeouts, long leaks,
+                            long statementHits, long statementMisses) {
+
+        /**
+         * @return proportion de PreparedStatement servis depuis le cache (0 si aucun)
+         */
+        public double statementHitRatio() {
+            long requests = statementHits + statementMisses;
+            return requests == 0 ? 0 : (double) statementHits / requests;
+        }
+    }
+
+    // ==================== BUILDER CLASS ====================
+
+    public static class Builder {
+        // Champs obligatoires
+        private final String url;
+        private final String username;
+        private final String password;
+
+        // Champs optionnels
+        private int minSize = 2;
+        private int maxSize = 10;
+        private Duration maxWait = Duration.ofSeconds(5);
+        private Duration idleTimeout = Duration.ofMinutes(5);
+        private Duration leakDetectionThreshold = Duration.ZERO;
+        private Duration validationInterval = Duration.ofMillis(500);
+        private Duration housekeepingPeriod = Duration.ofSeconds(30);
+        private int validationTimeoutSeconds = 2;
+        private int statementCacheSize = 0;
+
+        public Builder(String url, String username, String password) {
+            this.url = url;
+            this.username = username;
+            this.password = password;
+        }
+
+        public Builder minSize(int minSize) {
+            this.minSize = minSize;
+            return this;
+        }
+
+        public Builder maxSize(int maxSize) {
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        public Builder maxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+            return this;
+        }
+
+        public Builder idleTimeout(Duration idleTimeout) {
+            this.idleTimeout = idleTimeout;
+            return this;
+        }
+
+        /**
+         * Durée d'emprunt au-delà de laquelle une fuite est signalée (zéro = désactivé).
+         */
+        public Builder leakDetectionThreshold(Duration leakDetectionThreshold) {
+            this.leakDetectionThreshold = leakDetectionThreshold;
+            return this;
+        }
+
+        /**
+         * Une connexion utilisée plus récemment que cet intervalle n'est pas revalidée à l'emprunt.
+         */
+        public Builder validationInterval(Duration validationInterval) {
+            this.validationInterval = validationInterval;
+            return this;
+        }
+
+        public Builder housekeepingPeriod(Duration housekeepingPeriod) {
+            this.housekeepingPeriod = housekeepingPeriod;
+            return this;
+        }
+
+        public Builder validationTimeoutSeconds(int validationTimeoutSeconds) {
+            this.validationTimeoutSeconds = validationTimeoutSeconds;
+            return this;
+        }
+
+        /**
+         * Nombre de PreparedStatement gardés en cache par connexion physique (zéro = désactivé).
+         */
+        public Builder statementCacheSize(int statementCacheSize) {
+            this.statementCacheSize = statementCacheSize;
+            return this;
+        }
+
+        public ConnectionPool build() {
+            if (url == null || url.isBlank()) {
+                throw new IllegalArgumentException("L'URL JDBC est obligatoire");
+            }
+            if (maxSize <= 0 || minSize < 0 || minSize > maxSize) {
+                throw new IllegalArgumentException("Tailles de pool invalides (min=" + minSize + ", max=" + maxSize + ")");
+            }
+            if (housekeepingPeriod.isZero() || housekeepingPeriod.isNegative()) {
+                throw new IllegalArgumentException("La période de maintenance doit être positive");
+            }
+            return new ConnectionPool(this);
+        }
+    }
+}
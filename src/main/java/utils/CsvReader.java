@@ -0,0 +1,112 @@
+package utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lecteur CSV en flux (RFC 4180) : un enregistrement à la fois, sans charger le fichier.
+ * Gère les champs entre guillemets, les guillemets doublés et les retours à la ligne
+ * à l'intérieur d'un champ.
+ */
+public class CsvReader implements AutoCloseable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader reader;
+    private final char delimiter;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private long recordNumber;
+    private final StringBuilder field = new StringBuilder(64);
+
+    public CsvReader(Reader reader) {
+        this(reader, ',');
+    }
+
+    public CsvReader(Reader reader, char delimiter) {
+        this.reader = reader;
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * Lit l'enregistrement suivant.
+     * @return les champs de l'enregistrement, ou null en fin de fichier
+     * @throws IOException en cas d'erreur de lecture ou de guillemet non fermé
+     */
+    public List<String> readRecord() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        boolean afterQuote = false;
+
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Guillemet non fermé dans l'enregistrement " + (recordNumber + 1));
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        afterQuote = true;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+                afterQuote = false;
+            } else if (c == '\n' || c == '\r' || c == -1) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n' && next != -1) {
+                        position--; // caractère suivant appartenant au prochain enregistrement
+                    }
+                }
+                fields.add(field.toString());
+                recordNumber++;
+                return fields;
+            } else if (c == '"' && field.length() == 0 && !afterQuote) {
+                quoted = true;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * @return le numéro (à partir de 1) du dernier enregistrement lu, en-tête compris
+     */
+    public long getRecordNumber() {
+        return recordNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, BUFFER_SIZE);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+}
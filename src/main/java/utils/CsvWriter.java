@@ -0,0 +1,59 @@
+package utils;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Écriture CSV (RFC 4180) : les champs contenant séparateur, guillemet ou retour
+ * à la ligne sont placés entre guillemets.
+ */
+public class CsvWriter implements AutoCloseable {
+    private final Writer writer;
+    private final char delimiter;
+
+    public CsvWriter(Writer writer) {
+        this(writer, ',');
+    }
+
+    public CsvWriter(Writer writer, char delimiter) {
+        this.writer = writer;
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * Écrit un enregistrement terminé par CRLF ; null est écrit comme un champ vide.
+     */
+    public void writeRecord(Object... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(delimiter);
+            }
+            writeField(fields[i] == null ? "" : fields[i].toString());
+        }
+        writer.write("\r\n");
+    }
+
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void writeField(String value) throws IOException {
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == delimiter || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
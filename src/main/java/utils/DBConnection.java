@@ -1,63 +1,173 @@
 package utils;
 
+import utils.metrics.Counter;
+import utils.metrics.Histogram;
+import utils.metrics.Metrics;
+
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.time.Duration;
 
 public final class DBConnection {
     // Paramètres de connexion (à configurer selon votre environnement)
-    private static final String JDBC_URL = "jdbc:mysql://localhost:3306/GestionContact?" +
-            "useSSL=false&serverTimezone=UTC&zeroDateTimeBehavior=convertToNull";
-    private static final String USERNAME = "root";
-    private static final String PASSWORD = "";
+    private static final String DEFAULT_JDBC_URL = "jdbc:mysql://localhost:3306/GestionContact?" +
+            "useSSL=false&serverTimezone=UTC&zeroDateTimeBehavior=convertToNull" +
+            "&rewriteBatchedStatements=true";
+    // Base cible surchargeable (-Ddb.url=..., ex. base embarquée des benchmarks)
+    private static final String JDBC_URL = System.getProperty("db.url", DEFAULT_JDBC_URL);
+    private static final String USERNAME = System.getProperty("db.user", "root");
+    private static final String PASSWORD = System.getProperty("db.password", "");
+    private static final boolean MYSQL = JDBC_URL.startsWith("jdbc:mysql:");
+    // Délai d'établissement d'une connexion physique (MySQL : infini par défaut)
+    private static final int CONNECT_TIMEOUT_MS = Integer.getInteger("db.connectTimeoutMillis", 10_000);
+
+    // Dimensionnement du pool (surchargeable par -Ddb.pool.xxx=...)
+    private static final int POOL_MIN_SIZE = Integer.getInteger("db.pool.minSize", 2);
+    private static final int POOL_MAX_SIZE = Integer.getInteger("db.pool.maxSize", 10);
+    private static final long POOL_MAX_WAIT_MS = Long.getLong("db.pool.maxWaitMillis", 5_000);
+    private static final long POOL_IDLE_TIMEOUT_MS = Long.getLong("db.pool.idleTimeoutMillis", 300_000);
+    private static final long POOL_LEAK_THRESHOLD_MS = Long.getLong("db.pool.leakThresholdMillis", 60_000);
+
+    // Cache de PreparedStatement par connexion, et préparation côté serveur (optionnelle)
+    private static final int STATEMENT_CACHE_SIZE = Integer.getInteger("db.statements.cacheSize", 32);
+    private static final boolean SERVER_PREPARE = Boolean.getBoolean("db.statements.serverPrepare");
 
-    // Instance unique de la connexion (singleton)
-    private static Connection connection;
+    // Métriques (JMX) : attente d'une connexion (ouverture comprise) et emprunts échoués
+    private static final Histogram ACQUIRE_TIMER = Metrics.timer("db.connection.acquire");
+    private static final Counter ACQUIRE_ERRORS = Metrics.counter("db.connection.errors");
+
+    // Pool partagé, créé au premier emprunt
+    private static volatile ConnectionPool pool;
 
     // Constructeur privé pour empêcher l'instanciation
     private DBConnection() {}
 
     /**
-     * Obtient une connexion à la base de données
+     * Emprunte une connexion au pool.
+     * La fermer (try-with-resources) la rend au pool sans couper la connexion physique.
      * @return Connection objet de connexion JDBC
-     * @throws SQLException si la connexion échoue
+     * @throws SQLException si aucune connexion n'est disponible ou si la connexion échoue
      */
     public static Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            try {
-                // Chargement du driver (optionnel depuis JDBC 4.0 mais recommandé)
-                Class.forName("com.mysql.cj.jdbc.Driver");
-
-                // Établissement de la connexion
-                connection = DriverManager.getConnection(JDBC_URL, USERNAME, PASSWORD);
-            } catch (ClassNotFoundException e) {
-                throw new SQLException("Driver JDBC introuvable", e);
-            }
+        long start = System.nanoTime();
+        try {
+            return pool().getConnection();
+        } catch (SQLException e) {
+            ACQUIRE_ERRORS.increment();
+            throw e;
+        } finally {
+            ACQUIRE_TIMER.recordSince(start);
         }
-        return connection;
     }
 
     /**
-     * Ferme la connexion à la base de données
+     * Ouvre dès maintenant les connexions minimales du pool (sinon ouvertes à la demande),
+     * pour que les premiers emprunts n'attendent pas l'établissement de la connexion
+     * @throws SQLException si le pool ne peut pas être créé
+     */
+    public static void warmUp() throws SQLException {
+        pool().warmUp();
+    }
+
+    /**
+     * Ferme le pool et toutes ses connexions physiques
      * @throws SQLException si la fermeture échoue
      */
-    public static void closeConnection() throws SQLException {
-        if (connection != null && !connection.isClosed()) {
-            connection.close();
+    public static synchronized void closeConnection() throws SQLException {
+        if (pool != null) {
+            pool.close();
+            pool = null;
         }
     }
 
     /**
-     * Teste si la connexion est active
+     * Teste si une connexion valide peut être obtenue
      * @return boolean true si la connexion est valide
      */
     public static boolean isConnectionValid() {
-        try {
-            return connection != null
-                    && !connection.isClosed()
-                    && connection.isValid(2); // 2 secondes de timeout
+        try (Connection conn = getConnection()) {
+            return conn.isValid(2); // 2 secondes de timeout
         } catch (SQLException e) {
             return false;
         }
     }
+
+    /**
+     * Compteurs courants du pool (empruntées, libres, en attente, créées...)
+     * @return instantané des statistiques du pool
+     */
+    public static ConnectionPool.PoolStats getPoolStats() throws SQLException {
+        return pool().getStats();
+    }
+
+    /**
+     * Nombre maximal de connexions du pool : budget de concurrence pour les accès à la base
+     * @return taille maximale du pool
+     */
+    public static int getMaxPoolSize() {
+        return POOL_MAX_SIZE;
+    }
+
+    /**
+     * URL JDBC de la base configurée (sans identifiants), ex. pour distinguer les données locales par base
+     * @return URL JDBC
+     */
+    public static String getJdbcUrl() {
+        return JDBC_URL;
+    }
+
+    /**
+     * Taille de lot (setFetchSize) pour lire un résultat en continu, sans le bufferiser :
+     * Integer.MIN_VALUE pour MySQL (lecture ligne par ligne) ; les autres drivers refusent
+     * cette valeur et lisent par lots de taille fixe
+     */
+    public static int getStreamingFetchSize() {
+        return MYSQL ? Integer.MIN_VALUE : 1_000;
+    }
+
+    private static ConnectionPool pool() throws SQLException {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (DBConnection.class) {
+                current = pool;
+                if (current == null) {
+                    if (MYSQL) {
+                        try {
+                            // Chargement du driver (optionnel depuis JDBC 4.0 mais recommandé)
+                            Class.forName("com.mysql.cj.jdbc.Driver");
+                        } catch (ClassNotFoundException e) {
+                            throw new SQLException("Driver JDBC introuvable", e);
+                        }
+                    }
+                    String url = JDBC_URL;
+                    if (MYSQL && !url.contains("connectTimeout=")) {
+                        url += "&connectTimeout=" + CONNECT_TIMEOUT_MS;
+                    }
+                    if (MYSQL && SERVER_PREPARE) {
+                        url += "&useServerPrepStmts=true";
+                    }
+                    current = new ConnectionPool.Builder(url, USERNAME, PASSWORD)
+                            .minSize(POOL_MIN_SIZE)
+                            .maxSize(POOL_MAX_SIZE)
+                            .maxWait(Duration.ofMillis(POOL_MAX_WAIT_MS))
+                            .idleTimeout(Duration.ofMillis(POOL_IDLE_TIMEOUT_MS))
+                            .leakDetectionThreshold(Duration.ofMillis(POOL_LEAK_THRESHOLD_MS))
+                            .statementCacheSize(STATEMENT_CACHE_SIZE)
+                            .build();
+                    pool = current;
+                    registerPoolGauges(current);
+                }
+            }
+        }
+        return current;
+    }
+
+    private static void registerPoolGauges(ConnectionPool current) {
+        Metrics.gauge("db.pool.borrowed", () -> current.getStats().borrowed());
+        Metrics.gauge("db.pool.idle", () -> current.getStats().idle());
+        Metrics.gauge("db.pool.waiting", () -> current.getStats().waiting());
+        Metrics.gauge("db.pool.total", () -> current.getStats().total());
+        Metrics.gauge("db.pool.timeouts", () -> current.getStats().timeouts());
+        Metrics.gauge("db.pool.statementHitRatio", () -> current.getStats().statementHitRatio());
+    }
 }
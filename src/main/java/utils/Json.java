@@ -0,0 +1,272 @@
+package utils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Utilitaires JSON minimaux (sans dépendance externe).
+ */
+public final class Json {
+
+    private Json() {}
+
+    /**
+     * Ajoute une chaîne JSON quotée et échappée (ou null).
+     */
+    public static void appendString(Appendable out, String value) throws IOException {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                case '\b': out.append("\\b"); break;
+                case '\f': out.append("\\f"); break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+
+    /**
+     * @return la chaîne JSON quotée et échappée
+     */
+    public static String quote(String value) {
+        StringBuilder sb = new StringBuilder(value == null ? 4 : value.length() + 2);
+        try {
+            appendString(sb, value);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // impossible avec un StringBuilder
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Analyse un document JSON.
+     * @return Map (objet, ordre des clés conservé), List, String, Long ou Double, Boolean, ou null
+     * @throws IllegalArgumentException si le document est mal formé
+     */
+    public static Object parse(String json) {
+        if (json == null) {
+            throw new IllegalArgumentException("Document JSON absent");
+        }
+        Parser parser = new Parser(json);
+        Object value = parser.readValue(0);
+        parser.skipWhitespace();
+        if (parser.pos < json.length()) {
+            throw parser.error("Contenu inattendu après la valeur");
+        }
+        return value;
+    }
+
+    /**
+     * Analyseur récursif descendant (profondeur d'imbrication bornée)
+     */
+    private static final class Parser {
+        private static final int MAX_DEPTH = 64;
+
+        private final String json;
+        private int pos;
+
+        Parser(String json) {
+            this.json = json;
+        }
+
+        Object readValue(int depth) {
+            if (depth > MAX_DEPTH) {
+                throw error("Imbrication trop profonde");
+            }
+            skipWhitespace();
+            if (pos >= json.length()) {
+                throw error("Fin de document inattendue");
+            }
+            char c = json.charAt(pos);
+            switch (c) {
+                case '{': return readObject(depth);
+                case '[': return readArray(depth);
+                case '"': return readString();
+                case 't': return readLiteral("true", Boolean.TRUE);
+                case 'f': return readLiteral("false", Boolean.FALSE);
+                case 'n': return readLiteral("null", null);
+                default:
+                    if (c == '-' || (c >= '0' && c <= '9')) {
+                        return readNumber();
+                    }
+                    throw error("Caractère inattendu '" + c + "'");
+            }
+        }
+
+        private Map<String, Object> readObject(int depth) {
+            Map<String, Object> object = new LinkedHashMap<>();
+            pos++; // '{'
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                return object;
+            }
+            while (true) {
+                skipWhitespace();
+                if (peek() != '"') {
+                    throw error("Nom de propriété attendu");
+                }
+                String key = readString();
+                skipWhitespace();
+                expect(':');
+                object.put(key, readValue(depth + 1));
+                skipWhitespace();
+                if (peek() == ',') {
+                    pos++;
+                } else {
+                    expect('}');
+                    return object;
+                }
+            }
+        }
+
+        private List<Object> readArray(int depth) {
+            List<Object> array = new ArrayList<>();
+            pos++; // '['
+            skipWhitespace();
+            if (peek() == ']') {
+                pos++;
+                return array;
+            }
+            while (true) {
+                array.add(readValue(depth + 1));
+                skipWhitespace();
+                if (peek() == ',') {
+                    pos++;
+                } else {
+                    expect(']');
+                    return array;
+                }
+            }
+        }
+
+        private String readString() {
+            pos++; // '"'
+            StringBuilder sb = null;
+            int start = pos;
+            while (pos < json.length()) {
+                char c = json.charAt(pos);
+                if (c == '"') {
+                    String value = sb == null ? json.substring(start, pos) : sb.append(json, start, pos).toString();
+                    pos++;
+                    return value;
+                }
+                if (c == '\\') {
+                    if (sb == null) {
+                        sb = new StringBuilder();
+                    }
+                    sb.append(json, start, pos);
+                    sb.append(readEscape());
+                    start = pos;
+                } else if (c < 0x20) {
+                    throw error("Caractère de contrôle dans une chaîne");
+                } else {
+                    pos++;
+                }
+            }
+            throw error("Chaîne non terminée");
+        }
+
+        private char readEscape() {
+            pos++; // '\\'
+            if (pos >= json.length()) {
+                throw error("Échappement incomplet");
+            }
+            char c = json.charAt(pos++);
+            switch (c) {
+                case '"': return '"';
+                case '\\': return '\\';
+                case '/': return '/';
+                case 'b': return '\b';
+                case 'f': return '\f';
+                case 'n': return '\n';
+                case 'r': return '\r';
+                case 't': return '\t';
+                case 'u':
+                    if (pos + 4 > json.length()) {
+                        throw error("Échappement unicode incomplet");
+                    }
+                    try {
+                        char unicode = (char) Integer.parseInt(json.substring(pos, pos + 4), 16);
+                        pos += 4;
+                        return unicode;
+                    } catch (NumberFormatException e) {
+                        throw error("Échappement unicode invalide");
+                    }
+                default:
+                    throw error("Échappement invalide '\\" + c + "'");
+            }
+        }
+
+        private Object readNumber() {
+            int start = pos;
+            boolean decimal = false;
+            while (pos < json.length()) {
+                char c = json.charAt(pos);
+                if (c == '.' || c == 'e' || c == 'E') {
+                    decimal = true;
+                } else if (!(c == '-' || c == '+' || (c >= '0' && c <= '9'))) {
+                    break;
+                }
+                pos++;
+            }
+            String number = json.substring(start, pos);
+            try {
+                return decimal ? (Object) Double.parseDouble(number) : (Object) Long.parseLong(number);
+            } catch (NumberFormatException e) {
+                throw error("Nombre invalide: " + number);
+            }
+        }
+
+        private Object readLiteral(String literal, Object value) {
+            if (!json.startsWith(literal, pos)) {
+                throw error("Valeur inattendue");
+            }
+            pos += literal.length();
+            return value;
+        }
+
+        void skipWhitespace() {
+            while (pos < json.length()) {
+                char c = json.charAt(pos);
+                if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                    return;
+                }
+                pos++;
+            }
+        }
+
+        private char peek() {
+            return pos < json.length() ? json.charAt(pos) : '\0';
+        }
+
+        private void expect(char expected) {
+            if (peek() != expected) {
+                throw error("'" + expected + "' attendu");
+            }
+            pos++;
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("JSON invalide (position " + pos + "): " + message);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Connexion physique gérée par {@link ConnectionPool}.
+ * Chaque emprunt reçoit une connexion logique distincte (proxy) : une fois fermée,
+ * elle devient inutilisable même si l'appelant en garde une référence.
+ */
+final class PooledConnection {
+    private final ConnectionPool pool;
+    private final Connection physical;
+    private final StatementCache statementCache; // null si le cache est désactivé
+
+    private volatile long lastUsedNanos = System.nanoTime();
+    private volatile long borrowedAtNanos;
+    private volatile Throwable borrowTrace;
+    private volatile boolean broken;
+    private final AtomicBoolean leakReported = new AtomicBoolean();
+
+    PooledConnection(ConnectionPool pool, Connection physical, StatementCache statementCache) {
+        this.pool = pool;
+        this.physical = physical;
+        this.statementCache = statementCache;
+    }
+
+    Connection getPhysical() { return physical; }
+    long getLastUsedNanos() { return lastUsedNanos; }
+    long getBorrowedAtNanos() { return borrowedAtNanos; }
+    Throwable getBorrowTrace() { return borrowTrace; }
+    boolean isBroken() { return broken; }
+
+    void markBorrowed(boolean captureTrace) {
+        borrowedAtNanos = System.nanoTime();
+        borrowTrace = captureTrace ? new Exception("Connexion empruntée ici") : null;
+        leakReported.set(false);
+    }
+
+    /**
+     * @return true la première fois que la fuite est signalée pour cet emprunt
+     */
+    boolean flagLeak() {
+        return leakReported.compareAndSet(false, true);
+    }
+
+    /**
+     * Crée la connexion logique remise à l'emprunteur.
+     */
+    Connection lease() {
+        return (Connection) Proxy.newProxyInstance(
+                PooledConnection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new Lease());
+    }
+
+    /**
+     * Remet la connexion dans un état neutre avant de la rendre au pool.
+     * @return false si la connexion n'est plus réutilisable
+     */
+    boolean resetState() {
+        if (statementCache != null) {
+            statementCache.reclaim();
+        }
+        try {
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            if (physical.isReadOnly()) {
+                physical.setReadOnly(false);
+            }
+            physical.clearWarnings();
+            lastUsedNanos = System.nanoTime();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    void closePhysical() {
+        if (statementCache != null) {
+            statementCache.clear();
+        }
+        try {
+            physical.close();
+        } catch (SQLException e) {
+            System.err.println("Pool: erreur à la fermeture d'une connexion: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Connexion logique : délègue à la connexion physique et intercepte close()/abort().
+     * prepareStatement(sql) et prepareStatement(sql, autoGeneratedKeys) passent par le cache de statements.
+     */
+    private final class Lease implements InvocationHandler {
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (closed.compareAndSet(false, true)) {
+                        pool.release(PooledConnection.this);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed.get() || physical.isClosed();
+                case "abort":
+                    // La connexion physique est sacrifiée : le pool en rouvrira une autre
+                    broken = true;
+                    if (closed.compareAndSet(false, true)) {
+                        physical.abort(args[0] != null ? (Executor) args[0] : Runnable::run);
+                        pool.release(PooledConnection.this);
+                    }
+                    return null;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + physical + (closed.get() ? ", rendue" : "") + "]";
+                default:
+                    break;
+            }
+            if (closed.get()) {
+                throw new SQLException("Connexion déjà rendue au pool", "08003");
+            }
+            if (statementCache != null && isCacheablePrepare(method)) {
+                int autoGeneratedKeys = args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+                return statementCache.prepare((Connection) proxy, (String) args[0], autoGeneratedKeys);
+            }
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException sqlException && isFatal(sqlException)) {
+                    broken = true;
+                }
+                throw cause;
+            }
+        }
+
+        private boolean isCacheablePrepare(Method method) {
+            if (!"prepareStatement".equals(method.getName())) {
+                return false;
+            }
+            Class<?>[] types = method.getParameterTypes();
+            return types.length == 1 || (types.length == 2 && types[1] == int.class);
+        }
+
+        /**
+         * Les SQLSTATE de classe 08 signalent une connexion perdue.
+         */
+        private boolean isFatal(SQLException e) {
+            String state = e.getSQLState();
+            return state != null && state.startsWith("08");
+        }
+    }
+}
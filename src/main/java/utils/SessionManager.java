@@ -1,9 +1,55 @@
 package utils;
 
 import service.User;
+import utils.metrics.Counter;
+import utils.metrics.Metrics;
 
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sessions des utilisateurs authentifiés.
+ * <p>
+ * Mode bureau : un utilisateur courant par processus (setCurrentUser / getCurrentUser).
+ * Mode serveur : un registre de sessions indexé par jeton opaque, pour servir de nombreux
+ * utilisateurs simultanés depuis une même JVM. La recherche d'une session est une simple
+ * lecture de ConcurrentHashMap (sans verrou ni accès à la base) ; une session expire après
+ * une inactivité prolongée ou une durée de vie maximale, et les sessions expirées sont
+ * retirées périodiquement par un thread démon.
+ * <pre>
+ * String token = SessionManager.open(user).getToken();
+ * ...
+ * User user = SessionManager.getUser(token); // null si inconnue ou expirée
+ * </pre>
+ */
 public class SessionManager {
-    private static User currentUser;
+    // Durées de vie (surchargeables par -Dsession.xxx=...)
+    private static final long IDLE_TIMEOUT_NANOS = TimeUnit.MINUTES.toNanos(Long.getLong("session.idleTimeoutMinutes", 30));
+    private static final long MAX_LIFETIME_NANOS = TimeUnit.HOURS.toNanos(Long.getLong("session.maxLifetimeHours", 12));
+    private static final long SWEEP_INTERVAL_SECONDS = Long.getLong("session.sweepIntervalSeconds", 60);
+
+    // L'heure du dernier accès n'est réécrite qu'au-delà de cet écart : une session très sollicitée
+    // par plusieurs threads n'est pas modifiée à chaque lecture
+    private static final long TOUCH_GRANULARITY_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int TOKEN_BYTES = 32;
+
+    private static final SecureRandom random = new SecureRandom();
+    private static final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+    private static volatile ScheduledExecutorService sweeper;
+
+    private static final Counter SESSIONS_OPENED = Metrics.counter("sessions.opened");
+    private static final Counter SESSIONS_EXPIRED = Metrics.counter("sessions.expired");
+
+    static {
+        Metrics.gauge("sessions.active", sessions::size);
+    }
+
+    private static volatile User currentUser;
     private static final ThreadLocal<User> threadLocalUser = new ThreadLocal<>();
 
     // Pour applications desktop/Swing
@@ -28,4 +74,179 @@ public class SessionManager {
         currentUser = null;
         threadLocalUser.remove();
     }
-}
\ No newline at end of file
+
+    // ===== REGISTRE DE SESSIONS =====
+
+    /**
+     * Ouvre une session pour un utilisateur authentifié
+     * @return la session, avec son jeton à transmettre au client
+     */
+    public static Session open(User user) {
+        if (user == null) {
+            throw new IllegalArgumentException("L'utilisateur ne peut pas être null");
+        }
+        ensureSweeper();
+        long now = System.nanoTime();
+        while (true) {
+            Session session = new Session(newToken(), user, now);
+            if (sessions.putIfAbsent(session.token, session) == null) {
+                SESSIONS_OPENED.increment();
+                return session;
+            }
+        }
+    }
+
+    /**
+     * Retrouve une session active et prolonge sa durée d'inactivité
+     * @return la session, ou null si le jeton est inconnu ou la session expirée
+     */
+    public static Session find(String token) {
+        if (token == null) {
+            return null;
+        }
+        Session session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        if (session.isExpired(now)) {
+            expire(session);
+            return null;
+        }
+        session.touch(now);
+        return session;
+    }
+
+    /**
+     * @return l'utilisateur de la session active, ou null si le jeton est inconnu ou expiré
+     */
+    public static User getUser(String token) {
+        Session session = find(token);
+        return session == null ? null : session.user;
+    }
+
+    /**
+     * Ferme une session (déconnexion)
+     * @return true si la session existait
+     */
+    public static boolean close(String token) {
+        return token != null && sessions.remove(token) != null;
+    }
+
+    /**
+     * Ferme toutes les sessions d'un utilisateur (ex. changement de mot de passe)
+     * @return le nombre de sessions fermées
+     */
+    public static int closeAll(int userId) {
+        int closed = 0;
+        for (Session session : sessions.values()) {
+            if (session.user.getId() == userId && sessions.remove(session.token, session)) {
+                closed++;
+            }
+        }
+        return closed;
+    }
+
+    /**
+     * @return nombre de sessions enregistrées (les expirées non encore retirées comprises)
+     */
+    public static int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Retire les sessions expirées (appelé périodiquement par le thread démon)
+     * @return le nombre de sessions retirées
+     */
+    public static int sweep() {
+        long now = System.nanoTime();
+        int removed = 0;
+        for (Session session : sessions.values()) {
+            if (session.isExpired(now) && sessions.remove(session.token, session)) {
+                removed++;
+            }
+        }
+        SESSIONS_EXPIRED.add(removed);
+        return removed;
+    }
+
+    /**
+     * Session d'un utilisateur authentifié. Le jeton est aléatoire (256 bits) et opaque.
+     */
+    public static final class Session {
+        private final String token;
+        private final User user;
+        private final long createdAtNanos;
+        private volatile long lastAccessNanos;
+
+        private Session(String token, User user, long now) {
+            this.token = token;
+            this.user = user;
+            this.createdAtNanos = now;
+            this.lastAccessNanos = now;
+        }
+
+        public String getToken() {
+            return token;
+        }
+
+        public User getUser() {
+            return user;
+        }
+
+        /**
+         * @return temps écoulé depuis le dernier accès
+         */
+        public Duration getIdleTime() {
+            return Duration.ofNanos(System.nanoTime() - lastAccessNanos);
+        }
+
+        /**
+         * @return temps écoulé depuis l'ouverture
+         */
+        public Duration getAge() {
+            return Duration.ofNanos(System.nanoTime() - createdAtNanos);
+        }
+
+        private boolean isExpired(long now) {
+            return now - lastAccessNanos > IDLE_TIMEOUT_NANOS || now - createdAtNanos > MAX_LIFETIME_NANOS;
+        }
+
+        private void touch(long now) {
+            if (now - lastAccessNanos > TOUCH_GRANULARITY_NANOS) {
+                lastAccessNanos = now;
+            }
+        }
+    }
+
+    // ===== MÉTHODES UTILITAIRES PRIVÉES =====
+
+    private static String newToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static void expire(Session session) {
+        if (sessions.remove(session.token, session)) {
+            SESSIONS_EXPIRED.increment();
+        }
+    }
+
+    private static void ensureSweeper() {
+        if (sweeper == null) {
+            synchronized (SessionManager.class) {
+                if (sweeper == null) {
+                    ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+                        Thread t = new Thread(r, "session-sweeper");
+                        t.setDaemon(true);
+                        return t;
+                    });
+                    executor.scheduleWithFixedDelay(SessionManager::sweep,
+                            SWEEP_INTERVAL_SECONDS, SWEEP_INTERVAL_SECONDS, TimeUnit.SECONDS);
+                    sweeper = executor;
+                }
+            }
+        }
+    }
+}
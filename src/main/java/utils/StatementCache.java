@@ -0,0 +1,234 @@
+package utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache LRU de PreparedStatement attaché à une connexion physique du pool.
+ * Clé : texte SQL + mode de récupération des clés générées.
+ * Un statement "fermé" par l'appelant est remis en cache au lieu d'être fermé,
+ * ce qui évite au serveur de réanalyser la requête à chaque appel.
+ */
+final class StatementCache {
+    // Méthodes qui modifient la configuration du statement : il n'est alors plus réutilisé
+    private static final Set<String> CONFIGURING_METHODS = Set.of(
+            "setFetchSize", "setFetchDirection", "setMaxRows", "setLargeMaxRows",
+            "setMaxFieldSize", "setEscapeProcessing", "setCursorName", "setPoolable");
+    // Le délai de requête est remis à sa valeur par défaut (aucun) au retour dans le cache
+    private static final String SET_QUERY_TIMEOUT = "setQueryTimeout";
+
+    private final Connection physical;
+    private final int maxSize;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LinkedHashMap<Key, Entry> entries;
+
+    StatementCache(Connection physical, int maxSize, LongAdder hits, LongAdder misses) {
+        this.physical = physical;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() <= StatementCache.this.maxSize) {
+                    return false;
+                }
+                eldest.getValue().evict();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Retourne un statement préparé pour cette requête, depuis le cache si possible.
+     * @param lease connexion logique renvoyée par {@link Statement#getConnection()}
+     */
+    PreparedStatement prepare(Connection lease, String sql, int autoGeneratedKeys) throws SQLException {
+        Key key = new Key(sql, autoGeneratedKeys);
+        Entry entry = entries.get(key);
+        if (entry != null && !entry.inUse) {
+            hits.increment();
+        } else {
+            misses.increment();
+            PreparedStatement statement = physical.prepareStatement(sql, autoGeneratedKeys);
+            if (entry != null) {
+                // Déjà emprunté (deux statements identiques ouverts en même temps) : non mis en cache
+                return newHandle(lease, new Entry(statement, false));
+            }
+            entry = new Entry(statement, true);
+            entries.put(key, entry);
+        }
+        return newHandle(lease, entry);
+    }
+
+    /**
+     * Récupère les statements que l'emprunteur a oublié de fermer.
+     */
+    void reclaim() {
+        for (Entry entry : new ArrayList<>(entries.values())) {
+            if (entry.inUse && entry.handle != null) {
+                entry.handle.release();
+            }
+        }
+    }
+
+    /**
+     * Ferme tous les statements (à la fermeture de la connexion physique).
+     */
+    void clear() {
+        List<Entry> all = new ArrayList<>(entries.values());
+        entries.clear();
+        all.forEach(Entry::evict);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private PreparedStatement newHandle(Connection lease, Entry entry) {
+        Handle handle = new Handle(lease, entry);
+        entry.inUse = true;
+        entry.handle = handle;
+        return (PreparedStatement) Proxy.newProxyInstance(
+                StatementCache.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                handle);
+    }
+
+    private void giveBack(Entry entry) {
+        entry.inUse = false;
+        entry.handle = null;
+        if (!entry.cached || entry.evicted) {
+            entry.closeQuietly();
+            return;
+        }
+        try {
+            if (entry.dirty) {
+                throw new SQLException("Statement reconfiguré par l'appelant");
+            }
+            if (entry.timeoutChanged) {
+                entry.statement.setQueryTimeout(0);
+                entry.timeoutChanged = false;
+            }
+            entry.statement.clearParameters();
+            entry.statement.clearBatch();
+            entry.statement.clearWarnings();
+        } catch (SQLException e) {
+            removeEntry(entry);
+        }
+    }
+
+    private void removeEntry(Entry entry) {
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (it.next() == entry) {
+                it.remove();
+                break;
+            }
+        }
+        entry.closeQuietly();
+    }
+
+    private record Key(String sql, int autoGeneratedKeys) {
+    }
+
+    private static final class Entry {
+        private final PreparedStatement statement;
+        private final boolean cached;
+        private boolean inUse;
+        private boolean evicted;
+        private boolean dirty;
+        private boolean timeoutChanged;
+        private Handle handle;
+
+        Entry(PreparedStatement statement, boolean cached) {
+            this.statement = statement;
+            this.cached = cached;
+        }
+
+        void evict() {
+            evicted = true;
+            if (!inUse) {
+                closeQuietly();
+            }
+        }
+
+        void closeQuietly() {
+            try {
+                statement.close();
+            } catch (SQLException ignored) {
+                // Connexion déjà fermée : rien à libérer
+            }
+        }
+    }
+
+    /**
+     * Statement logique remis à l'appelant : close() le rend au cache.
+     */
+    private final class Handle implements InvocationHandler {
+        private final Connection lease;
+        private final Entry entry;
+        private boolean closed;
+
+        Handle(Connection lease, Entry entry) {
+            this.lease = lease;
+            this.entry = entry;
+        }
+
+        void release() {
+            if (!closed) {
+                closed = true;
+                giveBack(entry);
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    release();
+                    return null;
+                case "isClosed":
+                    return closed || entry.statement.isClosed();
+                case "getConnection":
+                    return lease;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + entry.statement + "]";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Statement déjà fermé");
+            }
+            if (CONFIGURING_METHODS.contains(name)) {
+                entry.dirty = true;
+            } else if (name.equals(SET_QUERY_TIMEOUT)) {
+                entry.timeoutChanged = true;
+            }
+            try {
+                return method.invoke(entry.statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package utils.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteur monotone, sans contention entre threads.
+ */
+public final class Counter implements Metrics.CounterMXBean {
+    private final LongAdder count = new LongAdder();
+
+    Counter() {}
+
+    public void increment() {
+        count.increment();
+    }
+
+    public void add(long amount) {
+        count.add(amount);
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+}
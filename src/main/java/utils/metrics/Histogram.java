@@ -0,0 +1,172 @@
+package utils.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Histogramme de valeurs (latences, nombres de lignes) à la manière de HdrHistogram :
+ * buckets log-linéaires à précision relative constante, enregistrement sans verrou.
+ * Les centiles portent sur toutes les valeurs enregistrées depuis la création ou le dernier reset().
+ */
+public final class Histogram implements Metrics.HistogramMXBean {
+    // 2^5 sous-buckets par puissance de deux : erreur relative d'au plus 1/32 (~3 %)
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final String unit;
+    private final double scale; // diviseur appliqué aux valeurs exposées (ex. ns → ms)
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    Histogram(String unit, double scale) {
+        this.unit = unit;
+        this.scale = scale;
+    }
+
+    /**
+     * Enregistre une valeur (les valeurs négatives comptent pour 0).
+     */
+    public void record(long value) {
+        long v = Math.max(value, 0);
+        buckets.incrementAndGet(bucketOf(v));
+        count.increment();
+        sum.add(v);
+        long currentMax = max.get();
+        while (v > currentMax && !max.compareAndSet(currentMax, v)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Enregistre la durée écoulée depuis un instant obtenu par System.nanoTime().
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Exécute l'opération en enregistrant sa durée (y compris si elle lève une exception).
+     */
+    public <T> T time(Supplier<T> operation) {
+        long start = System.nanoTime();
+        try {
+            return operation.get();
+        } finally {
+            recordSince(start);
+        }
+    }
+
+    /**
+     * Valeur sous laquelle se trouve le pourcentage donné des valeurs enregistrées
+     * @param percentile entre 0 et 100
+     * @return la valeur, dans l'unité exposée ; 0 si rien n'a été enregistré
+     */
+    public double getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Centile invalide: " + percentile);
+        }
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), max.get()) / scale;
+            }
+        }
+        return max.get() / scale;
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public double getMean() {
+        long n = count.sum();
+        return n == 0 ? 0 : sum.sum() / scale / n;
+    }
+
+    @Override
+    public double getMax() {
+        return max.get() / scale;
+    }
+
+    @Override
+    public double getP50() {
+        return getValueAtPercentile(50);
+    }
+
+    @Override
+    public double getP90() {
+        return getValueAtPercentile(90);
+    }
+
+    @Override
+    public double getP99() {
+        return getValueAtPercentile(99);
+    }
+
+    @Override
+    public double getP999() {
+        return getValueAtPercentile(99.9);
+    }
+
+    @Override
+    public String getUnit() {
+        return unit;
+    }
+
+    /**
+     * Remet l'histogramme à zéro (les valeurs enregistrées pendant la remise à zéro peuvent être perdues)
+     */
+    @Override
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+    // ===== MÉTHODES UTILITAIRES PRIVÉES =====
+
+    /**
+     * Les valeurs inférieures à SUB_BUCKET_COUNT ont chacune leur bucket ; au-delà, chaque
+     * puissance de deux est découpée en SUB_BUCKET_COUNT buckets de même largeur.
+     */
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+        return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    private static long highestValueOf(int bucket) {
+        if (bucket < SUB_BUCKET_COUNT) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKET_COUNT - 1;
+        long lowest = (long) (SUB_BUCKET_COUNT + bucket % SUB_BUCKET_COUNT) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,172 @@
+package utils.metrics;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Registre des métriques de l'application : compteurs, jauges et histogrammes.
+ * <p>
+ * Chaque métrique est publiée en JMX sous le domaine {@link #JMX_DOMAIN}
+ * (ex. {@code GestionContact:type=Timer,name=dao.contacts.findById}) : JConsole ou
+ * VisualVM, onglet MBeans, affichent en direct le nombre d'appels, la moyenne et les centiles.
+ * La publication se désactive par -Dmetrics.jmx=false.
+ * <pre>
+ * private static final Histogram FIND_TIMER = Metrics.timer("dao.contacts.findById");
+ * ...
+ * long start = System.nanoTime();
+ * try { ... } finally { FIND_TIMER.recordSince(start); }
+ * </pre>
+ * Un même nom retourne toujours la même métrique ; les métriques vivent jusqu'à l'arrêt de la JVM.
+ */
+public final class Metrics {
+    // Domaine JMX des métriques
+    public static final String JMX_DOMAIN = "GestionContact";
+    private static final boolean JMX_ENABLED = Boolean.parseBoolean(System.getProperty("metrics.jmx", "true"));
+
+    // Caractères autorisés dans un nom (pas de ',', '=', ':' ni guillemets, réservés par ObjectName)
+    private static final Pattern NAME_PATTERN = Pattern.compile("[A-Za-z0-9._-]+");
+
+    private static final Map<String, Registration> registry = new ConcurrentHashMap<>();
+
+    // Constructeur privé pour empêcher l'instanciation
+    private Metrics() {}
+
+    /**
+     * Compteur monotone (nombre d'erreurs, d'échecs...)
+     */
+    public static Counter counter(String name) {
+        return register(name, "Counter", Counter.class, n -> new Counter());
+    }
+
+    /**
+     * Histogramme de valeurs sans unité (ex. lignes retournées par requête)
+     */
+    public static Histogram histogram(String name) {
+        return register(name, "Histogram", Histogram.class, n -> new Histogram("", 1));
+    }
+
+    /**
+     * Histogramme de durées : enregistrées en nanosecondes, exposées en millisecondes
+     */
+    public static Histogram timer(String name) {
+        return register(name, "Timer", Histogram.class, n -> new Histogram("ms", 1_000_000.0));
+    }
+
+    /**
+     * Jauge lue à la demande (taille du pool, taux de succès d'un cache...).
+     * Réenregistrer une jauge existante remplace sa source : les jauges d'une instance se
+     * publient depuis une instance partagée (defaultService, defaultCache...), une seule fois.
+     */
+    public static void gauge(String name, DoubleSupplier value) {
+        if (value == null) {
+            throw new IllegalArgumentException("La source de la jauge est obligatoire");
+        }
+        register(name, "Gauge", Gauge.class, n -> new Gauge()).source = value;
+    }
+
+    /**
+     * Valeur courante de chaque métrique, par nom (compteurs, jauges, et nombre
+     * d'enregistrements des histogrammes), pour un affichage ou un journal
+     */
+    public static Map<String, Double> snapshot() {
+        Map<String, Double> values = new TreeMap<>();
+        registry.forEach((name, registration) -> {
+            Object metric = registration.metric();
+            if (metric instanceof Counter counter) {
+                values.put(name, (double) counter.getCount());
+            } else if (metric instanceof Gauge gauge) {
+                values.put(name, gauge.getValue());
+            } else if (metric instanceof Histogram histogram) {
+                values.put(name, (double) histogram.getCount());
+            }
+        });
+        return values;
+    }
+
+    // ===== INTERFACES JMX =====
+
+    public interface CounterMXBean {
+        long getCount();
+    }
+
+    public interface GaugeMXBean {
+        double getValue();
+    }
+
+    public interface HistogramMXBean {
+        long getCount();
+        double getMean();
+        double getMax();
+        double getP50();
+        double getP90();
+        double getP99();
+        double getP999();
+        String getUnit();
+        void reset();
+    }
+
+    // ===== MÉTHODES UTILITAIRES PRIVÉES =====
+
+    private record Registration(String type, Object metric) {}
+
+    private static final class Gauge implements GaugeMXBean {
+        private volatile DoubleSupplier source = () -> 0;
+
+        @Override
+        public double getValue() {
+            return source.getAsDouble();
+        }
+    }
+
+    private static <M> M register(String name, String type, Class<M> metricClass, Function<String, M> factory) {
+        if (name == null || !NAME_PATTERN.matcher(name).matches()) {
+            throw new IllegalArgumentException("Nom de métrique invalide: " + name);
+        }
+        Registration registration = registry.computeIfAbsent(name, n -> {
+            M metric = factory.apply(n);
+            publish(n, type, metric);
+            return new Registration(type, metric);
+        });
+        if (!registration.type().equals(type)) {
+            throw new IllegalArgumentException("La métrique " + name + " existe déjà (" + registration.type() + ")");
+        }
+        return metricClass.cast(registration.metric());
+    }
+
+    private static void publish(String name, String type, Object metric) {
+        if (!JMX_ENABLED) {
+            return;
+        }
+        Class<?> mxBean = switch (type) {
+            case "Counter" -> CounterMXBean.class;
+            case "Gauge" -> GaugeMXBean.class;
+            default -> HistogramMXBean.class;
+        };
+        @SuppressWarnings("unchecked")
+        Class<Object> mxBeanInterface = (Class<Object>) mxBean;
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(JMX_DOMAIN + ":type=" + type + ",name=" + name);
+            StandardMBean bean = new StandardMBean(metric, mxBeanInterface, true);
+            try {
+                server.registerMBean(bean, objectName);
+            } catch (InstanceAlreadyExistsException e) {
+                // Enregistrée par un autre chargeur de classes (rechargement) : la plus récente l'emporte
+                server.unregisterMBean(objectName);
+                server.registerMBean(bean, objectName);
+            }
+        } catch (JMException e) {
+            System.err.println("Métriques: publication JMX impossible pour " + name + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,5 @@
+-- Index composites utilisés par la pagination keyset (ContactDAO.getContactsPage).
+-- L'id termine chaque index pour que "(col, id) > (?, ?) ORDER BY col, id LIMIT ?"
+-- soit résolu par un simple parcours d'index, sans tri ni OFFSET.
+CREATE INDEX idx_contacts_nom_id ON contacts (nom, id);
+CREATE INDEX idx_contacts_postnom_id ON contacts (postnom, id);
@@ -0,0 +1,9 @@
+-- Index FULLTEXT ngram utilisé par ContactDAO.searchContacts (mode plein texte).
+-- Le parser ngram découpe nom, postnom et numéro en n-grammes (ngram_token_size = 2 par défaut),
+-- ce qui permet une recherche de sous-chaîne indexée, sans LIKE '%terme%'.
+-- Les mots vides sont désactivés : avec ngram, tout n-gramme contenant un mot vide
+-- (ex. "a") serait sinon exclu de l'index.
+SET SESSION innodb_ft_enable_stopword = OFF;
+
+ALTER TABLE contacts
+    ADD FULLTEXT INDEX ft_contacts_recherche (nom, postnom, numero_telephone) WITH PARSER ngram;
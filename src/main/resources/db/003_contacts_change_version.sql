@@ -0,0 +1,46 @@
+-- Version de modification des contacts, utilisée par la synchronisation incrémentale
+-- (ContactDAO.changesSince) : un client ne relit que les lignes modifiées depuis sa dernière version.
+-- Chaque insertion ou modification reçoit la valeur suivante d'un compteur unique, et chaque
+-- suppression laisse une pierre tombale (version, id). Le verrou sur la ligne du compteur est tenu
+-- jusqu'au commit : les versions sont validées dans l'ordre, une version visible implique que
+-- toutes les précédentes le sont aussi.
+CREATE TABLE contacts_version (
+    id TINYINT PRIMARY KEY,
+    current_version BIGINT NOT NULL,
+    -- Versions antérieures dont les pierres tombales ont été purgées (resynchronisation complète)
+    tombstone_floor BIGINT NOT NULL DEFAULT 0
+);
+INSERT INTO contacts_version (id, current_version) VALUES (1, 1);
+
+-- Les contacts existants prennent la version 1
+ALTER TABLE contacts
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 1,
+    ADD INDEX idx_contacts_version (version);
+
+CREATE TABLE contacts_tombstones (
+    version BIGINT PRIMARY KEY,
+    contact_id INT NOT NULL,
+    deleted_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_contacts_tombstones_deleted_at (deleted_at)
+);
+
+DELIMITER //
+CREATE TRIGGER trg_contacts_version_insert BEFORE INSERT ON contacts FOR EACH ROW
+BEGIN
+    UPDATE contacts_version SET current_version = current_version + 1 WHERE id = 1;
+    SET NEW.version = (SELECT current_version FROM contacts_version WHERE id = 1);
+END//
+
+CREATE TRIGGER trg_contacts_version_update BEFORE UPDATE ON contacts FOR EACH ROW
+BEGIN
+    UPDATE contacts_version SET current_version = current_version + 1 WHERE id = 1;
+    SET NEW.version = (SELECT current_version FROM contacts_version WHERE id = 1);
+END//
+
+CREATE TRIGGER trg_contacts_version_delete AFTER DELETE ON contacts FOR EACH ROW
+BEGIN
+    UPDATE contacts_version SET current_version = current_version + 1 WHERE id = 1;
+    INSERT INTO contacts_tombstones (version, contact_id)
+        SELECT current_version, OLD.id FROM contacts_version WHERE id = 1;
+END//
+DELIMITER ;
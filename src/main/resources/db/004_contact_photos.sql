@@ -0,0 +1,14 @@
+-- Photos des contacts : contacts.photo_contact référence une ligne de cette table (0 = pas de photo).
+-- Le contenu (JPEG, PNG...) est gardé dans sa taille d'origine, accompagné d'une vignette JPEG
+-- carrée de 128 pixels calculée à l'enregistrement (PhotoService) : les tableaux ne lisent et ne
+-- décodent que la vignette, quelques Ko au lieu de plusieurs Mo par photo. Une vignette absente
+-- (photo insérée hors de l'application) est remplacée par le contenu d'origine.
+-- La table est séparée de contacts pour que les lectures de contacts (pages, recherche,
+-- synchronisation) ne transportent jamais les images.
+CREATE TABLE contact_photos (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    mime_type VARCHAR(64) NOT NULL,
+    content MEDIUMBLOB NOT NULL,
+    thumbnail BLOB NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,36 @@
+package dao;
+
+/**
+ * Résultats de lot construits par les doublures de ContactService/ContactDAO des tests
+ */
+public final class BatchResults {
+
+    // Classe utilitaire
+    private BatchResults() {}
+
+    /**
+     * @return un résultat où toutes les lignes ont réussi
+     */
+    public static BatchResult succeeded(int size) {
+        BatchResult result = new BatchResult(size);
+        for (int i = 0; i < size; i++) {
+            result.succeed(i);
+        }
+        return result;
+    }
+
+    /**
+     * @param errors raison de l'échec de chaque ligne, ou null pour une ligne réussie
+     */
+    public static BatchResult of(String... errors) {
+        BatchResult result = new BatchResult(errors.length);
+        for (int i = 0; i < errors.length; i++) {
+            if (errors[i] == null) {
+                result.succeed(i);
+            } else {
+                result.fail(i, errors[i]);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,21 @@
+package dao;
+
+import models.Contact;
+
+import java.util.List;
+
+/**
+ * Pages de contacts construites par les doublures de ContactService des tests
+ */
+public final class ContactPages {
+
+    // Classe utilitaire
+    private ContactPages() {}
+
+    /**
+     * @param nextPageToken jeton de la page suivante, ou null pour la dernière page
+     */
+    public static ContactPage of(List<Contact> contacts, String nextPageToken) {
+        return new ContactPage(contacts, nextPageToken);
+    }
+}
@@ -0,0 +1,255 @@
+package server;
+
+import dao.BatchResult;
+import dao.BatchResults;
+import dao.ContactPage;
+import dao.ContactPages;
+import dao.ContactSort;
+import models.Contact;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import service.AuthenticationService;
+import service.ContactService;
+import service.User;
+import utils.Json;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class ContactHttpServerTest {
+    private static final String PHONE = "+243810000001";
+    private static final String PASSWORD = "secret";
+    private static final int CONTACTS = 5;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private StubContactService contactService;
+    private ContactHttpServer server;
+    private String baseUri;
+
+    @BeforeEach
+    void start() throws IOException {
+        contactService = new StubContactService();
+        server = new ContactHttpServer.Builder(contactService)
+                .authenticationService(new StubAuthenticationService())
+                .bindAddress(InetAddress.getByName("127.0.0.1"))
+                .port(0)
+                .build();
+        server.start();
+        baseUri = "http://127.0.0.1:" + server.getPort();
+    }
+
+    @AfterEach
+    void stop() {
+        server.close();
+    }
+
+    @Test
+    void healthNeedsNoSession() throws Exception {
+        HttpResponse<String> response = get("/api/health", null);
+
+        assertEquals(200, response.statusCode());
+        assertEquals("ok", object(response).get("status"));
+    }
+
+    @Test
+    void contactsRequireABearerToken() throws Exception {
+        assertEquals(401, get("/api/contacts", null).statusCode());
+        assertEquals(401, get("/api/contacts", "inconnu").statusCode());
+    }
+
+    @Test
+    void loginRejectsWrongPassword() throws Exception {
+        HttpResponse<String> response = post("/api/login", null,
+                "{\"numero_telephone\":\"" + PHONE + "\",\"mot_de_passe\":\"faux\"}");
+
+        assertEquals(401, response.statusCode());
+    }
+
+    @Test
+    void pagesFollowNextPageToken() throws Exception {
+        String token = login();
+        List<Long> ids = new ArrayList<>();
+        String pageToken = null;
+        int pages = 0;
+        do {
+            String uri = "/api/contacts?limit=2" + (pageToken == null ? "" : "&pageToken=" + pageToken);
+            HttpResponse<String> response = get(uri, token);
+            assertEquals(200, response.statusCode());
+            Map<?, ?> page = object(response);
+            for (Object contact : (List<?>) page.get("contacts")) {
+                ids.add((Long) ((Map<?, ?>) contact).get("id"));
+            }
+            pageToken = (String) page.get("nextPageToken");
+            pages++;
+        } while (pageToken != null);
+
+        assertEquals(3, pages);
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), ids);
+    }
+
+    @Test
+    void searchRequiresATermAndBoundsLimit() throws Exception {
+        String token = login();
+
+        assertEquals(400, get("/api/contacts/search?q=", token).statusCode());
+        assertEquals(400, get("/api/contacts/search?q=%20%20", token).statusCode());
+        assertEquals(400, get("/api/contacts/search?q=nom&limit=5000", token).statusCode());
+        assertEquals(400, get("/api/contacts/search?q=nom&limit=0", token).statusCode());
+        assertEquals(0, contactService.searchCalls);
+
+        HttpResponse<String> response = get("/api/contacts/search?q=nom&limit=3", token);
+        assertEquals(200, response.statusCode());
+        assertEquals(3, contactService.lastSearchLimit);
+        assertEquals(3, ((List<?>) object(response).get("contacts")).size());
+    }
+
+    @Test
+    void batchReportsInvalidItemsAsFailedRows() throws Exception {
+        String token = login();
+        String body = "{\"add\":["
+                + contactJson("Mbuyi")
+                + "," + contactJson("")
+                + ",{\"nom\":\"Sans email\"}"
+                + "," + contactJson("Kabila")
+                + "]}";
+
+        HttpResponse<String> response = post("/api/contacts/batch", token, body);
+
+        assertEquals(200, response.statusCode());
+        Map<?, ?> batch = object(response);
+        assertEquals(2L, batch.get("succeeded"));
+        assertEquals(2L, batch.get("failed"));
+        List<?> results = (List<?>) batch.get("results");
+        assertEquals(4, results.size());
+        assertEquals("SUCCESS", row(results, 0).get("outcome"));
+        assertNotNull(row(results, 0).get("id"));
+        assertEquals("FAILED", row(results, 1).get("outcome"));
+        assertEquals("Le nom est obligatoire", row(results, 1).get("error"));
+        assertEquals("FAILED", row(results, 2).get("outcome"));
+        assertEquals("SUCCESS", row(results, 3).get("outcome"));
+        // Seules les lignes valides atteignent la base
+        assertEquals(2, contactService.added.size());
+    }
+
+    // ===== MÉTHODES UTILITAIRES PRIVÉES =====
+
+    private String login() throws Exception {
+        HttpResponse<String> response = post("/api/login", null,
+                "{\"numero_telephone\":\"" + PHONE + "\",\"mot_de_passe\":\"" + PASSWORD + "\"}");
+        assertEquals(200, response.statusCode());
+        String token = (String) object(response).get("token");
+        assertNotNull(token);
+        return token;
+    }
+
+    private HttpResponse<String> get(String path, String token) throws Exception {
+        return client.send(request(path, token).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String token, String body) throws Exception {
+        HttpRequest request = request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUri + path));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private static Map<?, ?> object(HttpResponse<String> response) {
+        return (Map<?, ?>) Json.parse(response.body());
+    }
+
+    private static Map<?, ?> row(List<?> results, int index) {
+        return (Map<?, ?>) results.get(index);
+    }
+
+    private static String contactJson(String nom) {
+        return "{\"nom\":" + Json.quote(nom) + ",\"postnom\":\"Postnom\",\"email\":\"contact@example.cd\","
+                + "\"numero_telephone\":\"+243810000002\",\"genre\":\"M\",\"adresse\":\"Kinshasa\"}";
+    }
+
+    private static Contact contact(int id) {
+        return new Contact(id, "Nom" + id, "Postnom", "contact" + id + "@example.cd",
+                "+24381000000" + id, "M", "Kinshasa", 0, 1);
+    }
+
+    /**
+     * Doublure du service : contacts 1..CONTACTS en mémoire, aucun accès à la base
+     */
+    private static final class StubContactService extends ContactService {
+        final List<Contact> added = new ArrayList<>();
+        int searchCalls;
+        int lastSearchLimit;
+
+        @Override
+        public boolean isSearchIndexReady() {
+            return true;
+        }
+
+        @Override
+        public void rebuildSearchIndex() {
+        }
+
+        @Override
+        public ContactPage getContactsPage(ContactSort sort, String pageToken, int pageSize) {
+            int from = pageToken == null ? 0 : Integer.parseInt(pageToken);
+            int to = Math.min(from + pageSize, CONTACTS);
+            List<Contact> contacts = new ArrayList<>();
+            for (int id = from + 1; id <= to; id++) {
+                contacts.add(contact(id));
+            }
+            return ContactPages.of(contacts, to < CONTACTS ? String.valueOf(to) : null);
+        }
+
+        @Override
+        public synchronized List<Contact> searchContacts(String searchTerm, int limit) {
+            searchCalls++;
+            lastSearchLimit = limit;
+            List<Contact> contacts = new ArrayList<>();
+            for (int id = 1; id <= Math.min(limit, CONTACTS); id++) {
+                contacts.add(contact(id));
+            }
+            return contacts;
+        }
+
+        @Override
+        public synchronized BatchResult addContacts(List<Contact> contacts) {
+            for (Contact contact : contacts) {
+                added.add(contact);
+                contact.setId(100 + added.size());
+            }
+            return BatchResults.succeeded(contacts.size());
+        }
+    }
+
+    /**
+     * Doublure de l'authentification : un seul compte administrateur
+     */
+    private static final class StubAuthenticationService extends AuthenticationService {
+        @Override
+        public User authenticate(String phoneNumber, String password) throws AuthenticationException {
+            if (PHONE.equals(phoneNumber) && PASSWORD.equals(password)) {
+                return new User.Builder(1, PHONE, "admin").build();
+            }
+            throw new AuthenticationException("Identifiants incorrects");
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package service.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedLevenshteinTest {
+
+    @Test
+    void countsInsertionsDeletionsAndSubstitutions() {
+        BoundedLevenshtein automaton = new BoundedLevenshtein("kabila", 2);
+        assertEquals(0, automaton.distance("kabila"));
+        assertEquals(1, automaton.distance("kavila"));
+        assertEquals(1, automaton.distance("kabilla"));
+        assertEquals(1, automaton.distance("kbila"));
+        assertEquals(2, automaton.distance("kavilla"));
+    }
+
+    @Test
+    void transpositionCountsAsOneEdit() {
+        BoundedLevenshtein automaton = new BoundedLevenshtein("joseph", 1);
+        assertEquals(1, automaton.distance("jospeh"));
+        assertEquals(1, automaton.distance("ojseph"));
+        assertTrue(automaton.matches("josehp"));
+    }
+
+    @Test
+    void distanceAboveBoundIsCappedAtBoundPlusOne() {
+        BoundedLevenshtein automaton = new BoundedLevenshtein("kabila", 1);
+        assertEquals(2, automaton.distance("kavilla"));
+        assertEquals(2, automaton.distance("tshisekedi"));
+        assertFalse(automaton.matches("mobutu"));
+    }
+
+    @Test
+    void lengthDifferenceOutsideBandIsRejected() {
+        BoundedLevenshtein automaton = new BoundedLevenshtein("abc", 1);
+        assertEquals(2, automaton.distance("abcde"));
+        assertEquals(2, automaton.distance("a"));
+        assertEquals(1, automaton.distance("ab"));
+    }
+
+    @Test
+    void zeroDistanceAcceptsExactWordOnly() {
+        BoundedLevenshtein automaton = new BoundedLevenshtein("ng", 0);
+        assertTrue(automaton.matches("ng"));
+        assertFalse(automaton.matches("nk"));
+        assertEquals(1, automaton.distance(""));
+    }
+
+    @Test
+    void matchesPlainLevenshteinWithinBound() {
+        String[] words = {"", "a", "ab", "ba", "abc", "acb", "kabila", "kabira", "lumumba", "lumbuma", "mbuyi"};
+        for (String pattern : words) {
+            for (int k = 0; k <= 3; k++) {
+                BoundedLevenshtein automaton = new BoundedLevenshtein(pattern, k);
+                // Instance réutilisée d'un mot à l'autre
+                for (String word : words) {
+                    int expected = Math.min(osa(pattern, word), k + 1);
+                    assertEquals(expected, automaton.distance(word), pattern + " / " + word + " / k=" + k);
+                }
+            }
+        }
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new BoundedLevenshtein(null, 1));
+        assertThrows(IllegalArgumentException.class, () -> new BoundedLevenshtein("abc", -1));
+    }
+
+    /**
+     * Distance de référence (matrice complète, inversions de lettres voisines comprises)
+     */
+    private static int osa(String a, String b) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            d[i][0] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            d[0][j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+                }
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+}
@@ -0,0 +1,168 @@
+package service.search;
+
+import models.Contact;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColumnarContactStoreTest {
+    private final ColumnarContactStore store = new ColumnarContactStore();
+
+    @Test
+    void getRebuildsEveryField() {
+        Contact contact = new Contact(7, "Kabila", "Joseph", "jk@example.cd", "+243810000001", "M", "Kinshasa", 3, 1);
+        store.put(contact);
+        assertSameContact(contact, store.get(7));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void nullAndEmptyStringsStayDistinct() {
+        Contact contact = new Contact(1, "", null, "", null, null, "", 0, 0);
+        store.put(contact);
+        assertSameContact(contact, store.get(1));
+    }
+
+    @Test
+    void longAndNonAsciiStringsRoundTrip() {
+        // Longueurs codées sur 1, 2 et 3 octets de varint
+        String medium = "é".repeat(100);   // 200 octets UTF-8
+        String large = "x".repeat(20_000);
+        Contact contact = new Contact(3, "Tshisekedi", medium, large, "☎ +243", "F", "Mbuji-Mayi", 0, 0);
+        store.put(contact);
+        store.put(new Contact(4, "Suivant", "Contact", null, null, null, null, 0, 0));
+        assertSameContact(contact, store.get(3));
+        assertEquals("Suivant", store.get(4).getNom());
+    }
+
+    @Test
+    void putReplacesExistingContact() {
+        store.put(new Contact(5, "Mobutu", "Sese", null, null, "M", null, 0, 0));
+        Contact replaced = new Contact(5, "Mobutu", "Seko", "ms@example.cd", null, "M", "Gbadolite", 2, 1);
+        store.put(replaced);
+        assertSameContact(replaced, store.get(5));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void removeFreesSlotForReuse() {
+        store.put(new Contact(1, "Un", null, null, null, null, null, 0, 0));
+        store.put(new Contact(2, "Deux", null, null, null, null, null, 0, 0));
+        assertTrue(store.remove(1));
+        assertFalse(store.remove(1));
+        assertNull(store.get(1));
+
+        store.put(new Contact(3, "Trois", null, null, null, null, null, 0, 0));
+        assertEquals(2, store.size());
+        assertEquals("Deux", store.get(2).getNom());
+        assertEquals("Trois", store.get(3).getNom());
+        assertArrayEquals(new int[]{2, 3}, store.filter(row -> true));
+    }
+
+    @Test
+    void compactionKeepsLiveRecords() {
+        String padding = "p".repeat(1000);
+        for (int round = 0; round < 3; round++) {
+            for (int id = 1; id <= 1000; id++) {
+                store.put(new Contact(id, "Nom" + id + "-" + round, padding, null, null, null, null, 0, 0));
+            }
+        }
+        for (int id = 1; id <= 1000; id += 2) {
+            store.remove(id);
+        }
+        assertEquals(500, store.size());
+        for (int id = 2; id <= 1000; id += 2) {
+            assertEquals("Nom" + id + "-2", store.get(id).getNom());
+            assertEquals(padding, store.get(id).getPostnom());
+        }
+        // L'arène compactée est bien plus petite que les 3 Mo écrits
+        assertTrue(store.getMemoryBytes() < 2_000_000, "mémoire: " + store.getMemoryBytes());
+    }
+
+    @Test
+    void idsGrowBeyondInitialCapacity() {
+        for (int id = 1; id <= 5000; id++) {
+            store.put(new Contact(id * 3, "N" + id, null, null, null, null, null, 0, 0));
+        }
+        for (int id = 1; id <= 5000; id += 7) {
+            store.remove(id * 3);
+        }
+        for (int id = 1; id <= 5000; id++) {
+            Contact contact = store.get(id * 3);
+            if ((id - 1) % 7 == 0) {
+                assertNull(contact);
+            } else {
+                assertEquals("N" + id, contact.getNom());
+            }
+        }
+    }
+
+    @Test
+    void readDecodesOnlyRequestedFields() {
+        store.put(new Contact(9, "Lumumba", "Patrice", null, null, "M", null, 0, 0));
+        assertEquals("Lumumba Patrice", store.read(9, row -> row.getNom() + " " + row.getPostnom()));
+        assertNull(store.read(10, ColumnarContactStore.ContactRow::getNom));
+    }
+
+    @Test
+    void filterCountAndGenreScanLiveRows() {
+        store.put(new Contact(1, "Kabila", null, null, null, "M", null, 0, 0));
+        store.put(new Contact(2, "Kabamba", null, null, null, "F", null, 0, 0));
+        store.put(new Contact(3, "Lumumba", null, null, null, "M", null, 0, 0));
+        store.put(new Contact(4, "Ilunga", null, null, null, null, null, 0, 0));
+        store.remove(3);
+
+        assertArrayEquals(new int[]{1, 2}, store.filter(row -> row.getNom().startsWith("Kab")));
+        assertEquals(1, store.count(row -> "M".equals(row.getGenre())));
+        Map<String, Integer> genres = store.countByGenre();
+        assertEquals(1, genres.get("M"));
+        assertEquals(1, genres.get("F"));
+        assertEquals(1, genres.get(null));
+    }
+
+    @Test
+    void getAllKeepsRequestOrderAndSkipsMissing() {
+        store.put(new Contact(1, "Un", null, null, null, null, null, 0, 0));
+        store.put(new Contact(2, "Deux", null, null, null, null, null, 0, 0));
+        List<Contact> contacts = store.getAll(new int[]{2, 99, 1});
+        assertEquals(2, contacts.size());
+        assertEquals(2, contacts.get(0).getId());
+        assertEquals(1, contacts.get(1).getId());
+    }
+
+    @Test
+    void clearEmptiesStore() {
+        store.put(new Contact(1, "Un", null, null, null, null, null, 0, 0));
+        store.clear();
+        assertEquals(0, store.size());
+        assertNull(store.get(1));
+        store.put(new Contact(1, "Encore", null, null, null, null, null, 0, 0));
+        assertEquals("Encore", store.get(1).getNom());
+    }
+
+    @Test
+    void rejectsNonPositiveId() {
+        assertThrows(IllegalArgumentException.class,
+                () -> store.put(new Contact(0, "Zéro", null, null, null, null, null, 0, 0)));
+    }
+
+    private static void assertSameContact(Contact expected, Contact actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getNom(), actual.getNom());
+        assertEquals(expected.getPostnom(), actual.getPostnom());
+        assertEquals(expected.getEmail(), actual.getEmail());
+        assertEquals(expected.getNumeroTelephone(), actual.getNumeroTelephone());
+        assertEquals(expected.getGenre(), actual.getGenre());
+        assertEquals(expected.getAdresse(), actual.getAdresse());
+        assertEquals(expected.getPhotoContact(), actual.getPhotoContact());
+        assertEquals(expected.getCompteId(), actual.getCompteId());
+    }
+}
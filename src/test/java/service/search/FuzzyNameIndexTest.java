@@ -0,0 +1,103 @@
+package service.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FuzzyNameIndexTest {
+    private final Map<Integer, String[]> names = new HashMap<>();
+    private FuzzyNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new FuzzyNameIndex(names::get);
+        put(1, "Kabila", "Joseph");
+        put(2, "Tshisekedi", "Félix");
+        put(3, "Lumumba", "Patrice");
+        put(4, "Kabula", "Jean");
+    }
+
+    @Test
+    void exactNameRanksFirst() {
+        assertArrayEquals(new int[]{1, 4}, index.search("kabila"));
+    }
+
+    @Test
+    void toleratesTypos() {
+        assertArrayEquals(new int[]{1, 4}, index.search("kavila"));
+        assertArrayEquals(new int[]{3}, index.search("lumunba"));
+        assertArrayEquals(new int[]{1}, index.search("jospeh"));
+    }
+
+    @Test
+    void matchesSamePronunciationBeyondEditDistance() {
+        assertArrayEquals(new int[]{2}, index.search("chisekedy"));
+        assertArrayEquals(new int[]{2}, index.search("tchissekedi"));
+    }
+
+    @Test
+    void foldsCaseAndAccents() {
+        assertArrayEquals(new int[]{2}, index.search("FELIX"));
+        assertArrayEquals(new int[]{2}, index.search("félix"));
+    }
+
+    @Test
+    void everyQueryWordMustMatch() {
+        assertArrayEquals(new int[]{1}, index.search("kabila josef"));
+        assertArrayEquals(new int[0], index.search("kabila patrice"));
+    }
+
+    @Test
+    void unrelatedNameFindsNothing() {
+        assertArrayEquals(new int[0], index.search("mobutu"));
+        assertArrayEquals(new int[0], index.search(""));
+        assertArrayEquals(new int[0], index.search(null));
+    }
+
+    @Test
+    void limitTruncatesRanking() {
+        assertArrayEquals(new int[]{1}, index.search("kabila", 1));
+        assertThrows(IllegalArgumentException.class, () -> index.search("kabila", 0));
+    }
+
+    @Test
+    void reindexingReplacesPreviousNames() {
+        index.remove(1);
+        put(1, "Mobutu", "Sese");
+        assertArrayEquals(new int[]{4}, index.search("kabila"));
+        assertArrayEquals(new int[]{1}, index.search("mobuto"));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void removeDropsContact() {
+        index.remove(3);
+        names.remove(3);
+        assertArrayEquals(new int[0], index.search("lumumba"));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void contactMissingFromSourceIsNeverReturned() {
+        names.remove(2);
+        assertArrayEquals(new int[0], index.search("tshisekedi"));
+    }
+
+    @Test
+    void clearEmptiesIndex() {
+        index.clear();
+        assertEquals(0, index.size());
+        assertArrayEquals(new int[0], index.search("kabila"));
+    }
+
+    private void put(int id, String... fields) {
+        names.put(id, fields);
+        index.put(id);
+    }
+}
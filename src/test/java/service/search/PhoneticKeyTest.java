@@ -0,0 +1,67 @@
+package service.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class PhoneticKeyTest {
+
+    @Test
+    void documentedExamples() {
+        assertEquals("jskt", PhoneticKey.encode("tshisekedi"));
+        assertEquals("jskt", PhoneticKey.encode("tchissekedi"));
+        assertEquals("jskt", PhoneticKey.encode("chisekedy"));
+        assertEquals("tpn", PhoneticKey.encode("dupont"));
+        assertEquals("tpn", PhoneticKey.encode("dupond"));
+    }
+
+    @Test
+    void voicedAndVoicelessConsonantsShareAKey() {
+        assertEquals(PhoneticKey.encode("kabila"), PhoneticKey.encode("kapila"));
+        assertEquals(PhoneticKey.encode("vero"), PhoneticKey.encode("fero"));
+        assertEquals(PhoneticKey.encode("zola"), PhoneticKey.encode("sola"));
+    }
+
+    @Test
+    void spellingsOfTheSameSoundShareAKey() {
+        assertEquals(PhoneticKey.encode("philippe"), PhoneticKey.encode("filipe"));
+        assertEquals(PhoneticKey.encode("quentin"), PhoneticKey.encode("kentin"));
+        assertEquals(PhoneticKey.encode("cecile"), PhoneticKey.encode("sesile"));
+        assertEquals(PhoneticKey.encode("chantal"), PhoneticKey.encode("shantal"));
+    }
+
+    @Test
+    void silentEndingsAreDropped() {
+        assertEquals(PhoneticKey.encode("dubois"), PhoneticKey.encode("duboi"));
+        assertEquals(PhoneticKey.encode("renaud"), PhoneticKey.encode("renau"));
+        assertEquals(PhoneticKey.encode("mercier"), PhoneticKey.encode("mercie"));
+    }
+
+    @Test
+    void shortWordsKeepTheirEnding() {
+        assertNotEquals(PhoneticKey.encode("bat"), PhoneticKey.encode("ba"));
+    }
+
+    @Test
+    void leadingVowelIsMarked() {
+        assertEquals('a', PhoneticKey.encode("albert").charAt(0));
+        assertNotEquals(PhoneticKey.encode("albert"), PhoneticKey.encode("lbert"));
+        assertEquals(PhoneticKey.encode("elise"), PhoneticKey.encode("helise"));
+    }
+
+    @Test
+    void semiVowelWIsIgnored() {
+        assertEquals(PhoneticKey.encode("mwamba"), PhoneticKey.encode("mamba"));
+    }
+
+    @Test
+    void repeatedSoundsAreCollapsed() {
+        assertEquals(PhoneticKey.encode("massamba"), PhoneticKey.encode("masamba"));
+    }
+
+    @Test
+    void emptyWordHasEmptyKey() {
+        assertEquals("", PhoneticKey.encode(""));
+    }
+}
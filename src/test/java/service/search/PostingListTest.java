@@ -0,0 +1,84 @@
+package service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PostingListTest {
+
+    @Test
+    void addKeepsIdsSortedAndDistinct() {
+        PostingList list = new PostingList();
+        for (int id : new int[]{5, 1, 9, 5, 3, 9, 7}) {
+            list.add(id);
+        }
+        assertArrayEquals(new int[]{1, 3, 5, 7, 9}, Arrays.copyOf(list.ids, list.size));
+    }
+
+    @Test
+    void removeReportsPresence() {
+        PostingList list = PostingList.of(new int[]{2, 4, 6});
+        assertTrue(list.remove(4));
+        assertFalse(list.remove(4));
+        assertTrue(list.remove(2));
+        assertTrue(list.remove(6));
+        assertTrue(list.isEmpty());
+    }
+
+    @Test
+    void intersectKeepsCommonIdsAtStartOfResult() {
+        PostingList list = PostingList.of(new int[]{1, 2, 4, 8, 16, 32, 64});
+        int[] result = {2, 3, 8, 9, 64, 100};
+        int count = list.intersect(result, result.length);
+        assertArrayEquals(new int[]{2, 8, 64}, Arrays.copyOf(result, count));
+    }
+
+    @Test
+    void intersectOnlyReadsGivenLength() {
+        PostingList list = PostingList.of(new int[]{1, 2, 3});
+        int[] result = {1, 2, 3};
+        assertEquals(1, list.intersect(result, 1));
+        assertEquals(0, list.intersect(result, 0));
+    }
+
+    @Test
+    void intersectHandlesBoundsOfGallop() {
+        // Liste longue : le galop dépasse la fin et doit borner la recherche binaire
+        int[] ids = new int[1000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i * 2;
+        }
+        PostingList list = PostingList.of(ids);
+        int[] result = {0, 1, 1022, 1023, 1998, 1999, 5000};
+        int count = list.intersect(result, result.length);
+        assertArrayEquals(new int[]{0, 1022, 1998}, Arrays.copyOf(result, count));
+    }
+
+    @Test
+    void intersectWithEmptyListKeepsNothing() {
+        int[] result = {1, 2, 3};
+        assertEquals(0, new PostingList().intersect(result, result.length));
+    }
+
+    @Test
+    void intersectMatchesNaiveIntersection() {
+        java.util.Random random = new java.util.Random(42);
+        for (int round = 0; round < 200; round++) {
+            int[] a = randomSorted(random, random.nextInt(50));
+            int[] b = randomSorted(random, random.nextInt(500));
+            int[] expected = Arrays.stream(a).filter(id -> Arrays.binarySearch(b, id) >= 0).toArray();
+            int[] result = a.clone();
+            int count = PostingList.of(b).intersect(result, result.length);
+            assertArrayEquals(expected, Arrays.copyOf(result, count));
+        }
+    }
+
+    private static int[] randomSorted(java.util.Random random, int size) {
+        return random.ints(size, 1, 1000).distinct().sorted().toArray();
+    }
+}
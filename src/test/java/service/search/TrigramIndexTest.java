@@ -0,0 +1,114 @@
+package service.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TrigramIndexTest {
+    private final Map<Integer, String[]> texts = new HashMap<>();
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex(texts::get);
+        put(1, "Kabila", "Joseph", "+243810000001");
+        put(2, "Tshisekedi", "Félix", "+243820000002");
+        put(3, "Lumumba", "Patrice", null);
+    }
+
+    @Test
+    void findsSubstringInAnyField() {
+        assertArrayEquals(new int[]{1}, index.search("abil"));
+        assertArrayEquals(new int[]{3}, index.search("atric"));
+        assertArrayEquals(new int[]{2}, index.search("820000"));
+        assertArrayEquals(new int[]{1, 2}, index.search("+243"));
+    }
+
+    @Test
+    void ignoresCaseAndAccents() {
+        assertArrayEquals(new int[]{2}, index.search("FELIX"));
+        assertArrayEquals(new int[]{2}, index.search("félix"));
+        assertArrayEquals(new int[]{1}, index.search("  KABILA "));
+    }
+
+    @Test
+    void verifiesCandidatesAgainstText() {
+        // "abi" et "bil" sont présents, pas la séquence "abix"
+        assertArrayEquals(new int[0], index.search("abix"));
+    }
+
+    @Test
+    void doesNotMatchAcrossFields() {
+        assertArrayEquals(new int[0], index.search("kabilajoseph"));
+        assertArrayEquals(new int[0], index.search("lajo"));
+    }
+
+    @Test
+    void shortTermsAreScanned() {
+        assertArrayEquals(new int[]{3}, index.search("um"));
+        assertArrayEquals(new int[]{1, 2}, index.search("se"));
+        assertArrayEquals(new int[]{1, 2, 3}, index.search("i"));
+    }
+
+    @Test
+    void blankTermFindsNothing() {
+        assertArrayEquals(new int[0], index.search(null));
+        assertArrayEquals(new int[0], index.search("   "));
+    }
+
+    @Test
+    void reindexingReplacesPreviousText() {
+        index.remove(1);
+        put(1, "Mobutu", "Sese", null);
+        assertArrayEquals(new int[0], index.search("kabila"));
+        assertArrayEquals(new int[]{1}, index.search("mobutu"));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void removeDropsDocument() {
+        index.remove(2);
+        texts.remove(2);
+        assertArrayEquals(new int[0], index.search("tshi"));
+        assertEquals(2, index.size());
+        index.remove(2); // déjà retiré : sans effet
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void documentMissingFromSourceIsNeverReturned() {
+        texts.remove(3); // retiré de la source avant l'index
+        assertArrayEquals(new int[0], index.search("lumumba"));
+        index.remove(3);
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void putIgnoresDocumentAbsentFromSource() {
+        index.put(42);
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void clearEmptiesIndex() {
+        index.clear();
+        assertEquals(0, index.size());
+        assertArrayEquals(new int[0], index.search("kabila"));
+    }
+
+    @Test
+    void requiresSource() {
+        assertThrows(IllegalArgumentException.class, () -> new TrigramIndex(null));
+    }
+
+    private void put(int id, String... fields) {
+        texts.put(id, fields);
+        index.put(id);
+    }
+}
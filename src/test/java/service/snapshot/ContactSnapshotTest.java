@@ -0,0 +1,147 @@
+package service.snapshot;
+
+import models.Contact;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContactSnapshotTest {
+    private static final Contact KABILA = new Contact(7, "Kabila", "Joseph", "jk@example.cd",
+            "+243810000001", "M", "Kinshasa", 3, 1);
+    private static final Contact TSHISEKEDI = new Contact(2, "Tshisekedi", "Félix", null,
+            "+243820000002", null, "", 0, 1);
+    private static final Contact LUMUMBA = new Contact(40, "Lumumba", "Patrice", "pl@example.cd",
+            null, "M", "Onalua", 0, 2);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripKeepsEveryField() throws IOException {
+        Path file = dir.resolve("contacts.snap");
+        int written = ContactSnapshot.write(file, 12L, List.of(KABILA, TSHISEKEDI, LUMUMBA).iterator());
+
+        ContactSnapshot snapshot = ContactSnapshot.open(file);
+        assertEquals(3, written);
+        assertEquals(3, snapshot.size());
+        assertEquals(12L, snapshot.getVersion());
+        assertArrayEquals(new int[]{2, 7, 40}, snapshot.getIds());
+        assertSameContact(KABILA, snapshot.find(7));
+        assertSameContact(TSHISEKEDI, snapshot.find(2));
+        assertSameContact(LUMUMBA, snapshot.find(40));
+    }
+
+    @Test
+    void unknownIdIsNotFound() throws IOException {
+        ContactSnapshot snapshot = write(List.of(KABILA, LUMUMBA));
+        assertNull(snapshot.find(8));
+        assertFalse(snapshot.contains(1));
+        assertTrue(snapshot.contains(40));
+    }
+
+    @Test
+    void emptySnapshotOpens() throws IOException {
+        ContactSnapshot snapshot = write(List.of());
+        assertEquals(0, snapshot.size());
+        assertArrayEquals(new int[0], snapshot.getIds());
+        assertNull(snapshot.find(1));
+    }
+
+    @Test
+    void duplicateIdIsRejected() {
+        Path file = dir.resolve("duplicate.snap");
+        Contact copy = new Contact(7, "Autre", "Nom", null, null, null, null, 0, 0);
+        assertThrows(IOException.class, () -> ContactSnapshot.write(file, 1L, List.of(KABILA, copy).iterator()));
+    }
+
+    @Test
+    void mergeReplacesRemovesAndAdds() throws IOException {
+        ContactSnapshot base = write(List.of(KABILA, TSHISEKEDI, LUMUMBA));
+        Contact renamed = new Contact(7, "Kabila", "Kabange", "jk@example.cd", "+243810000001", "M", "Lubumbashi", 3, 1);
+        Contact added = new Contact(5, "Mobutu", "Sese", null, null, "M", null, 0, 1);
+
+        Path target = dir.resolve("merged.snap");
+        base.writeMerged(target, 13L, Map.of(7, renamed, 5, added), Set.of(2));
+
+        ContactSnapshot merged = ContactSnapshot.open(target);
+        assertEquals(13L, merged.getVersion());
+        assertArrayEquals(new int[]{5, 7, 40}, merged.getIds());
+        assertSameContact(renamed, merged.find(7));
+        assertSameContact(added, merged.find(5));
+        assertSameContact(LUMUMBA, merged.find(40));
+    }
+
+    @Test
+    void flippedByteFailsChecksum() throws IOException {
+        ContactSnapshot snapshot = write(List.of(KABILA, TSHISEKEDI));
+        Path file = snapshot.getFile();
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[40] ^= 0x01; // dans le premier enregistrement
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> ContactSnapshot.open(file));
+    }
+
+    @Test
+    void truncatedFileIsRejected() throws IOException {
+        Path file = write(List.of(KABILA, TSHISEKEDI)).getFile();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 4);
+        }
+        assertThrows(IOException.class, () -> ContactSnapshot.open(file));
+
+        Files.write(file, new byte[10]);
+        assertThrows(IOException.class, () -> ContactSnapshot.open(file));
+    }
+
+    @Test
+    void unknownFormatIsRejected() throws IOException {
+        Path file = write(List.of(KABILA)).getFile();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(2).flip(), 4);
+        }
+        assertThrows(IOException.class, () -> ContactSnapshot.open(file));
+    }
+
+    @Test
+    void inconsistentHeaderIsRejected() throws IOException {
+        Path file = write(List.of(KABILA, TSHISEKEDI)).getFile();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(3).flip(), 16); // nombre de contacts
+        }
+        assertThrows(IOException.class, () -> ContactSnapshot.open(file));
+    }
+
+    private ContactSnapshot write(List<Contact> contacts) throws IOException {
+        Path file = Files.createTempFile(dir, "contacts", ".snap");
+        ContactSnapshot.write(file, 1L, contacts.iterator());
+        return ContactSnapshot.open(file);
+    }
+
+    private static void assertSameContact(Contact expected, Contact actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getNom(), actual.getNom());
+        assertEquals(expected.getPostnom(), actual.getPostnom());
+        assertEquals(expected.getEmail(), actual.getEmail());
+        assertEquals(expected.getNumeroTelephone(), actual.getNumeroTelephone());
+        assertEquals(expected.getGenre(), actual.getGenre());
+        assertEquals(expected.getAdresse(), actual.getAdresse());
+        assertEquals(expected.getPhotoContact(), actual.getPhotoContact());
+        assertEquals(expected.getCompteId(), actual.getCompteId());
+    }
+}
@@ -0,0 +1,130 @@
+package service.transfer;
+
+import dao.BatchResult;
+import dao.BatchResults;
+import models.Contact;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import service.ContactService;
+
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContactImportPipelineTest {
+    private static final int RECORDS = 2_000;
+    // Une ligne sur SLOW_EVERY est longue à valider (adresse précédée de nombreux espaces) :
+    // les validateurs parallèles livrent alors les lignes dans le désordre
+    private static final int SLOW_EVERY = 37;
+    private static final int INVALID_EVERY = 97;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void resumeAfterFailureNeverWritesARowTwice() throws Exception {
+        String csv = csv();
+        // Échec à différents moments de l'import
+        for (int failOnCall : new int[]{2, 5, 9, 14, 20}) {
+            Path checkpoint = dir.resolve("import-" + failOnCall + ".checkpoint");
+            RecordingService database = new RecordingService();
+
+            database.failOnCall = failOnCall;
+            ContactImportPipeline first = pipeline(database, checkpoint);
+            assertThrows(ContactImportPipeline.ImportException.class, () -> first.importFrom(new StringReader(csv)));
+            assertTrue(Files.exists(checkpoint));
+            long resumeAfter = Long.parseLong(Files.readString(checkpoint).trim());
+            for (int row : database.writes.keySet()) {
+                // La ligne n du fichier est l'enregistrement n + 1 (après l'en-tête)
+                assertTrue(row + 1 <= resumeAfter, "ligne " + row + " écrite après le point de reprise " + resumeAfter);
+            }
+
+            database.failOnCall = -1;
+            ImportReport report = pipeline(database, checkpoint).importFrom(new StringReader(csv));
+
+            assertEquals(resumeAfter, report.getResumedAfter());
+            for (Map.Entry<Integer, Integer> write : database.writes.entrySet()) {
+                assertEquals(1, write.getValue(), "ligne " + write.getKey() + " écrite plusieurs fois");
+            }
+            assertEquals(RECORDS - RECORDS / INVALID_EVERY, database.writes.size());
+            assertTrue(Files.notExists(checkpoint));
+        }
+    }
+
+    @Test
+    void batchesHoldConsecutiveRecordsOnly() throws Exception {
+        RecordingService database = new RecordingService();
+        ImportReport report = pipeline(database, null).importFrom(new StringReader(csv()));
+
+        assertEquals(RECORDS, report.getRecordsRead());
+        assertEquals(RECORDS / INVALID_EVERY, report.getRejected());
+        int previous = 0;
+        for (List<Integer> batch : database.batches) {
+            for (int row : batch) {
+                // Ligne suivante, ou la suivante après une ligne invalide
+                int gap = row - previous;
+                assertTrue(gap == 1 || (gap == 2 && (previous + 1) % INVALID_EVERY == 0),
+                        "ligne " + row + " écrite après " + previous);
+                previous = row;
+            }
+        }
+    }
+
+    private ContactImportPipeline pipeline(ContactService service, Path checkpoint) {
+        return new ContactImportPipeline.Builder(service)
+                .validatorThreads(6)
+                .queueCapacity(16)
+                .batchSize(50)
+                .checkpointFile(checkpoint)
+                .build();
+    }
+
+    /**
+     * Lignes 1..RECORDS ; l'email porte le numéro de ligne, le nom est vide une ligne sur INVALID_EVERY
+     */
+    private static String csv() {
+        StringBuilder csv = new StringBuilder("nom,postnom,email,numero_telephone,genre,adresse\n");
+        String padding = " ".repeat(200_000);
+        for (int row = 1; row <= RECORDS; row++) {
+            csv.append(row % INVALID_EVERY == 0 ? "" : "Nom" + row).append(",Postnom,")
+                    .append("contact").append(row).append("@example.cd,+24381")
+                    .append(String.format("%07d", row)).append(",M,")
+                    .append(row % SLOW_EVERY == 0 ? padding + "Kinshasa" : "Kinshasa").append('\n');
+        }
+        return csv.toString();
+    }
+
+    /**
+     * Doublure de la base : compte les écritures de chaque ligne (numéro tiré de l'email)
+     */
+    private static final class RecordingService extends ContactService {
+        final Map<Integer, Integer> writes = new HashMap<>();
+        final List<List<Integer>> batches = new ArrayList<>();
+        int failOnCall = -1;
+        private int calls;
+
+        @Override
+        public synchronized BatchResult addContacts(List<Contact> contacts, int batchSize) throws SQLException {
+            if (++calls == failOnCall) {
+                throw new SQLException("Connexion perdue");
+            }
+            List<Integer> rows = new ArrayList<>(contacts.size());
+            for (Contact contact : contacts) {
+                int row = Integer.parseInt(contact.getEmail().replaceAll("\\D", ""));
+                rows.add(row);
+                writes.merge(row, 1, Integer::sum);
+            }
+            batches.add(rows);
+            return BatchResults.succeeded(contacts.size());
+        }
+    }
+}